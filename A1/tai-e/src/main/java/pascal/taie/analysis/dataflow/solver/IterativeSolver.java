@@ -22,39 +22,156 @@
 
 package pascal.taie.analysis.dataflow.solver;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Sets;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Round-robin iterative solver, which repeatedly sweeps all nodes of
+ * the CFG until no fact changes in a whole pass.
+ * <p>
+ * The nodes are visited in reverse post-order of the CFG for forward
+ * analyses, and in reverse post-order of the reversed CFG (starting from
+ * the exit) for backward analyses, so that on reducible CFGs most facts
+ * are propagated to all nodes in a single pass. Facts are updated in place:
+ * the facts of predecessors (successors) are met into the existing in (out)
+ * fact instead of a fresh one. This is sound for monotone analyses,
+ * where facts only move down the lattice during solving.
+ * <p>
+ * The number of passes of each solving, including the last pass
+ * which changes no fact, is logged at debug level.
+ */
 class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(IterativeSolver.class);
+
     public IterativeSolver(DataflowAnalysis<Node, Fact> analysis) {
         super(analysis);
     }
 
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        throw new UnsupportedOperationException();
+        logPasses(cfg, sweepForward(cfg, result));
     }
 
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        logPasses(cfg, sweepBackward(cfg, result));
+    }
+
+    /**
+     * Sweeps the nodes in reverse post-order until no out fact changes.
+     *
+     * @return the number of the passes, including the last one.
+     */
+    int sweepForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        List<Node> order = reversePostOrder(cfg, true);
+        int passes = 0;
         boolean changed = true;
         while (changed) {
             changed = false;
-            // iterate nodes but skip exit
-            for (Node node : cfg) {
-                if (node.equals(cfg.getExit())) {
+            ++passes;
+            for (Node node : order) {
+                if (cfg.isEntry(node)) {
+                    continue;
+                }
+                // meet of pred-out into node-in
+                Fact in = result.getInFact(node);
+                for (Node pred : cfg.getPredsOf(node)) {
+                    analysis.meetInto(result.getOutFact(pred), in);
+                }
+                // node-in -> node-out
+                changed |= analysis.transferNode(node, in, result.getOutFact(node));
+            }
+        }
+        return passes;
+    }
+
+    /**
+     * Sweeps the nodes in reverse post-order of the reversed CFG
+     * until no in fact changes.
+     *
+     * @return the number of the passes, including the last one.
+     */
+    int sweepBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        List<Node> order = reversePostOrder(cfg, false);
+        int passes = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            ++passes;
+            for (Node node : order) {
+                if (cfg.isExit(node)) {
                     continue;
                 }
                 // meet of succ-in into node-out
-                result.setOutFact(node, analysis.newInitialFact());
+                Fact out = result.getOutFact(node);
                 for (Node succ : cfg.getSuccsOf(node)) {
-                    analysis.meetInto(result.getInFact(succ), result.getOutFact(node));
+                    analysis.meetInto(result.getInFact(succ), out);
                 }
                 // node-out -> node-in
-                changed = changed || analysis.transferNode(node, result.getInFact(node), result.getOutFact(node));
+                changed |= analysis.transferNode(node, result.getInFact(node), out);
+            }
+        }
+        return passes;
+    }
+
+    /**
+     * Computes reverse post-order of the nodes by depth-first search
+     * from the entry along successors (if {@code forward} is true),
+     * or from the exit along predecessors (otherwise). The nodes that
+     * are unreachable from the start node are put at the end of the order.
+     */
+    private static <Node> List<Node> reversePostOrder(CFG<Node> cfg, boolean forward) {
+        int size = cfg.getNumberOfNodes();
+        List<Node> postOrder = new ArrayList<>(size);
+        Set<Node> visited = Sets.newSet();
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<Node>> children = new ArrayDeque<>();
+        Node start = forward ? cfg.getEntry() : cfg.getExit();
+        visited.add(start);
+        stack.push(start);
+        children.push(next(cfg, start, forward));
+        while (!stack.isEmpty()) {
+            Iterator<Node> it = children.peek();
+            if (it.hasNext()) {
+                Node child = it.next();
+                if (visited.add(child)) {
+                    stack.push(child);
+                    children.push(next(cfg, child, forward));
+                }
+            } else {
+                postOrder.add(stack.pop());
+                children.pop();
+            }
+        }
+        Collections.reverse(postOrder);
+        if (postOrder.size() < size) {
+            for (Node node : cfg) {
+                if (!visited.contains(node)) {
+                    postOrder.add(node);
+                }
             }
         }
+        return postOrder;
+    }
+
+    private static <Node> Iterator<Node> next(CFG<Node> cfg, Node node, boolean forward) {
+        return (forward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node)).iterator();
+    }
+
+    private static void logPasses(CFG<?> cfg, int passes) {
+        logger.debug("{} converged after {} pass(es)", cfg.getMethod(), passes);
     }
 }
@@ -77,18 +77,28 @@ public abstract class Solver<Node, Fact> {
     }
 
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        throw new UnsupportedOperationException();
+        // initialize entry-out
+        result.setOutFact(cfg.getEntry(), analysis.newBoundaryFact(cfg));
+        // initialize others-in and others-out, which are updated in place
+        for (Node node : cfg) {
+            if (cfg.isEntry(node)) {
+                continue;
+            }
+            result.setInFact(node, analysis.newInitialFact());
+            result.setOutFact(node, analysis.newInitialFact());
+        }
     }
 
     protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // initialize exit-in
         result.setInFact(cfg.getExit(), analysis.newBoundaryFact(cfg));
-        // initialize others-in
+        // initialize others-in and others-out, which are updated in place
         for (Node node : cfg) {
-            if (node.equals(cfg.getExit())) {
+            if (cfg.isExit(node)) {
                 continue;
             }
             result.setInFact(node, analysis.newInitialFact());
+            result.setOutFact(node, analysis.newInitialFact());
         }
     }
 
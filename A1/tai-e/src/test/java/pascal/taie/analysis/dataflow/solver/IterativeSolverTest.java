@@ -0,0 +1,171 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.analysis.graph.cfg.EdgeListCFG;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+public class IterativeSolverTest {
+
+    /**
+     * Collects the nodes which are passed through before (forward)
+     * or after (backward) each node, i.e., each node adds itself
+     * to the fact, and the facts are met by union.
+     */
+    private record PathNodes(boolean isForward)
+            implements DataflowAnalysis<Integer, BitSet> {
+
+        @Override
+        public BitSet newBoundaryFact(CFG<Integer> cfg) {
+            return new BitSet();
+        }
+
+        @Override
+        public BitSet newInitialFact() {
+            return new BitSet();
+        }
+
+        @Override
+        public void meetInto(BitSet fact, BitSet target) {
+            target.or(fact);
+        }
+
+        @Override
+        public boolean transferNode(Integer node, BitSet in, BitSet out) {
+            BitSet source = isForward ? in : out;
+            BitSet target = isForward ? out : in;
+            BitSet old = (BitSet) target.clone();
+            target.or(source);
+            target.set(node);
+            return !target.equals(old);
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Integer> edge) {
+            return false;
+        }
+
+        @Override
+        public BitSet transferEdge(Edge<Integer> edge, BitSet nodeFact) {
+            return nodeFact;
+        }
+    }
+
+    /**
+     * A chain with two nested diamonds, without loops.
+     */
+    private static final EdgeListCFG ACYCLIC = new EdgeListCFG(8,
+            new int[]{0, 1}, new int[]{1, 2}, new int[]{1, 3},
+            new int[]{2, 4}, new int[]{3, 4}, new int[]{4, 5},
+            new int[]{4, 6}, new int[]{5, 7}, new int[]{6, 7},
+            new int[]{7, 8});
+
+    /**
+     * Two nested loops, whose headers are 1 (outer) and 2 (inner),
+     * and a branch from the inner loop to the exit.
+     */
+    private static final EdgeListCFG LOOPS = new EdgeListCFG(7,
+            new int[]{0, 1}, new int[]{1, 2}, new int[]{2, 3},
+            new int[]{3, 4}, new int[]{4, 2}, new int[]{4, 5},
+            new int[]{3, 6}, new int[]{5, 1}, new int[]{5, 6},
+            new int[]{6, 7});
+
+    /**
+     * Solves the analysis on given CFG, checks the result,
+     * and returns the number of the passes of the solver.
+     */
+    private static int solve(EdgeListCFG cfg, boolean forward) {
+        IterativeSolver<Integer, BitSet> solver =
+                new IterativeSolver<>(new PathNodes(forward));
+        DataflowResult<Integer, BitSet> result = new DataflowResult<>();
+        int passes;
+        if (forward) {
+            solver.initializeForward(cfg, result);
+            passes = solver.sweepForward(cfg, result);
+        } else {
+            solver.initializeBackward(cfg, result);
+            passes = solver.sweepBackward(cfg, result);
+        }
+        Integer boundary = forward ? cfg.getEntry() : cfg.getExit();
+        for (Integer node : cfg) {
+            if (!node.equals(boundary)) {
+                BitSet expected = reach(cfg, node, !forward);
+                expected.clear(boundary);
+                Assert.assertEquals(expected,
+                        forward ? result.getOutFact(node) : result.getInFact(node));
+            }
+        }
+        return passes;
+    }
+
+    /**
+     * @return the nodes reachable from given node along
+     * the successors (if {@code forward} is true) or the predecessors,
+     * including the node itself.
+     */
+    private static BitSet reach(EdgeListCFG cfg, Integer node, boolean forward) {
+        BitSet reached = new BitSet();
+        Deque<Integer> work = new ArrayDeque<>(List.of(node));
+        while (!work.isEmpty()) {
+            Integer n = work.pop();
+            if (!reached.get(n)) {
+                reached.set(n);
+                work.addAll(forward ? cfg.getSuccsOf(n) : cfg.getPredsOf(n));
+            }
+        }
+        return reached;
+    }
+
+    @Test
+    public void testForwardWithoutLoops() {
+        // the reverse post-order sweep reaches the fixed point
+        // in one pass, and the second pass changes nothing
+        Assert.assertEquals(2, solve(ACYCLIC, true));
+    }
+
+    @Test
+    public void testForwardWithLoops() {
+        // the facts along the back edges need another pass
+        Assert.assertEquals(3, solve(LOOPS, true));
+    }
+
+    @Test
+    public void testBackwardWithoutLoops() {
+        Assert.assertEquals(2, solve(ACYCLIC, false));
+    }
+
+    @Test
+    public void testBackwardWithLoops() {
+        Assert.assertEquals(3, solve(LOOPS, false));
+    }
+}
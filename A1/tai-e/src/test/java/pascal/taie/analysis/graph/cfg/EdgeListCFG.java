@@ -0,0 +1,150 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Small CFG given by its edges, for testing the solvers without the
+ * front end. The nodes are integers 0..n, where node 0 is the entry
+ * and node n is the exit. The CFG has no IR and no method, thus
+ * {@link #getIR()} and {@link #getMethod()} return null.
+ * <p>
+ * The nodes are iterated in descending order, i.e., against the control
+ * flow, so that a solver can not rely on the order of the nodes in the CFG.
+ */
+public class EdgeListCFG implements CFG<Integer> {
+
+    private final List<Set<Edge<Integer>>> inEdges = new ArrayList<>();
+
+    private final List<Set<Edge<Integer>>> outEdges = new ArrayList<>();
+
+    private final Set<Integer> nodes = new LinkedHashSet<>();
+
+    /**
+     * @param exit  the exit node, which is also the largest node.
+     * @param edges the edges, each of which is {source, target}.
+     */
+    public EdgeListCFG(int exit, int[]... edges) {
+        for (int i = exit; i >= 0; --i) {
+            nodes.add(i);
+        }
+        for (int i = 0; i <= exit; ++i) {
+            inEdges.add(new LinkedHashSet<>());
+            outEdges.add(new LinkedHashSet<>());
+        }
+        for (int[] e : edges) {
+            Edge.Kind kind;
+            if (e[0] == 0) {
+                kind = Edge.Kind.ENTRY;
+            } else if (e[1] == exit) {
+                kind = Edge.Kind.RETURN;
+            } else if (e[1] <= e[0]) {
+                kind = Edge.Kind.GOTO;
+            } else {
+                kind = Edge.Kind.FALL_THROUGH;
+            }
+            Edge<Integer> edge = new Edge<>(kind, e[0], e[1]);
+            outEdges.get(e[0]).add(edge);
+            inEdges.get(e[1]).add(edge);
+        }
+    }
+
+    @Override
+    public IR getIR() {
+        return null;
+    }
+
+    @Override
+    public JMethod getMethod() {
+        return null;
+    }
+
+    @Override
+    public Integer getEntry() {
+        return 0;
+    }
+
+    @Override
+    public Integer getExit() {
+        return nodes.size() - 1;
+    }
+
+    @Override
+    public boolean isEntry(Integer node) {
+        return node == 0;
+    }
+
+    @Override
+    public boolean isExit(Integer node) {
+        return node == nodes.size() - 1;
+    }
+
+    @Override
+    public boolean hasNode(Integer node) {
+        return nodes.contains(node);
+    }
+
+    @Override
+    public boolean hasEdge(Integer source, Integer target) {
+        return getSuccsOf(source).contains(target);
+    }
+
+    @Override
+    public Set<Integer> getPredsOf(Integer node) {
+        return inEdges.get(node)
+                .stream()
+                .map(Edge::getSource)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public Set<Integer> getSuccsOf(Integer node) {
+        return outEdges.get(node)
+                .stream()
+                .map(Edge::getTarget)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public Set<Edge<Integer>> getInEdgesOf(Integer node) {
+        return inEdges.get(node);
+    }
+
+    @Override
+    public Set<Edge<Integer>> getOutEdgesOf(Integer node) {
+        return outEdges.get(node);
+    }
+
+    @Override
+    public Set<Integer> getNodes() {
+        return nodes;
+    }
+}
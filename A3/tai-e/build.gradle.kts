@@ -1,6 +1,8 @@
 plugins {
     id("java")
     id("application")
+    // 0.7.x requires Gradle 8, the wrapper is Gradle 7.4
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 repositories {
@@ -25,6 +27,37 @@ tasks.test {
     maxHeapSize = "4G"
 }
 
+// Runs the data-flow analyses on a generated program with large methods,
+// see DataflowScaling for the arguments, e.g.,
+// gradle dataflowScaling --args="size=3000 vars=1000 methods=16"
+// (add transfers=true to also count the node transfers of each solver)
+tasks.register<JavaExec>("dataflowScaling") {
+    classpath = sourceSets.test.get().runtimeClasspath
+    mainClass.set("pascal.taie.analysis.dataflow.generator.DataflowScaling")
+    maxHeapSize = "4G"
+}
+
+// JMH benchmarks in src/jmh, e.g., gradle jmh -PjmhIncludes=DataflowBenchmark.
+// The gc profiler reports the allocation rate along with the throughput.
+jmh {
+    // the benchmarks use the test resources and the program generator
+    includeTests.set(true)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    findProperty("jmhIncludes")?.let { includes.add(it.toString()) }
+}
+
+// Method analyses are run over the methods by a parallel stream, i.e., on
+// the calling thread together with the workers of the common fork-join pool.
+// -Pparallelism=N sets the number of the workers, so up to N+1 methods are
+// analyzed at the same time, and -Pparallelism=0 analyzes the methods one
+// at a time on the calling thread.
+findProperty("parallelism")?.let { parallelism ->
+    tasks.withType<JavaForkOptions>().configureEach {
+        systemProperty("java.util.concurrent.ForkJoinPool.common.parallelism", parallelism)
+    }
+}
+
 java {
     toolchain {
         languageVersion.set(JavaLanguageVersion.of(17))
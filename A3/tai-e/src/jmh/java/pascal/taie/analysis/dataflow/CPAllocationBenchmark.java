@@ -0,0 +1,290 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the allocation of the in-place transfer and meet of
+ * {@link ConstantPropagation} on the packed {@link CPFact} with
+ * a baseline which works like constant propagation did before:
+ * its facts are backed by hybrid maps, the transfer copies the OUT
+ * fact to detect changes, and the meet builds a set of the keys of
+ * both facts. The input is a large switch-heavy method, i.e.,
+ * a scaled-up version of {@code dataflow/constprop/Switch.java}.
+ * <p>
+ * Each benchmark analyzes the method once, and both analyses run on
+ * the work-list solver, so they visit the same nodes. Run it with
+ * -PjmhIncludes=CPAllocationBenchmark, and compare the
+ * gc.alloc.rate.norm (bytes per analysis) reported by the gc profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CPAllocationBenchmark {
+
+    /**
+     * Number of switch cases of the analyzed method.
+     */
+    @Param({ "100", "500" })
+    public int cases;
+
+    private IR ir;
+
+    private ConstantPropagation inPlace;
+
+    private BaselineCP baseline;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path dir = Files.createTempDirectory("cp-benchmark");
+        Files.writeString(dir.resolve("LargeSwitch.java"), generate(cases));
+        Main.main(new String[]{
+                "-pp",
+                "-cp", dir.toString(),
+                "-m", "LargeSwitch",
+                "-a", CFGBuilder.ID,
+        });
+        ir = World.get().getClassHierarchy()
+                .getClass("LargeSwitch")
+                .getDeclaredMethod("switch1")
+                .getIR();
+        inPlace = new ConstantPropagation(new AnalysisConfig(
+                ConstantPropagation.ID, "solver", "worklist", "edge-refine", false));
+        baseline = new BaselineCP(new AnalysisConfig(
+                ConstantPropagation.ID, "solver", "worklist"));
+    }
+
+    @Benchmark
+    public NodeResult<Stmt, CPFact> inPlace() {
+        return inPlace.analyze(ir);
+    }
+
+    @Benchmark
+    public NodeResult<Stmt, MapCPFact> baseline() {
+        return baseline.analyze(ir);
+    }
+
+    /**
+     * Generates a class whose method {@code switch1} has given number of
+     * switch cases, and each case updates a few of the local variables.
+     */
+    private static String generate(int cases) {
+        int nVars = Math.max(1, cases / 2);
+        StringBuilder sb = new StringBuilder();
+        sb.append("class LargeSwitch {\n");
+        sb.append("    int switch1(int x, int y) {\n");
+        sb.append("        int a = 0;\n");
+        for (int i = 0; i < nVars; ++i) {
+            sb.append("        int v").append(i).append(" = ").append(i).append(";\n");
+        }
+        sb.append("        switch (x) {\n");
+        for (int i = 0; i < cases; ++i) {
+            int v = i % nVars;
+            sb.append("            case ").append(i).append(":\n");
+            sb.append("                v").append(v).append(" = a + ").append(i).append(";\n");
+            sb.append("                a = v").append(v).append(" * y;\n");
+            sb.append("                break;\n");
+        }
+        sb.append("            default:\n");
+        sb.append("                a = a - 1;\n");
+        sb.append("        }\n");
+        sb.append("        int sum = a + x;\n");
+        for (int i = 0; i < nVars; ++i) {
+            sb.append("        sum = sum + v").append(i).append(";\n");
+        }
+        sb.append("        return sum;\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Fact of {@link BaselineCP}, which is the CPFact before it was
+     * packed: a {@link MapFact} backed by a hybrid map, where the
+     * absent variables are UNDEF.
+     */
+    public static class MapCPFact extends MapFact<Var, Value> {
+
+        private MapCPFact() {
+            this(Collections.emptyMap());
+        }
+
+        private MapCPFact(Map<Var, Value> map) {
+            super(map);
+        }
+
+        @Override
+        public Value get(Var key) {
+            return map.getOrDefault(key, Value.getUndef());
+        }
+
+        @Override
+        public boolean update(Var key, Value value) {
+            if (value.isUndef()) {
+                return remove(key) != null;
+            } else {
+                return super.update(key, value);
+            }
+        }
+
+        @Override
+        public MapCPFact copy() {
+            return new MapCPFact(this.map);
+        }
+    }
+
+    /**
+     * Constant propagation on {@link MapCPFact}, whose transfer and
+     * meet are the ones before they were made allocation-free.
+     * To evaluate the right-hand sides by
+     * {@link ConstantPropagation#evaluate}, the values of the operands
+     * are put into a reused {@link CPFact}, which allocates nothing
+     * once it has grown to the number of variables.
+     */
+    private static class BaselineCP
+            extends AbstractDataflowAnalysis<Stmt, MapCPFact> {
+
+        private final CPFact operands = new CPFact();
+
+        private BaselineCP(AnalysisConfig config) {
+            super(config);
+        }
+
+        @Override
+        public boolean isForward() {
+            return true;
+        }
+
+        @Override
+        public MapCPFact newBoundaryFact(CFG<Stmt> cfg) {
+            MapCPFact entry = new MapCPFact();
+            for (Var param : cfg.getIR().getParams()) {
+                if (ConstantPropagation.canHoldInt(param)) {
+                    entry.update(param, Value.getNAC());
+                }
+            }
+            return entry;
+        }
+
+        @Override
+        public MapCPFact newInitialFact() {
+            return new MapCPFact();
+        }
+
+        @Override
+        public void meetInto(MapCPFact fact, MapCPFact target) {
+            Set<Var> allVars = new HashSet<>(fact.keySet());
+            allVars.addAll(target.keySet());
+            for (Var var : allVars) {
+                target.update(var, meetValue(fact.get(var), target.get(var)));
+            }
+        }
+
+        private static Value meetValue(Value v1, Value v2) {
+            if (v1.isNAC() || v2.isNAC()) {
+                return Value.getNAC();
+            }
+            if (v1.isUndef()) {
+                return v2;
+            }
+            if (v2.isUndef()) {
+                return v1;
+            }
+            if (v1.equals(v2)) {
+                return Value.makeConstant(v1.getConstant());
+            }
+            return Value.getNAC();
+        }
+
+        @Override
+        public boolean transferNode(Stmt stmt, MapCPFact in, MapCPFact out) {
+            MapCPFact oldOut = out.copy();
+            out.clear();
+            out.copyFrom(in);
+            if (stmt instanceof DefinitionStmt<?, ?> defStmt
+                    && defStmt.getLValue() instanceof Var lVar
+                    && ConstantPropagation.canHoldInt(lVar)) {
+                out.update(lVar, evaluate(defStmt.getRValue(), in));
+            }
+            return !out.equals(oldOut);
+        }
+
+        private Value evaluate(RValue exp, MapCPFact in) {
+            if (exp instanceof Var var) {
+                operands.update(var, in.get(var));
+            } else if (exp instanceof BinaryExp binary) {
+                operands.update(binary.getOperand1(), in.get(binary.getOperand1()));
+                operands.update(binary.getOperand2(), in.get(binary.getOperand2()));
+            }
+            Value value = ConstantPropagation.evaluate(exp, operands);
+            // reset the operands to UNDEF
+            if (exp instanceof Var var) {
+                operands.remove(var);
+            } else if (exp instanceof BinaryExp binary) {
+                operands.remove(binary.getOperand1());
+                operands.remove(binary.getOperand2());
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.DeadCodeDetection;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.SparseLiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.generator.ProgramGenerator;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the intra-procedural data-flow analyses on each kind
+ * of solver. Each benchmark analyzes all methods of the input program
+ * once, so the throughput is the number of passes over the program
+ * per second.
+ * <p>
+ * The inputs are the programs in the test resources, given as
+ * {@code <directory>/<main-class>} relative to {@link #RESOURCES},
+ * among which ManyVars has methods with hundreds of variables,
+ * and the programs generated by {@link ProgramGenerator}, given as
+ * {@code synthetic/<statements-per-method>}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataflowBenchmark {
+
+    private static final String RESOURCES = "src/test/resources/dataflow/";
+
+    private static final String SYNTHETIC = "synthetic/";
+
+    @Param({
+            "livevar/Fibonacci",
+            "livevar/BranchLoop",
+            "livevar/ManyVars",
+            "constprop/Switch",
+            "deadcode/Loops",
+            "synthetic/1000",
+            "synthetic/3000",
+    })
+    public String input;
+
+    @Param({ "worklist", "rpo-worklist", "block", "scc" })
+    public String solver;
+
+    private List<IR> irs;
+
+    private LiveVariableAnalysis livevar;
+
+    private SparseLiveVariableAnalysis sparseLivevar;
+
+    private ConstantPropagation constprop;
+
+    private DeadCodeDetection deadcode;
+
+    @Setup
+    public void setUp() throws IOException {
+        String classPath, main;
+        if (input.startsWith(SYNTHETIC)) {
+            int size = Integer.parseInt(input.substring(SYNTHETIC.length()));
+            classPath = ProgramGenerator.OUTPUT_DIR;
+            main = "Generated" + size;
+            new ProgramGenerator(size, size / 10, 0.1, 0.05, 8, 0)
+                    .generateAndCompile(Path.of(classPath), main, 4);
+        } else {
+            int i = input.lastIndexOf('/');
+            classPath = RESOURCES + input.substring(0, i);
+            main = input.substring(i + 1);
+        }
+        Main.main(new String[]{
+                "-pp",
+                "-cp", classPath,
+                "-m", main,
+                "-a", CFGBuilder.ID,
+        });
+        irs = World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .map(JMethod::getIR)
+                .toList();
+        livevar = new LiveVariableAnalysis(new AnalysisConfig(
+                LiveVariableAnalysis.ID, "solver", solver));
+        sparseLivevar = new SparseLiveVariableAnalysis(new AnalysisConfig(
+                SparseLiveVariableAnalysis.ID));
+        constprop = new ConstantPropagation(new AnalysisConfig(
+                ConstantPropagation.ID, "solver", solver, "edge-refine", true));
+        deadcode = new DeadCodeDetection(new AnalysisConfig(
+                DeadCodeDetection.ID,
+                "constprop", ConstantPropagation.ID,
+                "livevar", LiveVariableAnalysis.ID));
+    }
+
+    @Benchmark
+    public void liveVariables(Blackhole bh) {
+        for (IR ir : irs) {
+            bh.consume(livevar.analyze(ir));
+        }
+    }
+
+    /**
+     * Live variables by the backward walks of
+     * {@link SparseLiveVariableAnalysis}, to be compared with
+     * {@link #liveVariables}, e.g., on livevar/ManyVars by
+     * -PjmhIncludes='DataflowBenchmark.*iveVariables'.
+     * This analysis uses no solver, so its score is the same
+     * for every value of {@link #solver}.
+     */
+    @Benchmark
+    public void sparseLiveVariables(Blackhole bh) {
+        for (IR ir : irs) {
+            bh.consume(sparseLivevar.analyze(ir));
+        }
+    }
+
+    @Benchmark
+    public void constantPropagation(Blackhole bh) {
+        for (IR ir : irs) {
+            bh.consume(constprop.analyze(ir));
+        }
+    }
+
+    /**
+     * Dead code detection together with the analyses it requires.
+     */
+    @Benchmark
+    public void deadCode(Blackhole bh) {
+        for (IR ir : irs) {
+            ir.storeResult(ConstantPropagation.ID, constprop.analyze(ir));
+            ir.storeResult(LiveVariableAnalysis.ID, livevar.analyze(ir));
+            bh.consume(deadcode.analyze(ir));
+        }
+    }
+}
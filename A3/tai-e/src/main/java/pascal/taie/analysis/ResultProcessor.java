@@ -22,9 +22,11 @@
 
 package pascal.taie.analysis;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.IRPrinter;
@@ -36,6 +38,7 @@ import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.Pair;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintStream;
@@ -68,6 +71,15 @@ public class ResultProcessor extends ProgramAnalysis {
 
     private final String action;
 
+    /**
+     * ID of the analysis whose results in the input file are compared
+     * with the results of the given analyses, or null if each analysis
+     * is compared with its own results. This is used to check that two
+     * analyses compute the same results, e.g., the sparse and the dense
+     * constant propagation.
+     */
+    private final String expectedId;
+
     private PrintStream out;
 
     private MultiMap<Pair<String, String>, String> inputs;
@@ -77,6 +89,7 @@ public class ResultProcessor extends ProgramAnalysis {
     public ResultProcessor(AnalysisConfig config) {
         super(config);
         action = getOptions().getString("action");
+        expectedId = getOptions().getString("expected-id");
     }
 
     @Override
@@ -97,6 +110,10 @@ public class ResultProcessor extends ProgramAnalysis {
                 .collect(Collectors.groupingBy(id -> World.get().getResult(id) != null));
         if (groups.containsKey(false)) {
             processIntraResults(groups.get(false));
+            String metricsFile = getOptions().getString("metrics-file");
+            if (metricsFile != null) {
+                dumpSolverMetrics(groups.get(false), metricsFile);
+            }
         }
         if (getOptions().getBoolean("log-mismatches")) {
             mismatches.forEach(logger::info);
@@ -153,7 +170,11 @@ public class ResultProcessor extends ProgramAnalysis {
     }
 
     private void processIntraResults(List<String> analyses) {
-        Stream<JMethod> methods = World.get()
+        processResults(getIntraMethods(), analyses, (m, id) -> m.getIR().getResult(id));
+    }
+
+    private static Stream<JMethod> getIntraMethods() {
+        return World.get()
                 .getClassHierarchy()
                 .applicationClasses()
                 .map(JClass::getDeclaredMethods)
@@ -161,7 +182,28 @@ public class ResultProcessor extends ProgramAnalysis {
                 .filter(m -> !m.isAbstract() && !m.isNative())
                 .sorted(Comparator.comparing(m ->
                         m.getIR().getStmt(0).getLineNumber()));
-        processResults(methods, analyses, (m, id) -> m.getIR().getResult(id));
+    }
+
+    /**
+     * Dumps the solver metrics of given data-flow analyses on the
+     * methods to a JSON file, as an array of {@link SolverMetrics}.
+     * The analyses record the metrics only when their option
+     * {@code metrics} is enabled.
+     */
+    private static void dumpSolverMetrics(List<String> analyses, String file) {
+        List<SolverMetrics> metrics = getIntraMethods()
+                .flatMap(m -> analyses.stream()
+                        .map(id -> m.getIR().<SolverMetrics>getResult(
+                                SolverMetrics.getKey(id)))
+                        .filter(Objects::nonNull))
+                .toList();
+        try {
+            new ObjectMapper()
+                    .writerWithDefaultPrettyPrinter()
+                    .writeValue(new File(file), metrics);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write solver metrics", e);
+        }
     }
 
     private void processResults(Stream<JMethod> methods, List<String> analyses,
@@ -184,7 +226,11 @@ public class ResultProcessor extends ProgramAnalysis {
             ((Set<?>) result).forEach(e -> out.println(toString(e)));
         } else if (result instanceof StmtResult<?> StmtResult) {
             IR ir = method.getIR();
-            ir.forEach(stmt -> out.println(toString(stmt, StmtResult)));
+            ir.forEach(stmt -> {
+                if (StmtResult.isRelevant(stmt)) {
+                    out.println(toString(stmt, StmtResult));
+                }
+            });
         } else {
             out.println(toString(result));
         }
@@ -213,7 +259,8 @@ public class ResultProcessor extends ProgramAnalysis {
 
     private void compareResult(JMethod method, String id,
                                BiFunction<JMethod, String, ?> resultGetter) {
-        Set<String> inputResult = inputs.get(new Pair<>(method.toString(), id));
+        Set<String> inputResult = inputs.get(new Pair<>(method.toString(),
+                expectedId != null ? expectedId : id));
         Object result = resultGetter.apply(method, id);
         if (result instanceof Set) {
             Set<String> given = ((Set<?>) result)
@@ -233,12 +280,14 @@ public class ResultProcessor extends ProgramAnalysis {
                 }
             });
         } else if (result instanceof StmtResult<?> StmtResult) {
-            Set<String> lines = inputs.get(new Pair<>(method.toString(), id));
             IR ir = method.getIR();
             ir.forEach(stmt -> {
+                if (!StmtResult.isRelevant(stmt)) {
+                    return;
+                }
                 String stmtStr = toString(stmt);
                 String given = toString(stmt, StmtResult);
-                for (String line : lines) {
+                for (String line : inputResult) {
                     if (line.startsWith(stmtStr) && !line.equals(given)) {
                         int idx = stmtStr.length();
                         mismatches.add(String.format("%s %s expected: %s, given: %s",
@@ -22,30 +22,124 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.MethodAnalysis;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.FactPool;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.cfg.Edge;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 
+import java.util.Collection;
+
+/**
+ * Base class for intra-procedural data-flow analyses.
+ * <p>
+ * The analysis manager runs method analyses on different methods in
+ * parallel, and {@link #analyze(IR)} of the same analysis object may be
+ * called concurrently on different IRs. Thus, the analyses and solvers
+ * must not keep per-method state in their fields: such state lives in
+ * the CFG, the facts, or the result holder of the IR being analyzed,
+ * which is accessed by one thread at a time.
+ */
 public abstract class AbstractDataflowAnalysis<Node, Fact>
         extends MethodAnalysis
         implements DataflowAnalysis<Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(AbstractDataflowAnalysis.class);
+
     private final Solver<Node, Fact> solver;
 
+    /**
+     * Kind of the solver, see {@link Solver#makeSolver(DataflowAnalysis, String)}.
+     */
+    private final String solverKind;
+
+    /**
+     * Whether to record the metrics of solving each method.
+     * See {@link SolverMetrics}.
+     */
+    private final boolean metrics;
+
+    /**
+     * Whether to discard the in facts after solving, and derive them
+     * from the out facts on demand.
+     */
+    private final boolean keepOnlyOutFacts;
+
+    /**
+     * Whether to canonicalize the equal facts of the result to one
+     * instance after solving. See {@link FactPool}.
+     */
+    private final boolean internFacts;
+
     protected AbstractDataflowAnalysis(AnalysisConfig config) {
         super(config);
-        solver = Solver.makeSolver(this);
+        solverKind = getOptions().getString("solver");
+        solver = Solver.makeSolver(this, solverKind);
+        metrics = getOptions().getBooleanOrDefault("metrics", false);
+        keepOnlyOutFacts = getOptions()
+                .getBooleanOrDefault("keep-only-out-facts", false);
+        internFacts = getOptions()
+                .getBooleanOrDefault("intern-facts", false);
     }
 
     @Override
-    public DataflowResult<Node, Fact> analyze(IR ir) {
+    public NodeResult<Node, Fact> analyze(IR ir) {
+        CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
+        NodeResult<Node, Fact> result;
+        SolverMetrics solverMetrics = null;
+        if (metrics) {
+            // the metrics are per method, so is the solver recording them
+            solverMetrics = new SolverMetrics(getId(), cfg);
+            result = Solver.makeSolver(this, solverKind, solverMetrics).solve(cfg);
+            ir.storeResult(SolverMetrics.getKey(getId()), solverMetrics);
+        } else {
+            result = solver.solve(cfg);
+        }
+        if (keepOnlyOutFacts) {
+            solver.keepOnlyOutFacts(cfg, result);
+        }
+        if (internFacts) {
+            FactPool<Fact> pool = new FactPool<>();
+            solver.internFacts(result, pool);
+            if (solverMetrics != null) {
+                solverMetrics.recordInternedFacts(
+                        pool.getInternedCount(), pool.getDistinctCount());
+            }
+            logger.debug("{} on {}: {} facts are interned to {} distinct ones," +
+                            " dedup ratio: {}", getId(), ir.getMethod(),
+                    pool.getInternedCount(), pool.getDistinctCount(),
+                    String.format("%.2f", pool.getDedupRatio()));
+        }
+        return result;
+    }
+
+    /**
+     * Updates the result of this analysis on given IR after the statements
+     * (CFG nodes) in {@code changed} are modified in place, without
+     * changing the control flow. The def/use index cached in the IR is
+     * refreshed for the changed statements, and then the changes of the
+     * facts are propagated from the changed nodes, see {@link Solver#resolve}.
+     * If the in facts of the result have been discarded (keep-only-out-facts),
+     * the IR is analyzed from scratch. The updated facts are not interned.
+     *
+     * @param result the result of this analysis before the change.
+     * @return the updated result.
+     */
+    public NodeResult<Node, Fact> reanalyze(
+            IR ir, NodeResult<Node, Fact> result, Collection<Node> changed) {
+        DefUseIndex.update(ir, changed);
+        if (keepOnlyOutFacts) {
+            return analyze(ir);
+        }
         CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
-        return solver.solve(cfg);
+        return solver.resolve(cfg, result, changed);
     }
 
     /**
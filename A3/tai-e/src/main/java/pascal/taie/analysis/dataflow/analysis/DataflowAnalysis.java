@@ -49,6 +49,17 @@ public interface DataflowAnalysis<Node, Fact> {
      */
     Fact newInitialFact();
 
+    /**
+     * @return new initial fact for non-boundary nodes of given CFG.
+     * By default, this method delegates to {@link #newInitialFact()}.
+     * Analyses whose facts depend on the method being analyzed,
+     * e.g., facts indexed by the variables of the method,
+     * can override this method.
+     */
+    default Fact newInitialFact(CFG<Node> cfg) {
+        return newInitialFact();
+    }
+
     /**
      * Meets a fact into another (target) fact.
      * This function will be used to handle control-flow confluences.
@@ -64,6 +75,19 @@ public interface DataflowAnalysis<Node, Fact> {
      */
     boolean transferNode(Node node, Fact in, Fact out);
 
+    /**
+     * Node Transfer function for the analysis, which is given the CFG
+     * containing the node. By default, this method delegates to
+     * {@link #transferNode(Object, Object, Object)}. Analyses which
+     * precompute per-method information can override this method
+     * to look up the information of the CFG.
+     *
+     * @return true if the transfer changed the out (in) fact, otherwise false.
+     */
+    default boolean transferNode(CFG<Node> cfg, Node node, Fact in, Fact out) {
+        return transferNode(node, in, out);
+    }
+
     /**
      * @return true if this analysis needs to perform transfer for given edge, otherwise false.
      */
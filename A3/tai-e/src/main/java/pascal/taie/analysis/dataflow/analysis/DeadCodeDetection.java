@@ -25,12 +25,14 @@ package pascal.taie.analysis.dataflow.analysis;
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.SparseConstantPropagation;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
 import pascal.taie.ir.stmt.AssignStmt;
@@ -39,14 +41,39 @@ import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.ir.stmt.SwitchStmt;
 import pascal.taie.util.collection.Pair;
 
+import javax.annotation.Nullable;
 import java.util.*;
 
 public class DeadCodeDetection extends MethodAnalysis {
 
     public static final String ID = "deadcode";
 
+    /**
+     * ID of the constant propagation whose result is used to
+     * decide the unreachable branches, i.e., the dense
+     * {@link ConstantPropagation} or the {@link SparseConstantPropagation}.
+     */
+    private final String constprop;
+
+    /**
+     * ID of the live variable analysis whose result is used to
+     * decide the dead assignments, i.e., the {@link LiveVariableAnalysis}
+     * or the {@link SparseLiveVariableAnalysis}.
+     */
+    private final String livevar;
+
     public DeadCodeDetection(AnalysisConfig config) {
         super(config);
+        constprop = getOptions().getString("constprop");
+        if (!constprop.equals(ConstantPropagation.ID) &&
+                !constprop.equals(SparseConstantPropagation.ID)) {
+            throw new ConfigException("Unknown constant propagation: " + constprop);
+        }
+        livevar = getOptions().getString("livevar");
+        if (!livevar.equals(LiveVariableAnalysis.ID) &&
+                !livevar.equals(SparseLiveVariableAnalysis.ID)) {
+            throw new ConfigException("Unknown live variable analysis: " + livevar);
+        }
     }
 
     @Override
@@ -54,18 +81,17 @@ public class DeadCodeDetection extends MethodAnalysis {
         // obtain CFG
         CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
         // obtain result of constant propagation
-        DataflowResult<Stmt, CPFact> constants =
-                ir.getResult(ConstantPropagation.ID);
+        NodeResult<Stmt, CPFact> constants = ir.getResult(constprop);
         // obtain result of live variable analysis
-        DataflowResult<Stmt, SetFact<Var>> liveVars =
-                ir.getResult(LiveVariableAnalysis.ID);
+        NodeResult<Stmt, SetFact<Var>> liveVars = ir.getResult(livevar);
         // keep statements (dead code) sorted in the resulting set
         Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
-        Set<Stmt> reachable = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
-        Set<Stmt> uselessAssignments = dfs(cfg.getEntry(), reachable, cfg, constants, liveVars);
-        deadCode.addAll(cfg.getNodes());
-        deadCode.removeAll(reachable);
-        deadCode.addAll(uselessAssignments);
+        BitSet reachable = traverse(cfg, constants, liveVars, deadCode);
+        for (Stmt stmt : cfg) {
+            if (!reachable.get(stmt.getIndex())) {
+                deadCode.add(stmt);
+            }
+        }
         // 确保entry和exit不在deadcode中
         deadCode.remove(cfg.getEntry());
         deadCode.remove(cfg.getExit());
@@ -95,63 +121,86 @@ public class DeadCodeDetection extends MethodAnalysis {
         return true;
     }
 
-    public Set<Stmt> dfs(Stmt node, Set<Stmt> visited, CFG<Stmt> cfg, DataflowResult<Stmt, CPFact> constants, DataflowResult<Stmt, SetFact<Var>> liveVars) {
-        Set<Stmt> uselessAssignments = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
-        if (visited.contains(node)) {
-            return uselessAssignments;
-        }
-        visited.add(node);
-        if (node instanceof AssignStmt assignment && assignment.getLValue() instanceof Var var && !liveVars.getOutFact(node).contains(var) && hasNoSideEffect(assignment.getRValue())) {
-            uselessAssignments.add(node);
+    /**
+     * Walks the statements which are reachable from the entry of {@code cfg},
+     * without following the branches that can never be taken according to
+     * {@code constants}, and collects the useless assignments on the way.
+     * <p>
+     * The walk uses an explicit stack, so that its depth is not limited by
+     * the size of the method, and each statement (including the evaluation
+     * of its condition) is processed only once.
+     *
+     * @param deadCode the collector of the useless assignments.
+     * @return indexes of the reachable statements.
+     */
+    private static BitSet traverse(
+            CFG<Stmt> cfg, NodeResult<Stmt, CPFact> constants,
+            NodeResult<Stmt, SetFact<Var>> liveVars, Set<Stmt> deadCode) {
+        BitSet visited = new BitSet(cfg.getNumberOfNodes());
+        Deque<Stmt> stack = new ArrayDeque<>();
+        Stmt entry = cfg.getEntry();
+        visited.set(entry.getIndex());
+        stack.push(entry);
+        while (!stack.isEmpty()) {
+            Stmt node = stack.pop();
+            if (node instanceof AssignStmt assignment &&
+                    assignment.getLValue() instanceof Var var &&
+                    !liveVars.getOutFact(node).contains(var) &&
+                    hasNoSideEffect(assignment.getRValue())) {
+                deadCode.add(node);
+            }
+            Stmt target = getOnlyTarget(node, cfg, constants);
+            if (target != null) {
+                if (!visited.get(target.getIndex())) {
+                    visited.set(target.getIndex());
+                    stack.push(target);
+                }
+            } else {
+                for (Stmt succ : cfg.getSuccsOf(node)) {
+                    if (!visited.get(succ.getIndex())) {
+                        visited.set(succ.getIndex());
+                        stack.push(succ);
+                    }
+                }
+            }
         }
+        return visited;
+    }
+
+    /**
+     * @return the only successor of given {@link If} or {@link SwitchStmt}
+     * that can be taken when its condition is a constant, otherwise null.
+     */
+    @Nullable
+    private static Stmt getOnlyTarget(
+            Stmt node, CFG<Stmt> cfg, NodeResult<Stmt, CPFact> constants) {
         if (node instanceof If ifStmt) {
             assert cfg.getSuccsOf(ifStmt).size() == 2;
-            Value conditionValue = ConstantPropagation.evaluate(ifStmt.getCondition(), constants.getInFact(ifStmt));
-            Stmt ifTrue = null;
-            Stmt ifFalse = null;
-            for (Stmt succ : cfg.getSuccsOf(ifStmt)) {
-                if (succ.equals(ifStmt.getTarget())) {
-                    ifTrue = succ;
-                } else {
-                    ifFalse = succ;
+            Value conditionValue = ConstantPropagation.evaluate(
+                    ifStmt.getCondition(), constants.getInFact(ifStmt));
+            if (conditionValue.isConstant()) {
+                int condition = conditionValue.getConstant();
+                for (Stmt succ : cfg.getSuccsOf(ifStmt)) {
+                    boolean isTarget = succ.equals(ifStmt.getTarget());
+                    if ((condition == 1 && isTarget) ||
+                            (condition == 0 && !isTarget)) {
+                        return succ;
+                    }
                 }
             }
-            if (!conditionValue.isConstant()) {
-                uselessAssignments.addAll(dfs(ifTrue, visited, cfg, constants, liveVars));
-                uselessAssignments.addAll(dfs(ifFalse, visited, cfg, constants, liveVars));
-                return uselessAssignments;
-            }
-            if (conditionValue.getConstant() == 0) {
-                uselessAssignments.addAll(dfs(ifFalse, visited, cfg, constants, liveVars));
-                return uselessAssignments;
-            }
-            if (conditionValue.getConstant() == 1) {
-                uselessAssignments.addAll(dfs(ifTrue, visited, cfg, constants, liveVars));
-                return uselessAssignments;
-            }
-        }
-        if (node instanceof SwitchStmt switchStmt) {
-            Value conditionValue = ConstantPropagation.evaluate(switchStmt.getVar(), constants.getInFact(switchStmt));
-            if (!conditionValue.isConstant()) {
-                for (Stmt succ : cfg.getSuccsOf(switchStmt)) {
-                    uselessAssignments.addAll(dfs(succ, visited, cfg, constants, liveVars));
-                }
-                return uselessAssignments;
-            } else {
-                int conditionConst = conditionValue.getConstant();
+        } else if (node instanceof SwitchStmt switchStmt) {
+            Value conditionValue = ConstantPropagation.evaluate(
+                    switchStmt.getVar(), constants.getInFact(switchStmt));
+            if (conditionValue.isConstant()) {
+                int condition = conditionValue.getConstant();
                 for (Pair<Integer, Stmt> switchPair : switchStmt.getCaseTargets()) {
-                    if (conditionConst == switchPair.first()) {
-                        uselessAssignments.addAll(dfs(switchPair.second(), visited, cfg, constants, liveVars));
-                        return uselessAssignments;
+                    if (condition == switchPair.first()) {
+                        return switchPair.second();
                     }
                 }
-                uselessAssignments.addAll(dfs(switchStmt.getDefaultTarget(), visited, cfg, constants, liveVars));
-                return uselessAssignments;
+                return switchStmt.getDefaultTarget();
             }
         }
-        for (Stmt succ : cfg.getSuccsOf(node)) {
-            uselessAssignments.addAll(dfs(succ, visited, cfg, constants, liveVars));
-        }
-        return uselessAssignments;
+        return null;
     }
 }
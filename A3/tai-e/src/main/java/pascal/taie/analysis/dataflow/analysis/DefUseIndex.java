@@ -0,0 +1,128 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact index of the variables defined and used by each statement
+ * of an IR. The index is built by one pass over the IR, and then cached
+ * in the IR, so that the analyses on the IR do not need to repeatedly
+ * call {@link Stmt#getDef()} and {@link Stmt#getUses()}.
+ * Variables are represented by their indexes ({@link Var#getIndex()}).
+ */
+class DefUseIndex {
+
+    /**
+     * Key of the index in the result holder of IR.
+     */
+    private static final String KEY = "def-use-index";
+
+    private static final int NO_DEF = -1;
+
+    private static final int[] NO_USES = new int[0];
+
+    /**
+     * Index of the variable defined by each statement, or {@link #NO_DEF}.
+     */
+    private final int[] defs;
+
+    /**
+     * Indexes of the (distinct) variables used by each statement.
+     */
+    private final int[][] uses;
+
+    private DefUseIndex(IR ir) {
+        List<Stmt> stmts = ir.getStmts();
+        defs = new int[stmts.size()];
+        uses = new int[stmts.size()][];
+        for (Stmt stmt : stmts) {
+            index(stmt);
+        }
+    }
+
+    /**
+     * (Re-)builds the entry of given statement.
+     */
+    private void index(Stmt stmt) {
+        int i = stmt.getIndex();
+        defs[i] = stmt.getDef().orElse(null) instanceof Var def
+                ? def.getIndex() : NO_DEF;
+        int[] stmtUses = stmt.getUses()
+                .stream()
+                .filter(use -> use instanceof Var)
+                .mapToInt(use -> ((Var) use).getIndex())
+                .distinct()
+                .toArray();
+        uses[i] = stmtUses.length == 0 ? NO_USES : stmtUses;
+    }
+
+    /**
+     * @return the def-use index of given IR, which is built at the first call.
+     */
+    static DefUseIndex of(IR ir) {
+        return ir.getResult(KEY, () -> new DefUseIndex(ir));
+    }
+
+    /**
+     * Rebuilds the entries of the changed statements in the index cached
+     * in given IR, if any, after the statements are modified in place.
+     * The other nodes in {@code changed}, e.g., the entry and exit
+     * of CFG, are ignored.
+     */
+    static void update(IR ir, Collection<?> changed) {
+        DefUseIndex index = ir.getResult(KEY);
+        if (index != null) {
+            for (Object node : changed) {
+                if (node instanceof Stmt stmt
+                        && stmt.getIndex() < index.defs.length) {
+                    index.index(stmt);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the index of the variable defined by given statement,
+     * or -1 if the statement does not define a variable.
+     */
+    int getDef(Stmt stmt) {
+        int i = stmt.getIndex();
+        // entry and exit nodes of CFG are not in the IR
+        return i < defs.length ? defs[i] : NO_DEF;
+    }
+
+    /**
+     * @return the indexes of the variables used by given statement.
+     * The client code should not modify the resulting array.
+     */
+    int[] getUses(Stmt stmt) {
+        int i = stmt.getIndex();
+        return i < uses.length ? uses[i] : NO_USES;
+    }
+}
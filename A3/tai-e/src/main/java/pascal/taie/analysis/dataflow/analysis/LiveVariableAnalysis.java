@@ -22,6 +22,7 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
@@ -48,7 +49,7 @@ public class LiveVariableAnalysis extends
 
     @Override
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
-        return new SetFact<Var>();
+        return new BitSetFact<>(cfg.getIR()::getVar);
     }
 
     @Override
@@ -56,11 +57,28 @@ public class LiveVariableAnalysis extends
         return new SetFact<Var>();
     }
 
+    @Override
+    public SetFact<Var> newInitialFact(CFG<Stmt> cfg) {
+        return new BitSetFact<>(cfg.getIR()::getVar);
+    }
+
     @Override
     public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
         target.union(fact);
     }
 
+    @Override
+    public boolean transferNode(CFG<Stmt> cfg, Stmt stmt,
+                                SetFact<Var> in, SetFact<Var> out) {
+        if (in instanceof BitSetFact<Var> inBits
+                && out instanceof BitSetFact<Var> outBits) {
+            // in = (out - def) ∪ uses, by bit operations on in
+            DefUseIndex defUses = DefUseIndex.of(cfg.getIR());
+            return inBits.set(outBits, defUses.getDef(stmt), defUses.getUses(stmt));
+        }
+        return transferNode(stmt, in, out);
+    }
+
     @Override
     public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
         SetFact<Var> new_in = out.copy();
@@ -69,13 +87,11 @@ public class LiveVariableAnalysis extends
             new_in.remove((Var)stmt.getDef().get());
         }
         // generate uses
-        SetFact<Var> gen = new SetFact<>();
         for (RValue rv : stmt.getUses()) {
             if (rv instanceof Var) {
-                gen.add((Var)rv);
+                new_in.add((Var)rv);
             }
         }
-        new_in.union(gen);
         boolean changed = !in.equals(new_in);
         in.set(new_in);
         return changed;
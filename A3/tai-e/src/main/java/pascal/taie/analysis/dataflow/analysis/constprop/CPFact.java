@@ -23,10 +23,17 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.Var;
 
-import java.util.Collections;
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * Represents data facts of constant propagation, which maps variables
@@ -37,15 +44,39 @@ import java.util.Map;
  * it represents that the lattice value of the variable is UNDEF;
  * moreover, if we set the lattice value of a variable to UNDEF,
  * it effectively removes the variable from the CPFact.
+ * <p>
+ * To avoid hashing variables and boxing constants, a CPFact stores
+ * the lattice values in a primitive array indexed by {@link Var#getIndex()},
+ * and each value is packed into a {@code long} (see {@link #encode(Value)}).
+ * {@link Value}s are only created when they are queried.
+ * All variables in a CPFact must belong to the same method.
  */
 public class CPFact extends MapFact<Var, Value> {
 
+    /**
+     * The encoded UNDEF, which is also the default value of the cells.
+     */
+    private static final long UNDEF = 0L;
+
+    /**
+     * Tag of encoded constants, which is stored in the high 32 bits.
+     */
+    private static final long CONSTANT_TAG = 1L << 32;
+
+    /**
+     * The encoded NAC.
+     */
+    private static final long NAC = 2L << 32;
+
+    private final ValueMap values;
+
     public CPFact() {
-        this(Collections.emptyMap());
+        this(new ValueMap());
     }
 
-    private CPFact(Map<Var, Value> map) {
-        super(map);
+    private CPFact(ValueMap values) {
+        super(values, false);
+        this.values = values;
     }
 
     /**
@@ -54,23 +85,382 @@ public class CPFact extends MapFact<Var, Value> {
      */
     @Override
     public Value get(Var key) {
-        return map.getOrDefault(key, Value.getUndef());
+        return decode(values.getCell(key.getIndex()));
     }
 
     @Override
     public boolean update(Var key, Value value) {
-        if (value.isUndef()) {
-            // if the client code sets variable key to UNDEF,
-            // then we remove the variable from the CPFact
-            // as we use absence to represent UNDEF.
-            return remove(key) != null;
-        } else {
-            return super.update(key, value);
+        checkMutable();
+        // if the client code sets variable key to UNDEF,
+        // then the cell is cleared, which effectively
+        // removes the variable from the CPFact
+        long cell = encode(value);
+        return values.setCell(key, cell) != cell;
+    }
+
+    @Override
+    public Value remove(Var key) {
+        checkMutable();
+        long old = values.setCell(key, UNDEF);
+        return old == UNDEF ? null : decode(old);
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        checkMutable();
+        if (fact instanceof CPFact that) {
+            return values.copyCells(that.values);
         }
+        return super.copyFrom(fact);
     }
 
     @Override
     public CPFact copy() {
-        return new CPFact(this.map);
+        return new CPFact(values.copy());
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        values.clear();
+    }
+
+    /**
+     * Meets the values in given fact into this fact, by walking the
+     * cells of given fact in place. This is equivalent to updating
+     * every variable v in this fact to
+     * {@link ConstantPropagation#meetValue(Value, Value)} of
+     * the values of v in given fact and this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    boolean meet(CPFact fact) {
+        checkMutable();
+        return values.meetCells(fact.values);
+    }
+
+    /**
+     * Sets the content of this fact to the same as given fact, except
+     * the value of {@code except} (if it is not null) is left unchanged.
+     * The cells are compared and updated one by one, thus no intermediate
+     * fact is created.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    boolean setExcept(CPFact fact, @Nullable Var except) {
+        checkMutable();
+        return values.setCells(fact.values, except == null ? -1 : except.getIndex());
+    }
+
+    /**
+     * Encodes given value to a {@code long}: UNDEF is 0, NAC is
+     * {@link #NAC}, and a constant c is {@link #CONSTANT_TAG} | c,
+     * where c occupies the low 32 bits.
+     */
+    private static long encode(Value value) {
+        if (value.isConstant()) {
+            return CONSTANT_TAG | (value.getConstant() & 0xFFFFFFFFL);
+        } else if (value.isNAC()) {
+            return NAC;
+        } else {
+            return UNDEF;
+        }
+    }
+
+    private static Value decode(long cell) {
+        if (cell == UNDEF) {
+            return Value.getUndef();
+        } else if (cell == NAC) {
+            return Value.getNAC();
+        } else {
+            return Value.makeConstant((int) cell);
+        }
+    }
+
+    /**
+     * A {@link Map} view of the packed cells, which backs the
+     * inherited {@link MapFact} operations. UNDEF cells are
+     * regarded as absent.
+     */
+    private static class ValueMap extends AbstractMap<Var, Value> {
+
+        private static final long[] EMPTY = new long[0];
+
+        /**
+         * IR of the variables in this map, which is used to map indexes
+         * back to variables. It is set when the first variable is stored.
+         */
+        private IR ir;
+
+        private long[] cells;
+
+        /**
+         * Number of non-UNDEF cells.
+         */
+        private int size;
+
+        private ValueMap() {
+            this.cells = EMPTY;
+        }
+
+        private ValueMap(IR ir, long[] cells, int size) {
+            this.ir = ir;
+            this.cells = cells;
+            this.size = size;
+        }
+
+        private long getCell(int index) {
+            return index < cells.length ? cells[index] : UNDEF;
+        }
+
+        /**
+         * Sets the cell of given variable.
+         *
+         * @return the old cell.
+         */
+        private long setCell(Var var, long cell) {
+            int index = var.getIndex();
+            if (index >= cells.length) {
+                if (cell == UNDEF) {
+                    return UNDEF;
+                }
+                grow(index, var.getMethod().getIR());
+            }
+            long old = cells[index];
+            if (old != cell) {
+                cells[index] = cell;
+                if (old == UNDEF) {
+                    ++size;
+                } else if (cell == UNDEF) {
+                    --size;
+                }
+            }
+            return old;
+        }
+
+        /**
+         * Copies the non-UNDEF cells of other map to this map.
+         *
+         * @return true if this map changed as a result of the call.
+         */
+        private boolean copyCells(ValueMap other) {
+            boolean changed = false;
+            long[] otherCells = other.cells;
+            for (int i = 0; i < otherCells.length; ++i) {
+                long cell = otherCells[i];
+                if (cell != UNDEF && getCell(i) != cell) {
+                    set(i, cell, other.ir);
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * Sets the cells of this map to the same as other map,
+         * except the cell at index {@code except}.
+         *
+         * @return true if this map changed as a result of the call.
+         */
+        private boolean setCells(ValueMap other, int except) {
+            boolean changed = false;
+            int length = Math.max(cells.length, other.cells.length);
+            for (int i = 0; i < length; ++i) {
+                if (i == except) {
+                    continue;
+                }
+                long cell = other.getCell(i);
+                long old = getCell(i);
+                if (cell != old) {
+                    if (cell == UNDEF) {
+                        cells[i] = UNDEF;
+                        --size;
+                    } else {
+                        set(i, cell, other.ir);
+                    }
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * Meets the cells of other map into this map.
+         *
+         * @return true if this map changed as a result of the call.
+         */
+        private boolean meetCells(ValueMap other) {
+            boolean changed = false;
+            long[] otherCells = other.cells;
+            for (int i = 0; i < otherCells.length; ++i) {
+                long cell = otherCells[i];
+                if (cell == UNDEF) {
+                    // meet(UNDEF, v) = v
+                    continue;
+                }
+                long old = getCell(i);
+                // meet(v, UNDEF) = v, meet(c, c) = c,
+                // and any other meet results in NAC
+                long result = old == UNDEF ? cell
+                        : (old == cell ? old : NAC);
+                if (result != old) {
+                    set(i, result, other.ir);
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * Sets a non-UNDEF cell at given index, whose variable belongs to given IR.
+         */
+        private void set(int index, long cell, IR ir) {
+            if (index >= cells.length) {
+                grow(index, ir);
+            }
+            if (cells[index] == UNDEF) {
+                ++size;
+            }
+            cells[index] = cell;
+        }
+
+        /**
+         * Grows the cells so that they can hold given index. As all
+         * variables come from the same IR, the cells are sized to
+         * the number of variables in the IR, so they grow only once.
+         */
+        private void grow(int index, IR ir) {
+            if (this.ir == null) {
+                this.ir = ir;
+            }
+            cells = Arrays.copyOf(cells,
+                    Math.max(index + 1, this.ir.getVars().size()));
+        }
+
+        private ValueMap copy() {
+            return new ValueMap(ir, cells.length == 0 ? EMPTY : cells.clone(), size);
+        }
+
+        @Override
+        public Value get(Object key) {
+            if (key instanceof Var var) {
+                long cell = getCell(var.getIndex());
+                return cell == UNDEF ? null : decode(cell);
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Var var && getCell(var.getIndex()) != UNDEF;
+        }
+
+        @Override
+        public Value put(Var key, Value value) {
+            long old = setCell(key, encode(value));
+            return old == UNDEF ? null : decode(old);
+        }
+
+        @Override
+        public Value remove(Object key) {
+            if (key instanceof Var var) {
+                long old = setCell(var, UNDEF);
+                return old == UNDEF ? null : decode(old);
+            }
+            return null;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(cells, UNDEF);
+            size = 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public Set<Entry<Var, Value>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Var, Value>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof ValueMap that) {
+                if (size != that.size) {
+                    return false;
+                }
+                int length = Math.max(cells.length, that.cells.length);
+                for (int i = 0; i < length; ++i) {
+                    if (getCell(i) != that.getCell(i)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return super.equals(o);
+        }
+
+        private class EntryIterator implements Iterator<Entry<Var, Value>> {
+
+            private int next = advance(0);
+
+            private int last = -1;
+
+            private int advance(int from) {
+                for (int i = from; i < cells.length; ++i) {
+                    if (cells[i] != UNDEF) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Entry<Var, Value> next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = advance(next + 1);
+                return new SimpleImmutableEntry<>(
+                        ir.getVar(last), decode(cells[last]));
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                cells[last] = UNDEF;
+                --size;
+                last = -1;
+            }
+        }
     }
 }
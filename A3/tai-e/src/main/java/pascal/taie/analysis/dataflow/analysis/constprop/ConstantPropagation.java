@@ -40,9 +40,6 @@ import pascal.taie.language.type.PrimitiveType;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
 
-import java.util.HashSet;
-import java.util.Set;
-
 public class ConstantPropagation extends
         AbstractDataflowAnalysis<Stmt, CPFact> {
 
@@ -75,11 +72,7 @@ public class ConstantPropagation extends
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
-        Set<Var> allVars = new HashSet<>(fact.keySet());
-        allVars.addAll(target.keySet());
-        for (Var var : allVars) {
-            target.update(var, meetValue(fact.get(var), target.get(var)));
-        }
+        target.meet(fact);
     }
 
     /**
@@ -103,13 +96,13 @@ public class ConstantPropagation extends
 
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
-        CPFact old_out = out.copy();
-        out.clear();
-        out.copyFrom(in);
+        // out = in[lVar -> evaluate(rValue)], which is updated in place,
+        // and the change of out is detected during the update
         if ((stmt instanceof DefinitionStmt defStmt) && (defStmt.getLValue() instanceof Var lVar) && canHoldInt(lVar)) {
-            out.update(lVar, evaluate(defStmt.getRValue(), in));
+            boolean changed = out.setExcept(in, lVar);
+            return out.update(lVar, evaluate(defStmt.getRValue(), in)) || changed;
         }
-        return !out.equals(old_out);
+        return out.setExcept(in, null);
     }
 
     /**
@@ -0,0 +1,205 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Arrays;
+
+/**
+ * Result of {@link SparseConstantPropagation}.
+ * <p>
+ * The analysis keeps one value per SSA version instead of a fact per
+ * statement, thus the {@link CPFact}s are built on demand and memoized:
+ * the in fact of a statement is the out fact of its immediate dominator
+ * updated by the phis at the statement, and its out fact is the in fact
+ * updated by the definition of the statement. A fact is only copied when
+ * the phis or the definition change it, otherwise it is shared with the
+ * dominator. The returned facts are frozen, thus the client code needs
+ * to copy a fact before modifying it.
+ * Building the facts of a statement visits only its dominators whose
+ * facts are not built yet, so each fact is built once. As the facts are
+ * built lazily, this result is not thread-safe.
+ * <p>
+ * The facts differ from the ones of {@link ConstantPropagation} (without
+ * edge refinement) in two places:
+ * <ul>
+ *     <li>The statements which are not executable, i.e., are not reached
+ *     by executable edges from the entry, have empty facts, while the
+ *     dense analysis propagates the facts into them like into the other
+ *     statements. Use {@link #isExecutable(Stmt)} to tell them apart from
+ *     the executable statements whose variables are all UNDEF. They are
+ *     not relevant ({@link #isRelevant(Stmt)}), thus are neither dumped
+ *     nor compared by {@link pascal.taie.analysis.ResultProcessor}.</li>
+ *     <li>At the merge points, the phis only meet the values coming from
+ *     executable edges, thus a variable may be a constant here where the
+ *     dense analysis meets it with the value from a branch which is never
+ *     taken, and gets NAC.</li>
+ * </ul>
+ * The facts of the other statements are the same as the dense ones.
+ */
+public class SCCPResult implements NodeResult<Stmt, CPFact> {
+
+    private final SSAForm ssa;
+
+    private final Value[] values;
+
+    private final boolean[] executableNodes;
+
+    private final boolean[][] executableEdges;
+
+    /**
+     * Memoized in facts of the nodes, or null if not built yet.
+     */
+    private final CPFact[] inFacts;
+
+    /**
+     * Memoized out facts of the nodes, or null if not built yet.
+     */
+    private final CPFact[] outFacts;
+
+    /**
+     * Fact of the statements which are not executable.
+     */
+    private final CPFact emptyFact = new CPFact();
+
+    /**
+     * Scratch stack of the dominators whose facts are being built.
+     */
+    private int[] path = new int[16];
+
+    SCCPResult(SSAForm ssa, Value[] values,
+               boolean[] executableNodes, boolean[][] executableEdges) {
+        this.ssa = ssa;
+        this.values = values;
+        this.executableNodes = executableNodes;
+        this.executableEdges = executableEdges;
+        this.inFacts = new CPFact[ssa.nodeCount];
+        this.outFacts = new CPFact[ssa.nodeCount];
+        emptyFact.freeze();
+    }
+
+    /**
+     * @return true if given statement may be executed, otherwise false.
+     */
+    public boolean isExecutable(Stmt stmt) {
+        return executableNodes[stmt.getIndex()];
+    }
+
+    /**
+     * @return true if the control may flow from source to target,
+     * otherwise false.
+     */
+    public boolean isExecutable(Stmt source, Stmt target) {
+        int node = target.getIndex();
+        if (executableEdges[node] == null) {
+            return false;
+        }
+        int i = ssa.predIndexOf(node, source.getIndex());
+        return i >= 0 && executableEdges[node][i];
+    }
+
+    /**
+     * Only the executable statements are relevant.
+     */
+    @Override
+    public boolean isRelevant(Stmt stmt) {
+        return isExecutable(stmt);
+    }
+
+    @Override
+    public CPFact getInFact(Stmt stmt) {
+        int node = stmt.getIndex();
+        if (!executableNodes[node]) {
+            return emptyFact;
+        }
+        buildFacts(node);
+        return inFacts[node];
+    }
+
+    @Override
+    public CPFact getOutFact(Stmt stmt) {
+        int node = stmt.getIndex();
+        if (!executableNodes[node]) {
+            return emptyFact;
+        }
+        buildFacts(node);
+        return outFacts[node];
+    }
+
+    /**
+     * Builds the facts of given executable node, and of its dominators
+     * whose facts are not built yet, from the top of the dominator tree.
+     * The dominators of an executable node are also executable.
+     */
+    private void buildFacts(int node) {
+        int depth = 0;
+        for (int n = node; outFacts[n] == null; n = ssa.idom[n]) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth++] = n;
+            if (n == ssa.entry) {
+                break;
+            }
+        }
+        while (depth > 0) {
+            int n = path[--depth];
+            CPFact in = n == ssa.entry ? newEntryFact() : outFacts[ssa.idom[n]];
+            int[] phis = ssa.phis[n];
+            if (phis.length > 0) {
+                in = in.copy();
+                for (int phi : phis) {
+                    update(in, ssa.phiVersion[phi]);
+                }
+            }
+            in.freeze();
+            inFacts[n] = in;
+            CPFact out = in;
+            if (ssa.defVersion[n] >= 0) {
+                out = in.copy();
+                update(out, ssa.defVersion[n]);
+                out.freeze();
+            }
+            outFacts[n] = out;
+        }
+    }
+
+    /**
+     * @return a fact holding the initial values of the variables.
+     */
+    private CPFact newEntryFact() {
+        CPFact fact = new CPFact();
+        for (int version : ssa.entryVersions) {
+            if (version >= 0) {
+                update(fact, version);
+            }
+        }
+        return fact;
+    }
+
+    private void update(CPFact fact, int version) {
+        fact.update(ssa.ir.getVar(ssa.versionVar[version]), values[version]);
+    }
+}
@@ -0,0 +1,537 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SSA form of the int variables of a method, which is built on the
+ * statement CFG without rewriting the IR.
+ * <p>
+ * CFG nodes are identified by their indexes ({@link Stmt#getIndex()}),
+ * and each definition of a variable, i.e., the initial value at the entry,
+ * an assignment, or a phi at a join node, is given a distinct version.
+ * Phis are placed at the iterated dominance frontiers of the definitions,
+ * and each use is linked to the unique version reaching it.
+ * Only the nodes reachable from the entry are in the SSA form.
+ */
+class SSAForm {
+
+    private static final int[] EMPTY = new int[0];
+
+    final IR ir;
+
+    /**
+     * Number of CFG nodes, i.e., the statements plus entry and exit.
+     */
+    final int nodeCount;
+
+    final Stmt[] nodes;
+
+    final int entry;
+
+    /**
+     * Predecessors and successors of the reachable nodes.
+     */
+    final int[][] preds;
+
+    final int[][] succs;
+
+    /**
+     * Immediate dominators of the nodes, or -1 for unreachable nodes.
+     * The entry is its own immediate dominator.
+     */
+    final int[] idom;
+
+    /**
+     * Version defined by the statement of each node, or -1.
+     */
+    final int[] defVersion;
+
+    /**
+     * Versions of the initial values of the variables at the entry,
+     * or -1 for the variables which are not tracked.
+     */
+    final int[] entryVersions;
+
+    /**
+     * For each node, the used variables (by index) followed by
+     * the versions reaching the uses, i.e., [var0, ver0, var1, ver1, ...].
+     */
+    final int[][] uses;
+
+    /**
+     * Ids of the phis at each node.
+     */
+    final int[][] phis;
+
+    /**
+     * Variable (by index) of each phi.
+     */
+    int[] phiVar;
+
+    /**
+     * Version defined by each phi.
+     */
+    int[] phiVersion;
+
+    /**
+     * Operand versions of each phi, aligned with the predecessors
+     * of the node where the phi is placed.
+     */
+    int[][] phiOperands;
+
+    int phiCount;
+
+    /**
+     * Variable (by index) and defining node of each version.
+     */
+    int[] versionVar;
+
+    int[] versionNode;
+
+    int versionCount;
+
+    /**
+     * Nodes and phis which use each version.
+     */
+    int[][] useNodes;
+
+    int[][] usePhis;
+
+    SSAForm(CFG<Stmt> cfg) {
+        ir = cfg.getIR();
+        nodeCount = ir.getStmts().size() + 2;
+        nodes = new Stmt[nodeCount];
+        for (Stmt node : cfg) {
+            nodes[node.getIndex()] = node;
+        }
+        entry = cfg.getEntry().getIndex();
+        preds = new int[nodeCount][];
+        succs = new int[nodeCount][];
+        int[] rpo = reversePostOrder(cfg);
+        idom = computeDominators(rpo);
+        defVersion = new int[nodeCount];
+        Arrays.fill(defVersion, -1);
+        entryVersions = new int[ir.getVars().size()];
+        Arrays.fill(entryVersions, -1);
+        uses = new int[nodeCount][];
+        phis = new int[nodeCount][];
+        versionVar = new int[nodeCount];
+        versionNode = new int[nodeCount];
+        placePhis(rpo);
+        rename();
+        collectUsers();
+    }
+
+    static boolean isTracked(Var var) {
+        return ConstantPropagation.canHoldInt(var);
+    }
+
+    /**
+     * @return the variable (by index) defined by the statement
+     * of given node, or -1.
+     */
+    private int getDefVar(int node) {
+        return nodes[node].getDef().orElse(null) instanceof Var var
+                && isTracked(var) ? var.getIndex() : -1;
+    }
+
+    /**
+     * Computes reverse post-order of the nodes reachable from the entry,
+     * and collects the edges among them.
+     */
+    private int[] reversePostOrder(CFG<Stmt> cfg) {
+        int[] order = new int[nodeCount];
+        int count = 0;
+        boolean[] visited = new boolean[nodeCount];
+        int[] stack = new int[nodeCount];
+        int[] next = new int[nodeCount];
+        int top = 0;
+        stack[top++] = entry;
+        visited[entry] = true;
+        while (top > 0) {
+            int node = stack[top - 1];
+            if (succs[node] == null) {
+                succs[node] = cfg.getSuccsOf(nodes[node])
+                        .stream()
+                        .mapToInt(Stmt::getIndex)
+                        .toArray();
+            }
+            if (next[node] < succs[node].length) {
+                int succ = succs[node][next[node]++];
+                if (!visited[succ]) {
+                    visited[succ] = true;
+                    stack[top++] = succ;
+                }
+            } else {
+                order[count++] = node;
+                --top;
+            }
+        }
+        int[] rpo = new int[count];
+        for (int i = 0; i < count; ++i) {
+            rpo[i] = order[count - 1 - i];
+        }
+        // collect predecessors among reachable nodes
+        int[] predCounts = new int[nodeCount];
+        for (int node : rpo) {
+            for (int succ : succs[node]) {
+                ++predCounts[succ];
+            }
+        }
+        for (int node : rpo) {
+            preds[node] = new int[predCounts[node]];
+            predCounts[node] = 0;
+        }
+        for (int node : rpo) {
+            for (int succ : succs[node]) {
+                preds[succ][predCounts[succ]++] = node;
+            }
+        }
+        return rpo;
+    }
+
+    /**
+     * Computes immediate dominators by the iterative algorithm of
+     * Cooper, Harvey and Kennedy.
+     */
+    private int[] computeDominators(int[] rpo) {
+        int[] rpoNumber = new int[nodeCount];
+        for (int i = 0; i < rpo.length; ++i) {
+            rpoNumber[rpo[i]] = i;
+        }
+        int[] doms = new int[nodeCount];
+        Arrays.fill(doms, -1);
+        doms[entry] = entry;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1; i < rpo.length; ++i) {
+                int node = rpo[i];
+                int newIdom = -1;
+                for (int pred : preds[node]) {
+                    if (doms[pred] == -1) {
+                        continue;
+                    }
+                    if (newIdom == -1) {
+                        newIdom = pred;
+                    } else {
+                        // intersect
+                        int f1 = pred, f2 = newIdom;
+                        while (f1 != f2) {
+                            while (rpoNumber[f1] > rpoNumber[f2]) {
+                                f1 = doms[f1];
+                            }
+                            while (rpoNumber[f2] > rpoNumber[f1]) {
+                                f2 = doms[f2];
+                            }
+                        }
+                        newIdom = f1;
+                    }
+                }
+                if (doms[node] != newIdom) {
+                    doms[node] = newIdom;
+                    changed = true;
+                }
+            }
+        }
+        return doms;
+    }
+
+    /**
+     * Places phis at the iterated dominance frontiers of the definitions.
+     */
+    private void placePhis(int[] rpo) {
+        // compute dominance frontiers
+        int[][] frontiers = new int[nodeCount][];
+        int[] frontierSizes = new int[nodeCount];
+        for (int node : rpo) {
+            if (preds[node].length < 2) {
+                continue;
+            }
+            for (int pred : preds[node]) {
+                for (int runner = pred; runner != idom[node]; runner = idom[runner]) {
+                    int[] df = frontiers[runner];
+                    int size = frontierSizes[runner];
+                    if (size > 0 && df[size - 1] == node) {
+                        continue;
+                    }
+                    if (df == null) {
+                        df = frontiers[runner] = new int[2];
+                    } else if (size == df.length) {
+                        df = frontiers[runner] = Arrays.copyOf(df, size * 2);
+                    }
+                    df[frontierSizes[runner]++] = node;
+                }
+            }
+        }
+        // collect definition sites of each variable
+        int varCount = entryVersions.length;
+        int[][] defSites = new int[varCount][];
+        int[] defSiteCounts = new int[varCount];
+        for (int node : rpo) {
+            int var = getDefVar(node);
+            if (var >= 0) {
+                int[] sites = defSites[var];
+                if (sites == null) {
+                    sites = defSites[var] = new int[2];
+                } else if (defSiteCounts[var] == sites.length) {
+                    sites = defSites[var] = Arrays.copyOf(sites, sites.length * 2);
+                }
+                sites[defSiteCounts[var]++] = node;
+            }
+        }
+        // place phis for each variable
+        int[] phiVars = new int[nodeCount];
+        int[] phiNodes = new int[nodeCount];
+        int[] hasPhi = new int[nodeCount]; // last variable (+1) having phi at node
+        int[] queued = new int[nodeCount]; // last variable (+1) queuing node
+        int[] worklist = new int[nodeCount];
+        for (int var = 0; var < varCount; ++var) {
+            if (defSites[var] == null) {
+                continue;
+            }
+            int size = 0;
+            for (int i = 0; i < defSiteCounts[var]; ++i) {
+                int site = defSites[var][i];
+                if (queued[site] != var + 1) {
+                    queued[site] = var + 1;
+                    worklist[size++] = site;
+                }
+            }
+            while (size > 0) {
+                int site = worklist[--size];
+                for (int i = 0; i < frontierSizes[site]; ++i) {
+                    int node = frontiers[site][i];
+                    if (hasPhi[node] != var + 1) {
+                        hasPhi[node] = var + 1;
+                        if (phiCount == phiVars.length) {
+                            phiVars = Arrays.copyOf(phiVars, phiCount * 2);
+                            phiNodes = Arrays.copyOf(phiNodes, phiCount * 2);
+                        }
+                        phiVars[phiCount] = var;
+                        phiNodes[phiCount++] = node;
+                        if (queued[node] != var + 1) {
+                            queued[node] = var + 1;
+                            worklist[size++] = node;
+                        }
+                    }
+                }
+            }
+        }
+        // group phis by nodes
+        int[] phiCounts = new int[nodeCount];
+        for (int i = 0; i < phiCount; ++i) {
+            ++phiCounts[phiNodes[i]];
+        }
+        for (int node = 0; node < nodeCount; ++node) {
+            phis[node] = phiCounts[node] == 0 ? EMPTY : new int[phiCounts[node]];
+            phiCounts[node] = 0;
+        }
+        phiVar = Arrays.copyOf(phiVars, phiCount);
+        phiVersion = new int[phiCount];
+        phiOperands = new int[phiCount][];
+        for (int i = 0; i < phiCount; ++i) {
+            int node = phiNodes[i];
+            phis[node][phiCounts[node]++] = i;
+            phiOperands[i] = new int[preds[node].length];
+        }
+    }
+
+    private int newVersion(int var, int node) {
+        if (versionCount == versionVar.length) {
+            versionVar = Arrays.copyOf(versionVar, versionCount * 2);
+            versionNode = Arrays.copyOf(versionNode, versionCount * 2);
+        }
+        versionVar[versionCount] = var;
+        versionNode[versionCount] = node;
+        return versionCount++;
+    }
+
+    /**
+     * Renames the definitions and uses by a pre-order traversal
+     * of the dominator tree.
+     */
+    private void rename() {
+        // build dominator tree
+        int[] childCounts = new int[nodeCount];
+        for (int node = 0; node < nodeCount; ++node) {
+            if (idom[node] >= 0 && node != entry) {
+                ++childCounts[idom[node]];
+            }
+        }
+        int[][] children = new int[nodeCount][];
+        for (int node = 0; node < nodeCount; ++node) {
+            children[node] = childCounts[node] == 0 ? EMPTY : new int[childCounts[node]];
+            childCounts[node] = 0;
+        }
+        for (int node = 0; node < nodeCount; ++node) {
+            if (idom[node] >= 0 && node != entry) {
+                children[idom[node]][childCounts[idom[node]]++] = node;
+            }
+        }
+        // current versions of variables, and the undo log of
+        // the (variable, previous version) pairs
+        int[] current = new int[entryVersions.length];
+        Arrays.fill(current, -1);
+        for (Var var : ir.getVars()) {
+            if (isTracked(var)) {
+                int version = newVersion(var.getIndex(), entry);
+                entryVersions[var.getIndex()] = version;
+                current[var.getIndex()] = version;
+            }
+        }
+        int[] undo = new int[16];
+        int undoSize = 0;
+        // traversal stack of (node, position of undo log)
+        int[] stack = new int[2 * nodeCount];
+        int top = 0;
+        stack[top++] = entry;
+        stack[top++] = -1;
+        while (top > 0) {
+            int node = stack[top - 2];
+            int mark = stack[top - 1];
+            if (mark >= 0) {
+                // leave the node: restore the versions
+                while (undoSize > mark) {
+                    undoSize -= 2;
+                    current[undo[undoSize]] = undo[undoSize + 1];
+                }
+                top -= 2;
+                continue;
+            }
+            stack[top - 1] = undoSize;
+            if (undoSize + 2 * (phis[node].length + 1) > undo.length) {
+                undo = Arrays.copyOf(undo, 2 * (undo.length + phis[node].length + 1));
+            }
+            for (int phi : phis[node]) {
+                int var = phiVar[phi];
+                int version = newVersion(var, node);
+                phiVersion[phi] = version;
+                undo[undoSize++] = var;
+                undo[undoSize++] = current[var];
+                current[var] = version;
+            }
+            uses[node] = collectUses(node, current);
+            int defVar = getDefVar(node);
+            if (defVar >= 0) {
+                int version = newVersion(defVar, node);
+                defVersion[node] = version;
+                undo[undoSize++] = defVar;
+                undo[undoSize++] = current[defVar];
+                current[defVar] = version;
+            }
+            // fill phi operands of successors
+            for (int succ : succs[node]) {
+                int predIndex = predIndexOf(succ, node);
+                for (int phi : phis[succ]) {
+                    phiOperands[phi][predIndex] = current[phiVar[phi]];
+                }
+            }
+            if (top + 2 * children[node].length > stack.length) {
+                stack = Arrays.copyOf(stack, 2 * (top + 2 * children[node].length));
+            }
+            for (int child : children[node]) {
+                stack[top++] = child;
+                stack[top++] = -1;
+            }
+        }
+    }
+
+    private int[] collectUses(int node, int[] current) {
+        List<RValue> rvalues = nodes[node].getUses();
+        int[] result = null;
+        int size = 0;
+        for (RValue rvalue : rvalues) {
+            if (rvalue instanceof Var var && isTracked(var)) {
+                if (result == null) {
+                    result = new int[2 * rvalues.size()];
+                }
+                result[size++] = var.getIndex();
+                result[size++] = current[var.getIndex()];
+            }
+        }
+        return result == null ? EMPTY : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * @return the position of pred in the predecessors of node.
+     */
+    int predIndexOf(int node, int pred) {
+        int[] ps = preds[node];
+        for (int i = 0; i < ps.length; ++i) {
+            if (ps[i] == pred) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Collects the nodes and phis which use each version.
+     */
+    private void collectUsers() {
+        int[] nodeCounts = new int[versionCount];
+        int[] phiCounts = new int[versionCount];
+        for (int node = 0; node < nodeCount; ++node) {
+            if (uses[node] != null) {
+                for (int i = 1; i < uses[node].length; i += 2) {
+                    ++nodeCounts[uses[node][i]];
+                }
+            }
+        }
+        for (int phi = 0; phi < phiCount; ++phi) {
+            for (int operand : phiOperands[phi]) {
+                ++phiCounts[operand];
+            }
+        }
+        useNodes = new int[versionCount][];
+        usePhis = new int[versionCount][];
+        for (int v = 0; v < versionCount; ++v) {
+            useNodes[v] = nodeCounts[v] == 0 ? EMPTY : new int[nodeCounts[v]];
+            usePhis[v] = phiCounts[v] == 0 ? EMPTY : new int[phiCounts[v]];
+            nodeCounts[v] = phiCounts[v] = 0;
+        }
+        for (int node = 0; node < nodeCount; ++node) {
+            if (uses[node] != null) {
+                for (int i = 1; i < uses[node].length; i += 2) {
+                    int v = uses[node][i];
+                    useNodes[v][nodeCounts[v]++] = node;
+                }
+            }
+        }
+        for (int phi = 0; phi < phiCount; ++phi) {
+            for (int operand : phiOperands[phi]) {
+                usePhis[operand][phiCounts[operand]++] = phi;
+            }
+        }
+    }
+}
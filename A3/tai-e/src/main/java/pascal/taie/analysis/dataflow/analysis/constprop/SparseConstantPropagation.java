@@ -0,0 +1,254 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.collection.Pair;
+
+import java.util.Arrays;
+
+/**
+ * Sparse conditional constant propagation (Wegman and Zadeck).
+ * <p>
+ * Instead of pushing a whole {@link CPFact} through every statement as
+ * {@link ConstantPropagation} does, this analysis builds the SSA form
+ * of the int variables ({@link SSAForm}), keeps one lattice value per
+ * SSA version, and propagates a value only to the uses of the version
+ * along the def-use edges. In the same pass, it marks the CFG edges
+ * executable from the entry, and evaluates the conditions of
+ * {@link If} and {@link SwitchStmt} to only follow the branches which
+ * may be taken. Phis only meet the values coming from executable edges.
+ * <p>
+ * The result provides the same {@link CPFact} views as
+ * {@link ConstantPropagation}, together with the executable statements
+ * and edges. See {@link SCCPResult}.
+ */
+public class SparseConstantPropagation extends MethodAnalysis {
+
+    public static final String ID = "sccp";
+
+    private final ConstantPropagation cp;
+
+    public SparseConstantPropagation(AnalysisConfig config) {
+        super(config);
+        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+    }
+
+    @Override
+    public SCCPResult analyze(IR ir) {
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        return new Propagator(new SSAForm(cfg)).propagate();
+    }
+
+    /**
+     * Holds the states of propagation on a method.
+     */
+    private class Propagator {
+
+        private final SSAForm ssa;
+
+        private final Value[] values;
+
+        private final boolean[] executableNodes;
+
+        /**
+         * Executable flags of edges, aligned with {@link SSAForm#preds}.
+         */
+        private final boolean[][] executableEdges;
+
+        /**
+         * Work-list of the CFG edges which become executable.
+         */
+        private int[] edgeSources = new int[16];
+
+        private int[] edgeTargets = new int[16];
+
+        private int edgeCount;
+
+        /**
+         * Work-list of the versions whose values changed.
+         */
+        private int[] versions = new int[16];
+
+        private int versionCount;
+
+        /**
+         * Fact holding the values of the variables used
+         * by the statement being evaluated.
+         */
+        private final CPFact operands = new CPFact();
+
+        private Propagator(SSAForm ssa) {
+            this.ssa = ssa;
+            values = new Value[ssa.versionCount];
+            Arrays.fill(values, Value.getUndef());
+            for (Var param : ssa.ir.getParams()) {
+                if (SSAForm.isTracked(param)) {
+                    values[ssa.entryVersions[param.getIndex()]] = Value.getNAC();
+                }
+            }
+            executableNodes = new boolean[ssa.nodeCount];
+            executableEdges = new boolean[ssa.nodeCount][];
+            for (int node = 0; node < ssa.nodeCount; ++node) {
+                if (ssa.preds[node] != null) {
+                    executableEdges[node] = new boolean[ssa.preds[node].length];
+                }
+            }
+        }
+
+        private SCCPResult propagate() {
+            executableNodes[ssa.entry] = true;
+            visitNode(ssa.entry);
+            while (edgeCount > 0 || versionCount > 0) {
+                while (edgeCount > 0) {
+                    --edgeCount;
+                    int source = edgeSources[edgeCount];
+                    int target = edgeTargets[edgeCount];
+                    int i = ssa.predIndexOf(target, source);
+                    if (executableEdges[target][i]) {
+                        continue;
+                    }
+                    executableEdges[target][i] = true;
+                    for (int phi : ssa.phis[target]) {
+                        visitPhi(phi, target);
+                    }
+                    if (!executableNodes[target]) {
+                        executableNodes[target] = true;
+                        visitNode(target);
+                    }
+                }
+                while (versionCount > 0) {
+                    int version = versions[--versionCount];
+                    for (int phi : ssa.usePhis[version]) {
+                        int node = ssa.versionNode[ssa.phiVersion[phi]];
+                        if (executableNodes[node]) {
+                            visitPhi(phi, node);
+                        }
+                    }
+                    for (int node : ssa.useNodes[version]) {
+                        if (executableNodes[node]) {
+                            visitNode(node);
+                        }
+                    }
+                }
+            }
+            return new SCCPResult(ssa, values, executableNodes, executableEdges);
+        }
+
+        private void visitPhi(int phi, int node) {
+            Value value = Value.getUndef();
+            int[] operands = ssa.phiOperands[phi];
+            for (int i = 0; i < operands.length; ++i) {
+                if (executableEdges[node][i]) {
+                    value = cp.meetValue(value, values[operands[i]]);
+                }
+            }
+            setValue(ssa.phiVersion[phi], value);
+        }
+
+        private void visitNode(int node) {
+            Stmt stmt = ssa.nodes[node];
+            int[] uses = ssa.uses[node];
+            for (int i = 0; i < uses.length; i += 2) {
+                operands.update(ssa.ir.getVar(uses[i]), values[uses[i + 1]]);
+            }
+            int version = ssa.defVersion[node];
+            if (version >= 0) {
+                DefinitionStmt<?, ?> defStmt = (DefinitionStmt<?, ?>) stmt;
+                setValue(version, ConstantPropagation.evaluate(
+                        defStmt.getRValue(), operands));
+            }
+            int[] succs = ssa.succs[node];
+            // like DeadCodeDetection, both branches are taken
+            // if the condition is not a constant
+            if (stmt instanceof If ifStmt && succs.length > 1) {
+                // the condition is evaluated to 1 (true) or 0 (false)
+                Value cond = ConstantPropagation.evaluate(
+                        ifStmt.getCondition(), operands);
+                int target = ifStmt.getTarget().getIndex();
+                for (int succ : succs) {
+                    if (!cond.isConstant()
+                            || (cond.getConstant() == 1) == (succ == target)) {
+                        addEdge(node, succ);
+                    }
+                }
+            } else if (stmt instanceof SwitchStmt switchStmt) {
+                Value cond = ConstantPropagation.evaluate(
+                        switchStmt.getVar(), operands);
+                if (cond.isConstant()) {
+                    Stmt target = switchStmt.getDefaultTarget();
+                    for (Pair<Integer, Stmt> caseTarget : switchStmt.getCaseTargets()) {
+                        if (caseTarget.first() == cond.getConstant()) {
+                            target = caseTarget.second();
+                            break;
+                        }
+                    }
+                    addEdge(node, target.getIndex());
+                } else {
+                    addEdges(node, succs);
+                }
+            } else {
+                addEdges(node, succs);
+            }
+            // reset operands to UNDEF
+            for (int i = 0; i < uses.length; i += 2) {
+                operands.remove(ssa.ir.getVar(uses[i]));
+            }
+        }
+
+        private void setValue(int version, Value value) {
+            if (!values[version].equals(value)) {
+                values[version] = value;
+                if (versionCount == versions.length) {
+                    versions = Arrays.copyOf(versions, versionCount * 2);
+                }
+                versions[versionCount++] = version;
+            }
+        }
+
+        private void addEdges(int source, int[] targets) {
+            for (int target : targets) {
+                addEdge(source, target);
+            }
+        }
+
+        private void addEdge(int source, int target) {
+            if (edgeCount == edgeSources.length) {
+                edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+                edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+            }
+            edgeSources[edgeCount] = source;
+            edgeTargets[edgeCount] = target;
+            ++edgeCount;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Represents set-like data-flow facts whose elements are {@link Indexable}.
+ * <p>
+ * Instead of hashing the elements, this fact records them by their indexes
+ * in a bit vector, so that union, intersection, copy and equality
+ * are performed word by word. All elements of the facts that are
+ * combined with each other must come from the same index space
+ * (e.g., the variables of the same method), and the decoder maps
+ * an index back to the corresponding element.
+ * <p>
+ * This class can be used wherever a {@link SetFact} is expected.
+ * Operations between two BitSetFacts take the word-wise fast path,
+ * and operations with other SetFacts fall back to element-wise ones.
+ *
+ * @param <E> type of elements
+ */
+public class BitSetFact<E extends Indexable> extends SetFact<E> {
+
+    /**
+     * The bits holding the indexes of the elements in this fact.
+     */
+    private final BitSet bits;
+
+    /**
+     * Maps an index to the corresponding element.
+     */
+    private final IntFunction<E> decoder;
+
+    /**
+     * Constructs an empty BitSetFact.
+     *
+     * @param decoder maps an index to the element with that index.
+     */
+    public BitSetFact(IntFunction<E> decoder) {
+        this(new BitSet(), decoder);
+    }
+
+    private BitSetFact(BitSet bits, IntFunction<E> decoder) {
+        super(new BitSetView<>(bits, decoder), false);
+        this.bits = bits;
+        this.decoder = decoder;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return bits.get(e.getIndex());
+    }
+
+    @Override
+    public boolean add(E e) {
+        checkMutable();
+        int index = e.getIndex();
+        if (bits.get(index)) {
+            return false;
+        }
+        bits.set(index);
+        return true;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        checkMutable();
+        int index = e.getIndex();
+        if (!bits.get(index)) {
+            return false;
+        }
+        bits.clear(index);
+        return true;
+    }
+
+    @Override
+    public boolean union(SetFact<E> other) {
+        checkMutable();
+        if (other instanceof BitSetFact<E> that) {
+            int oldSize = bits.cardinality();
+            bits.or(that.bits);
+            return bits.cardinality() != oldSize;
+        }
+        return super.union(other);
+    }
+
+    @Override
+    public boolean intersect(SetFact<E> other) {
+        checkMutable();
+        if (other instanceof BitSetFact<E> that) {
+            int oldSize = bits.cardinality();
+            bits.and(that.bits);
+            return bits.cardinality() != oldSize;
+        }
+        return super.intersect(other);
+    }
+
+    @Override
+    public void set(SetFact<E> other) {
+        checkMutable();
+        if (other instanceof BitSetFact<E> that) {
+            bits.clear();
+            bits.or(that.bits);
+        } else {
+            super.set(other);
+        }
+    }
+
+    /**
+     * Sets the content of this fact to {@code (other - kill) ∪ gen},
+     * where {@code kill} and {@code gen} are given as element indexes.
+     * This is the transfer of typical gen/kill analyses, and it is
+     * performed by bit operations on this fact in place.
+     *
+     * @param kill index of the killed element, or a negative number
+     *             if no element is killed.
+     * @param gen  indexes of the generated elements, which must be distinct.
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean set(BitSetFact<E> other, int kill, int[] gen) {
+        checkMutable();
+        // compute (this XOR result) to detect the change, where
+        // result only differs from other at kill and gen
+        bits.xor(other.bits);
+        boolean killed = kill >= 0;
+        for (int i : gen) {
+            // result has i, so (this XOR result)[i] = !this[i]
+            bits.set(i, bits.get(i) == other.bits.get(i));
+            if (i == kill) {
+                killed = false;
+            }
+        }
+        if (killed) {
+            // result does not have kill, so (this XOR result)[kill] = this[kill]
+            bits.set(kill, bits.get(kill) != other.bits.get(kill));
+        }
+        boolean changed = !bits.isEmpty();
+        // set this to the result
+        bits.clear();
+        bits.or(other.bits);
+        if (killed) {
+            bits.clear(kill);
+        }
+        for (int i : gen) {
+            bits.set(i);
+        }
+        return changed;
+    }
+
+    @Override
+    public BitSetFact<E> copy() {
+        return new BitSetFact<>((BitSet) bits.clone(), decoder);
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        bits.clear();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bits.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return bits.cardinality();
+    }
+
+    /**
+     * A {@link java.util.Set} view of the bits, which backs the
+     * inherited {@link SetFact} operations.
+     */
+    private static class BitSetView<E extends Indexable> extends AbstractSet<E> {
+
+        private final BitSet bits;
+
+        private final IntFunction<E> decoder;
+
+        private BitSetView(BitSet bits, IntFunction<E> decoder) {
+            this.bits = bits;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (o instanceof Indexable e) {
+                int index = e.getIndex();
+                return bits.get(index) && decoder.apply(index).equals(o);
+            }
+            return false;
+        }
+
+        @Override
+        public boolean add(E e) {
+            int index = e.getIndex();
+            if (bits.get(index)) {
+                return false;
+            }
+            bits.set(index);
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                bits.clear(((Indexable) o).getIndex());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            bits.clear();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return bits.isEmpty();
+        }
+
+        @Override
+        public int size() {
+            return bits.cardinality();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+
+                private int next = bits.nextSetBit(0);
+
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public E next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next;
+                    next = bits.nextSetBit(next + 1);
+                    return decoder.apply(last);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    bits.clear(last);
+                    last = -1;
+                }
+            };
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof BitSetView<?> that) {
+                return bits.equals(that.bits);
+            }
+            return super.equals(o);
+        }
+    }
+}
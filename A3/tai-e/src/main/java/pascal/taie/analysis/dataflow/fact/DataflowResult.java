@@ -22,48 +22,76 @@
 
 package pascal.taie.analysis.dataflow.fact;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import javax.annotation.Nullable;
+import java.util.function.Function;
 
 /**
  * An object which manages the data-flow facts associated with nodes.
+ * The subclasses decide how the facts are stored, see
+ * {@link MapDataflowResult} and {@link IndexedDataflowResult}.
  *
  * @param <Node> type of nodes
  * @param <Fact> type of data-flow facts
  */
-public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
+public abstract class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
 
-    private final Map<Node, Fact> inFacts = new LinkedHashMap<>();
-
-    private final Map<Node, Fact> outFacts = new LinkedHashMap<>();
+    /**
+     * If not null, the in facts have been discarded,
+     * and are derived from the out facts by this function.
+     */
+    @Nullable
+    private Function<Node, Fact> inFactDeriver;
 
     /**
      * @return the flowing-in fact of given node.
      */
     @Override
     public Fact getInFact(Node node) {
-        return inFacts.get(node);
+        return inFactDeriver != null ?
+                inFactDeriver.apply(node) : getStoredInFact(node);
     }
 
+    /**
+     * @return the flowing-in fact stored for given node.
+     */
+    protected abstract Fact getStoredInFact(Node node);
+
     /**
      * Associates a data-flow fact with a node as its flowing-in fact.
      */
-    public void setInFact(Node node, Fact fact) {
-        inFacts.put(node, fact);
-    }
+    public abstract void setInFact(Node node, Fact fact);
 
     /**
      * @return the flowing-out fact of given node.
      */
     @Override
-    public Fact getOutFact(Node node) {
-        return outFacts.get(node);
-    }
+    public abstract Fact getOutFact(Node node);
 
     /**
      * Associates a data-flow fact with a node as its flowing-out fact.
      */
-    public void setOutFact(Node node, Fact fact) {
-        outFacts.put(node, fact);
+    public abstract void setOutFact(Node node, Fact fact);
+
+    /**
+     * Discards the in facts kept in this result to save memory.
+     * After this call, {@link #getInFact(Object)} derives the in fact
+     * of a node from the out facts by {@code inFactDeriver} on each call,
+     * so the client code should not modify the returned facts.
+     */
+    public void keepOnlyOutFacts(Function<Node, Fact> inFactDeriver) {
+        discardInFacts();
+        this.inFactDeriver = inFactDeriver;
     }
+
+    /**
+     * Replaces each fact kept in this result by its canonical instance
+     * in given pool, so that the nodes with equal facts share one object.
+     * The client code should not modify the facts of this result afterwards.
+     */
+    public abstract void internFacts(FactPool<Fact> pool);
+
+    /**
+     * Releases the storage of in facts.
+     */
+    protected abstract void discardInFacts();
 }
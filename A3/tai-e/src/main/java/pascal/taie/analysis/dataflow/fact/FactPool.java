@@ -0,0 +1,95 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * A pool which canonicalizes equal data-flow facts to the same instance.
+ * After the facts of a {@link DataflowResult} are interned by the pool,
+ * the nodes whose facts are equal share one fact object, and the other
+ * copies can be garbage-collected.
+ * <p>
+ * The interned facts are shared by multiple nodes, and their hash codes
+ * are recorded by the pool, thus they must not be modified afterwards.
+ * The pool freezes the canonical {@link SetFact}s and {@link MapFact}s,
+ * so that modifying them throws {@link UnsupportedOperationException}.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+public class FactPool<Fact> {
+
+    private final Map<Fact, Fact> facts = Maps.newMap();
+
+    /**
+     * Number of the facts passed to {@link #intern(Object)}.
+     */
+    private int internedCount;
+
+    /**
+     * @return the canonical instance of the facts which equal to
+     * given fact. If given fact is null, returns null.
+     */
+    public Fact intern(@Nullable Fact fact) {
+        if (fact == null) {
+            return null;
+        }
+        ++internedCount;
+        Fact canonical = facts.putIfAbsent(fact, fact);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (fact instanceof SetFact<?> setFact) {
+            setFact.freeze();
+        } else if (fact instanceof MapFact<?, ?> mapFact) {
+            mapFact.freeze();
+        }
+        return fact;
+    }
+
+    /**
+     * @return the number of the (non-null) facts interned by this pool.
+     */
+    public int getInternedCount() {
+        return internedCount;
+    }
+
+    /**
+     * @return the number of the distinct facts in this pool.
+     */
+    public int getDistinctCount() {
+        return facts.size();
+    }
+
+    /**
+     * @return the deduplication ratio of this pool, i.e., the number of
+     * the interned facts divided by the number of the distinct facts.
+     * The ratio is 1 if no facts have been interned.
+     */
+    public double getDedupRatio() {
+        return facts.isEmpty() ? 1 : (double) internedCount / facts.size();
+    }
+}
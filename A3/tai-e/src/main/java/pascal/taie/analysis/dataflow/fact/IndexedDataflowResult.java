@@ -0,0 +1,100 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link DataflowResult} for nodes with dense indexes, e.g., the nodes
+ * of statement CFGs, which are indexed by {@link pascal.taie.ir.stmt.Stmt#getIndex()}.
+ * The facts are stored in arrays indexed by the nodes, which avoids
+ * the hash entries and linked-list nodes of {@link MapDataflowResult}.
+ *
+ * @param <Node> type of nodes
+ * @param <Fact> type of data-flow facts
+ */
+public class IndexedDataflowResult<Node, Fact> extends DataflowResult<Node, Fact> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    /**
+     * Maps a node to its index.
+     */
+    private final ToIntFunction<Node> indexer;
+
+    private Object[] inFacts;
+
+    private final Object[] outFacts;
+
+    /**
+     * @param indexer  maps a node to its index
+     * @param capacity number of the node indexes, i.e., all nodes
+     *                 are indexed in range [0, capacity).
+     */
+    public IndexedDataflowResult(ToIntFunction<Node> indexer, int capacity) {
+        this.indexer = indexer;
+        this.inFacts = new Object[capacity];
+        this.outFacts = new Object[capacity];
+    }
+
+    @Override
+    protected Fact getStoredInFact(Node node) {
+        return get(inFacts, node);
+    }
+
+    @Override
+    public void setInFact(Node node, Fact fact) {
+        inFacts[indexer.applyAsInt(node)] = fact;
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        return get(outFacts, node);
+    }
+
+    @Override
+    public void setOutFact(Node node, Fact fact) {
+        outFacts[indexer.applyAsInt(node)] = fact;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void internFacts(FactPool<Fact> pool) {
+        for (int i = 0; i < inFacts.length; ++i) {
+            inFacts[i] = pool.intern((Fact) inFacts[i]);
+        }
+        for (int i = 0; i < outFacts.length; ++i) {
+            outFacts[i] = pool.intern((Fact) outFacts[i]);
+        }
+    }
+
+    @Override
+    protected void discardInFacts() {
+        inFacts = EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Fact get(Object[] facts, Node node) {
+        return (Fact) facts[indexer.applyAsInt(node)];
+    }
+}
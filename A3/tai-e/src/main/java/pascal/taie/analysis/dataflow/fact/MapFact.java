@@ -24,6 +24,7 @@ package pascal.taie.analysis.dataflow.fact;
 
 import pascal.taie.util.collection.Maps;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.Objects;
@@ -45,13 +46,60 @@ public class MapFact<K, V> {
      */
     protected final Map<K, V> map;
 
+    /**
+     * Whether this fact is frozen, i.e., it may be shared
+     * and must not be modified.
+     */
+    private boolean frozen;
+
     /**
      * Constructs a new MapFact with the same mappings as specified Map.
      *
      * @param map the map whose mappings are to be placed in this map.
      */
     public MapFact(Map<K, V> map) {
-        this.map = Maps.newHybridMap(map);
+        this(map, true);
+    }
+
+    /**
+     * Constructs a new MapFact with given map. If {@code copy} is false,
+     * then the map is used as the underlying storage of this fact
+     * instead of being copied. This allows subclasses to provide
+     * specialized map representations.
+     *
+     * @param map  the map whose mappings are to be placed in this map.
+     * @param copy whether the mappings of the map are copied.
+     */
+    protected MapFact(Map<K, V> map, boolean copy) {
+        this.map = copy ? Maps.newHybridMap(map) : map;
+    }
+
+    /**
+     * Freezes this fact, after which the operations that modify
+     * this fact throw {@link UnsupportedOperationException}.
+     * The copies of a frozen fact are not frozen.
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * @return true if this fact is frozen, otherwise false.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Checks that this fact can be modified.
+     *
+     * @throws UnsupportedOperationException if this fact is frozen.
+     */
+    protected void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException(
+                    "Cannot modify frozen fact " + this);
+        }
     }
 
     /**
@@ -68,6 +116,7 @@ public class MapFact<K, V> {
      * @return if the update changes this fact.
      */
     public boolean update(K key, V value) {
+        checkMutable();
         return !Objects.equals(map.put(key, value), value);
     }
 
@@ -78,6 +127,7 @@ public class MapFact<K, V> {
      * or null if there was no mapping for key.
      */
     public V remove(K key) {
+        checkMutable();
         return map.remove(key);
     }
 
@@ -87,6 +137,7 @@ public class MapFact<K, V> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean copyFrom(MapFact<K, V> fact) {
+        checkMutable();
         boolean changed = false;
         for (Map.Entry<K, V> entry : fact.map.entrySet()) {
             changed |= update(entry.getKey(), entry.getValue());
@@ -105,14 +156,16 @@ public class MapFact<K, V> {
      * Clears all content in this fact.
      */
     public void clear() {
+        checkMutable();
         map.clear();
     }
 
     /**
-     * @return a {@link Set} view of the keys contained in this fact.
+     * @return an unmodifiable {@link Set} view of the keys contained
+     * in this fact.
      */
     public Set<K> keySet() {
-        return map.keySet();
+        return Collections.unmodifiableSet(map.keySet());
     }
 
     /**
@@ -26,7 +26,6 @@ import pascal.taie.util.collection.CollectionUtils;
 import pascal.taie.util.collection.Sets;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -40,12 +39,59 @@ public class SetFact<E> {
 
     protected final Set<E> set;
 
+    /**
+     * Whether this fact is frozen, i.e., it may be shared
+     * and must not be modified.
+     */
+    private boolean frozen;
+
     public SetFact(Collection<E> c) {
-        set = Sets.newHybridSet(c);
+        this(Sets.newHybridSet(c), false);
     }
 
     public SetFact() {
-        this(Collections.emptySet());
+        this(Sets.newHybridSet(), false);
+    }
+
+    /**
+     * Constructs a new SetFact with given set. If {@code copy} is false,
+     * then the set is used as the underlying storage of this fact
+     * instead of being copied. This allows subclasses to provide
+     * specialized set representations.
+     *
+     * @param set  the set whose elements are to be placed in this set.
+     * @param copy whether the elements of the set are copied.
+     */
+    protected SetFact(Set<E> set, boolean copy) {
+        this.set = copy ? Sets.newHybridSet(set) : set;
+    }
+
+    /**
+     * Freezes this fact, after which the operations that modify
+     * this fact throw {@link UnsupportedOperationException}.
+     * The copies of a frozen fact are not frozen.
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * @return true if this fact is frozen, otherwise false.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Checks that this fact can be modified.
+     *
+     * @throws UnsupportedOperationException if this fact is frozen.
+     */
+    protected void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException(
+                    "Cannot modify frozen fact " + this);
+        }
     }
 
     /**
@@ -61,6 +107,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean add(E e) {
+        checkMutable();
         return set.add(e);
     }
 
@@ -70,6 +117,7 @@ public class SetFact<E> {
      * @return true if an element was removed as a result of the call, otherwise false.
      */
     public boolean remove(E e) {
+        checkMutable();
         return set.remove(e);
     }
 
@@ -80,6 +128,7 @@ public class SetFact<E> {
      * otherwise false.
      */
     public boolean removeIf(Predicate<E> filter) {
+        checkMutable();
         return set.removeIf(filter);
     }
 
@@ -89,6 +138,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean union(SetFact<E> other) {
+        checkMutable();
         return set.addAll(other.set);
     }
 
@@ -107,6 +157,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean intersect(SetFact<E> other) {
+        checkMutable();
         return set.retainAll(other.set);
     }
 
@@ -138,6 +189,7 @@ public class SetFact<E> {
      * Clears all content in this fact.
      */
     public void clear() {
+        checkMutable();
         set.clear();
     }
 
@@ -0,0 +1,195 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.FactPool;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BasicBlockCFG;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only {@link NodeResult} which only stores the facts at the boundaries
+ * of basic blocks, i.e., the in fact of the first node and the out fact
+ * of the last node of each block.
+ * <p>
+ * The facts of the other nodes are recomputed from the block boundary
+ * facts by the node transfer of the analysis when they are queried.
+ * To make the queries of the nodes in the same block cheap, the facts
+ * of the most recently queried block are cached, thus this result is
+ * not thread-safe, and the client code should not modify the returned
+ * facts.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+class BlockDataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
+
+    private final DataflowAnalysis<Node, Fact> analysis;
+
+    private final BasicBlockCFG<Node> blockCFG;
+
+    private final Object[] blockInFacts;
+
+    private final Object[] blockOutFacts;
+
+    /**
+     * The block whose node facts are cached.
+     */
+    private BasicBlock<Node> cachedBlock;
+
+    /**
+     * Maps the nodes of {@link #cachedBlock} to their positions in the block.
+     */
+    private Map<Node, Integer> cachedPositions;
+
+    private Object[] cachedInFacts;
+
+    private Object[] cachedOutFacts;
+
+    BlockDataflowResult(DataflowAnalysis<Node, Fact> analysis,
+                        BasicBlockCFG<Node> blockCFG) {
+        this.analysis = analysis;
+        this.blockCFG = blockCFG;
+        int size = blockCFG.getNumberOfNodes();
+        this.blockInFacts = new Object[size];
+        this.blockOutFacts = new Object[size];
+    }
+
+    BasicBlockCFG<Node> getBlockCFG() {
+        return blockCFG;
+    }
+
+    /**
+     * @return the in fact of the first node of given block.
+     */
+    @SuppressWarnings("unchecked")
+    Fact getBlockInFact(BasicBlock<Node> block) {
+        return (Fact) blockInFacts[block.getIndex()];
+    }
+
+    void setBlockInFact(BasicBlock<Node> block, Fact fact) {
+        blockInFacts[block.getIndex()] = fact;
+    }
+
+    /**
+     * @return the out fact of the last node of given block.
+     */
+    @SuppressWarnings("unchecked")
+    Fact getBlockOutFact(BasicBlock<Node> block) {
+        return (Fact) blockOutFacts[block.getIndex()];
+    }
+
+    void setBlockOutFact(BasicBlock<Node> block, Fact fact) {
+        blockOutFacts[block.getIndex()] = fact;
+    }
+
+    /**
+     * @return the out facts of all blocks, without recomputing
+     * the facts of the nodes inside the blocks.
+     */
+    List<Object> getBlockOutFacts() {
+        return Arrays.asList(blockOutFacts);
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        return get(node, true);
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        return get(node, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Fact get(Node node, boolean isIn) {
+        BasicBlock<Node> block = blockCFG.getBlockOf(node);
+        if (block != cachedBlock) {
+            cache(block);
+        }
+        int position = cachedPositions.get(node);
+        return (Fact) (isIn ? cachedInFacts : cachedOutFacts)[position];
+    }
+
+    /**
+     * Recomputes the facts of the nodes in given block from the
+     * boundary facts of the block, and caches them.
+     */
+    private void cache(BasicBlock<Node> block) {
+        CFG<Node> cfg = blockCFG.getCFG();
+        List<Node> nodes = block.getNodes();
+        int size = nodes.size();
+        Object[] inFacts = new Object[size];
+        Object[] outFacts = new Object[size];
+        inFacts[0] = getBlockInFact(block);
+        outFacts[size - 1] = getBlockOutFact(block);
+        if (analysis.isForward()) {
+            for (int i = 0; i < size - 1; ++i) {
+                Fact out = analysis.newInitialFact(cfg);
+                analysis.transferNode(cfg, nodes.get(i), getFact(inFacts, i), out);
+                outFacts[i] = out;
+                inFacts[i + 1] = out;
+            }
+        } else {
+            for (int i = size - 1; i > 0; --i) {
+                Fact in = analysis.newInitialFact(cfg);
+                analysis.transferNode(cfg, nodes.get(i), in, getFact(outFacts, i));
+                inFacts[i] = in;
+                outFacts[i - 1] = in;
+            }
+        }
+        Map<Node, Integer> positions = Maps.newMap(size);
+        for (int i = 0; i < size; ++i) {
+            positions.put(nodes.get(i), i);
+        }
+        cachedBlock = block;
+        cachedPositions = positions;
+        cachedInFacts = inFacts;
+        cachedOutFacts = outFacts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Fact getFact(Object[] facts, int i) {
+        return (Fact) facts[i];
+    }
+
+    /**
+     * Interns the facts at the block boundaries. The recomputed facts
+     * of the nodes inside the blocks are not kept, thus not interned.
+     */
+    @SuppressWarnings("unchecked")
+    void internFacts(FactPool<Fact> pool) {
+        for (int i = 0; i < blockInFacts.length; ++i) {
+            blockInFacts[i] = pool.intern((Fact) blockInFacts[i]);
+            blockOutFacts[i] = pool.intern((Fact) blockOutFacts[i]);
+        }
+        cachedBlock = null;
+    }
+}
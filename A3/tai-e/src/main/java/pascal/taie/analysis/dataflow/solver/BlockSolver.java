@@ -0,0 +1,207 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.FactPool;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BasicBlockCFG;
+import pascal.taie.analysis.graph.cfg.CFG;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Work-list solver which iterates over the basic blocks of the CFG
+ * instead of the individual nodes. A block is transferred by chaining
+ * the node transfers of its nodes through two scratch facts, and only
+ * the facts at the block boundaries are kept, so that the work-list
+ * operations and the retained facts scale with the number of blocks.
+ * The facts of the nodes inside a block are recomputed on demand
+ * by {@link BlockDataflowResult}.
+ * <p>
+ * The work-list processes the blocks in reverse post-order of the
+ * block graph (of the reverse block graph for backward analyses).
+ * This solver requires the node transfer to compute the whole out
+ * (in) fact from the in (out) fact, regardless of the previous content
+ * of the out (in) fact, which holds for the analyses in this package.
+ */
+class BlockSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    BlockSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    public NodeResult<Node, Fact> solve(CFG<Node> cfg) {
+        long start = System.nanoTime();
+        BlockDataflowResult<Node, Fact> result = new BlockDataflowResult<>(
+                analysis, new BasicBlockCFG<>(cfg));
+        if (analysis.isForward()) {
+            new BlockTransfer(cfg).solveForward(result);
+        } else {
+            new BlockTransfer(cfg).solveBackward(result);
+        }
+        if (metrics != null) {
+            metrics.finish(result.getBlockOutFacts(), System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    /**
+     * The in facts of block results are always derived on demand,
+     * thus there is nothing to discard.
+     */
+    @Override
+    public void keepOnlyOutFacts(CFG<Node> cfg, NodeResult<Node, Fact> result) {
+    }
+
+    @Override
+    public void internFacts(NodeResult<Node, Fact> result, FactPool<Fact> pool) {
+        ((BlockDataflowResult<Node, Fact>) result).internFacts(pool);
+    }
+
+    /**
+     * Block results do not keep the facts of individual nodes,
+     * thus they are re-solved from scratch.
+     */
+    @Override
+    public NodeResult<Node, Fact> resolve(
+            CFG<Node> cfg, NodeResult<Node, Fact> result,
+            Collection<Node> changed) {
+        return solve(cfg);
+    }
+
+    /**
+     * Solves the data-flow problem on the blocks of a CFG, and holds
+     * the scratch facts for transferring the blocks of the CFG.
+     */
+    private class BlockTransfer {
+
+        private final CFG<Node> cfg;
+
+        private Fact scratch1;
+
+        private Fact scratch2;
+
+        private BlockTransfer(CFG<Node> cfg) {
+            this.cfg = cfg;
+        }
+
+        private void solveForward(BlockDataflowResult<Node, Fact> result) {
+            BasicBlockCFG<Node> blockCFG = result.getBlockCFG();
+            BasicBlock<Node> entry = blockCFG.getEntry();
+            Queue<BasicBlock<Node>> worklist = new PriorityWorkList<>(
+                    NodeOrder.reversePostOrder(blockCFG, entry, true));
+            result.setBlockOutFact(entry, analysis.newBoundaryFact(cfg));
+            for (BasicBlock<Node> block : blockCFG) {
+                if (block != entry) {
+                    result.setBlockInFact(block, analysis.newInitialFact(cfg));
+                    result.setBlockOutFact(block, analysis.newInitialFact(cfg));
+                    worklist.add(block);
+                }
+            }
+            while (!worklist.isEmpty()) {
+                BasicBlock<Node> block = poll(worklist);
+                Fact in = result.getBlockInFact(block);
+                for (BasicBlock<Node> pred : blockCFG.getPredsOf(block)) {
+                    analysis.meetInto(result.getBlockOutFact(pred), in);
+                }
+                if (transferForward(block, in, result.getBlockOutFact(block))) {
+                    worklist.addAll(blockCFG.getSuccsOf(block));
+                }
+            }
+        }
+
+        private void solveBackward(BlockDataflowResult<Node, Fact> result) {
+            BasicBlockCFG<Node> blockCFG = result.getBlockCFG();
+            BasicBlock<Node> exit = blockCFG.getExit();
+            Queue<BasicBlock<Node>> worklist = new PriorityWorkList<>(
+                    NodeOrder.reversePostOrder(blockCFG, exit, false));
+            result.setBlockInFact(exit, analysis.newBoundaryFact(cfg));
+            for (BasicBlock<Node> block : blockCFG) {
+                if (block != exit) {
+                    result.setBlockInFact(block, analysis.newInitialFact(cfg));
+                    result.setBlockOutFact(block, analysis.newInitialFact(cfg));
+                    worklist.add(block);
+                }
+            }
+            while (!worklist.isEmpty()) {
+                BasicBlock<Node> block = poll(worklist);
+                Fact out = result.getBlockOutFact(block);
+                for (BasicBlock<Node> succ : blockCFG.getSuccsOf(block)) {
+                    analysis.meetInto(result.getBlockInFact(succ), out);
+                }
+                if (transferBackward(block, result.getBlockInFact(block), out)) {
+                    worklist.addAll(blockCFG.getPredsOf(block));
+                }
+            }
+        }
+
+        /**
+         * Transfers the in fact of the first node of given block
+         * through the nodes of the block to the out fact of the last node.
+         *
+         * @return true if the transfer changed the out fact, otherwise false.
+         */
+        private boolean transferForward(BasicBlock<Node> block, Fact in, Fact out) {
+            List<Node> nodes = block.getNodes();
+            int last = nodes.size() - 1;
+            for (int i = 0; i < last; ++i) {
+                Fact next = nextScratch(in);
+                analysis.transferNode(cfg, nodes.get(i), in, next);
+                in = next;
+            }
+            return analysis.transferNode(cfg, nodes.get(last), in, out);
+        }
+
+        /**
+         * Transfers the out fact of the last node of given block
+         * through the nodes of the block to the in fact of the first node.
+         *
+         * @return true if the transfer changed the in fact, otherwise false.
+         */
+        private boolean transferBackward(BasicBlock<Node> block, Fact in, Fact out) {
+            List<Node> nodes = block.getNodes();
+            for (int i = nodes.size() - 1; i > 0; --i) {
+                Fact next = nextScratch(out);
+                analysis.transferNode(cfg, nodes.get(i), next, out);
+                out = next;
+            }
+            return analysis.transferNode(cfg, nodes.get(0), in, out);
+        }
+
+        /**
+         * @return a scratch fact which is not {@code current}.
+         */
+        private Fact nextScratch(Fact current) {
+            if (scratch1 == null) {
+                scratch1 = analysis.newInitialFact(cfg);
+                scratch2 = analysis.newInitialFact(cfg);
+            }
+            return current == scratch1 ? scratch2 : scratch1;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+
+/**
+ * A data-flow analysis which delegates to another analysis, and records
+ * the calls to the node transfer and meet functions in {@link SolverMetrics}.
+ */
+class MeteredAnalysis<Node, Fact> implements DataflowAnalysis<Node, Fact> {
+
+    private final DataflowAnalysis<Node, Fact> analysis;
+
+    private final SolverMetrics metrics;
+
+    MeteredAnalysis(DataflowAnalysis<Node, Fact> analysis, SolverMetrics metrics) {
+        this.analysis = analysis;
+        this.metrics = metrics;
+    }
+
+    SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public boolean isForward() {
+        return analysis.isForward();
+    }
+
+    @Override
+    public Fact newBoundaryFact(CFG<Node> cfg) {
+        return analysis.newBoundaryFact(cfg);
+    }
+
+    @Override
+    public Fact newInitialFact() {
+        return analysis.newInitialFact();
+    }
+
+    @Override
+    public Fact newInitialFact(CFG<Node> cfg) {
+        return analysis.newInitialFact(cfg);
+    }
+
+    @Override
+    public void meetInto(Fact fact, Fact target) {
+        metrics.recordMeet();
+        analysis.meetInto(fact, target);
+    }
+
+    @Override
+    public boolean transferNode(Node node, Fact in, Fact out) {
+        metrics.recordTransfer();
+        return analysis.transferNode(node, in, out);
+    }
+
+    @Override
+    public boolean transferNode(CFG<Node> cfg, Node node, Fact in, Fact out) {
+        metrics.recordTransfer();
+        return analysis.transferNode(cfg, node, in, out);
+    }
+
+    @Override
+    public boolean needTransferEdge(Edge<Node> edge) {
+        return analysis.needTransferEdge(edge);
+    }
+
+    @Override
+    public Fact transferEdge(Edge<Node> edge, Fact nodeFact) {
+        return analysis.transferEdge(edge, nodeFact);
+    }
+}
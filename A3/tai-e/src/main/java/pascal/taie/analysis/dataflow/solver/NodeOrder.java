@@ -0,0 +1,173 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.Graph;
+import pascal.taie.util.graph.MergedNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A total order of the nodes in a CFG, which assigns each node
+ * a position in [0, size()).
+ *
+ * @param <Node> type of CFG nodes
+ */
+class NodeOrder<Node> {
+
+    private final List<Node> nodes;
+
+    private final Map<Node, Integer> positions;
+
+    private NodeOrder(List<Node> nodes) {
+        this.nodes = nodes;
+        this.positions = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            positions.put(nodes.get(i), i);
+        }
+    }
+
+    /**
+     * Computes the reverse post-order of the nodes in given CFG.
+     * For forward analyses, the depth-first traversal starts from
+     * the entry and follows the successors; for backward analyses,
+     * it starts from the exit and follows the predecessors, i.e.,
+     * the result is the reverse post-order of the reverse CFG.
+     * The nodes that cannot be reached from the start node are
+     * also included in the resulting order.
+     */
+    static <Node> NodeOrder<Node> reversePostOrder(CFG<Node> cfg, boolean forward) {
+        return reversePostOrder(cfg, forward ? cfg.getEntry() : cfg.getExit(), forward);
+    }
+
+    /**
+     * Computes the reverse post-order of the nodes in given graph, where
+     * the depth-first traversal starts from {@code start}, and follows
+     * the successors if {@code forward} is true, otherwise follows the
+     * predecessors. The nodes that cannot be reached from the start node
+     * are also included in the resulting order.
+     */
+    static <Node> NodeOrder<Node> reversePostOrder(
+            Graph<Node> graph, Node start, boolean forward) {
+        Set<Node> allNodes = graph.getNodes();
+        List<Node> postOrder = new ArrayList<>(allNodes.size());
+        Set<Node> visited = Collections.newSetFromMap(Maps.newMap(allNodes.size()));
+        postOrder(graph, forward, start, visited, postOrder);
+        for (Node node : allNodes) {
+            if (!visited.contains(node)) {
+                postOrder(graph, forward, node, visited, postOrder);
+            }
+        }
+        Collections.reverse(postOrder);
+        return new NodeOrder<>(postOrder);
+    }
+
+    /**
+     * Orders the nodes component by component, where the components are
+     * given in topological order, and orders the nodes of each component
+     * by their positions in given order.
+     */
+    static <Node> NodeOrder<Node> componentOrder(
+            List<MergedNode<Node>> components, NodeOrder<Node> order) {
+        List<Node> nodes = new ArrayList<>(order.size());
+        for (MergedNode<Node> component : components) {
+            int start = nodes.size();
+            nodes.addAll(component.getNodes());
+            nodes.subList(start, nodes.size())
+                    .sort(Comparator.comparingInt(order::getPosition));
+        }
+        return new NodeOrder<>(nodes);
+    }
+
+    /**
+     * Performs an iterative depth-first traversal from given node,
+     * and appends the visited nodes to {@code postOrder} in post-order.
+     * The traversal does not recurse, so that it can handle very large CFGs.
+     */
+    private static <Node> void postOrder(
+            Graph<Node> graph, boolean forward, Node start,
+            Set<Node> visited, List<Node> postOrder) {
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        Deque<Iterator<Node>> iterStack = new ArrayDeque<>();
+        visited.add(start);
+        nodeStack.push(start);
+        iterStack.push(nextsOf(graph, forward, start));
+        while (!nodeStack.isEmpty()) {
+            Iterator<Node> nexts = iterStack.peek();
+            if (nexts.hasNext()) {
+                Node next = nexts.next();
+                if (visited.add(next)) {
+                    nodeStack.push(next);
+                    iterStack.push(nextsOf(graph, forward, next));
+                }
+            } else {
+                postOrder.add(nodeStack.pop());
+                iterStack.pop();
+            }
+        }
+    }
+
+    private static <Node> Iterator<Node> nextsOf(
+            Graph<Node> graph, boolean forward, Node node) {
+        return forward ? graph.getSuccsOf(node).iterator()
+                : graph.getPredsOf(node).iterator();
+    }
+
+    /**
+     * @return the position of given node in this order.
+     */
+    int getPosition(Node node) {
+        return positions.get(node);
+    }
+
+    /**
+     * @return the node at given position in this order.
+     */
+    Node getNode(int position) {
+        return nodes.get(position);
+    }
+
+    /**
+     * @return the nodes in this order.
+     */
+    List<Node> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * @return the number of the nodes in this order.
+     */
+    int size() {
+        return nodes.size();
+    }
+}
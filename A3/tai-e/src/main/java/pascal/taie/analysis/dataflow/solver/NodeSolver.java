@@ -0,0 +1,432 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.FactPool;
+import pascal.taie.analysis.dataflow.fact.IndexedDataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapDataflowResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CompactCFG;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Base class for the solvers which keep the in and out facts of
+ * every CFG node in a {@link DataflowResult}. Subclasses only decide
+ * the order in which the nodes are visited.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+abstract class NodeSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    protected NodeSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    /**
+     * Starts this solver on the given CFG.
+     *
+     * @param cfg control-flow graph where the analysis is performed on
+     * @return the analysis result, which is a {@link DataflowResult}
+     */
+    @Override
+    public NodeResult<Node, Fact> solve(CFG<Node> cfg) {
+        long start = System.nanoTime();
+        DataflowResult<Node, Fact> result = initialize(cfg);
+        doSolve(cfg, result);
+        if (metrics != null) {
+            metrics.finish(cfg.getNodes().stream()
+                    .map(result::getOutFact)
+                    .toList(), System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    /**
+     * Creates and initializes a new data-flow result for given CFG.
+     *
+     * @return the initialized data-flow result
+     */
+    private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
+        DataflowResult<Node, Fact> result = newResult(cfg);
+        if (analysis.isForward()) {
+            initializeForward(cfg, result);
+        } else {
+            initializeBackward(cfg, result);
+        }
+        return result;
+    }
+
+    /**
+     * Creates an empty data-flow result for given CFG. For statement CFGs,
+     * the result stores facts in arrays indexed by {@link Stmt#getIndex()}.
+     */
+    private DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Stmt) {
+            // entry and exit of statement CFGs are indexed
+            // right after the statements of IR
+            return new IndexedDataflowResult<>(
+                    node -> ((Stmt) node).getIndex(),
+                    cfg.getIR().getStmts().size() + 2);
+        }
+        return new MapDataflowResult<>();
+    }
+
+    protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        result.setOutFact(cfg.getEntry(), analysis.newBoundaryFact(cfg));
+        for (Node node : cfg) {
+            if (node.equals(cfg.getEntry())) {
+                continue;
+            }
+            result.setInFact(node, analysis.newInitialFact(cfg));
+            result.setOutFact(node, analysis.newInitialFact(cfg));
+        }
+    }
+
+    protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        result.setInFact(cfg.getExit(), analysis.newBoundaryFact(cfg));
+        for (Node node : cfg) {
+            if (node.equals(cfg.getExit())) {
+                continue;
+            }
+            result.setInFact(node, analysis.newInitialFact(cfg));
+            result.setOutFact(node, analysis.newInitialFact(cfg));
+        }
+    }
+
+    /**
+     * Discards the in facts of given result, which was computed by this
+     * solver on given CFG. Afterwards, the in fact of a node is derived
+     * from the out facts on each query: by meeting the out facts of its
+     * predecessors for forward analyses, or by applying the node transfer
+     * to its out fact for backward analyses.
+     */
+    @Override
+    public void keepOnlyOutFacts(CFG<Node> cfg, NodeResult<Node, Fact> nodeResult) {
+        DataflowResult<Node, Fact> result = (DataflowResult<Node, Fact>) nodeResult;
+        if (analysis.isForward()) {
+            Fact entryIn = result.getInFact(cfg.getEntry());
+            result.keepOnlyOutFacts(node -> {
+                if (cfg.isEntry(node)) {
+                    return entryIn;
+                }
+                Fact in = analysis.newInitialFact(cfg);
+                for (Node pred : cfg.getPredsOf(node)) {
+                    analysis.meetInto(result.getOutFact(pred), in);
+                }
+                return in;
+            });
+        } else {
+            Fact exitIn = result.getInFact(cfg.getExit());
+            result.keepOnlyOutFacts(node -> {
+                if (cfg.isExit(node)) {
+                    return exitIn;
+                }
+                Fact in = analysis.newInitialFact(cfg);
+                analysis.transferNode(cfg, node, in, result.getOutFact(node));
+                return in;
+            });
+        }
+    }
+
+    /**
+     * Replaces the facts kept in given result, which was computed by this
+     * solver, by their canonical instances in given pool.
+     *
+     * @see DataflowResult#internFacts(FactPool)
+     */
+    @Override
+    public void internFacts(NodeResult<Node, Fact> result, FactPool<Fact> pool) {
+        ((DataflowResult<Node, Fact>) result).internFacts(pool);
+    }
+
+    /**
+     * Updates the result which was computed on given CFG, after the nodes
+     * in {@code changed} are modified, e.g., the statements are replaced
+     * by the ones with different right-hand sides. The CFG must have the
+     * same edges as when the result was computed, and the nodes which
+     * are not changed must be associated with the same facts in the result.
+     * <p>
+     * The work-list starts with the changed nodes only, and the facts of
+     * a node are recomputed from the facts of its neighbours, so that the
+     * updates are propagated only while the facts change. As the facts
+     * of a loop may be held down by the stale facts on its back edges,
+     * a loop (strongly connected component) is reset to the initial facts
+     * and re-solved if it contains a changed node, or if a fact flowing
+     * into it moves up the lattice. Thus, the resulting facts are the same
+     * as solving the modified CFG from scratch, and the number of the node
+     * visits is proportional to the number of the facts that change
+     * (plus the sizes of the reset loops), instead of the size of the CFG.
+     * The facts in the given result are replaced instead of being modified,
+     * thus they can be shared, e.g., interned by a {@link FactPool}.
+     * The given result must keep its in facts,
+     * i.e., {@link #keepOnlyOutFacts} has not been applied to it.
+     *
+     * @return the updated result, which is {@code result} itself.
+     */
+    @Override
+    public NodeResult<Node, Fact> resolve(
+            CFG<Node> cfg, NodeResult<Node, Fact> nodeResult,
+            Collection<Node> changed) {
+        DataflowResult<Node, Fact> result = (DataflowResult<Node, Fact>) nodeResult;
+        new Resolver(cfg, result, changed).resolve();
+        return result;
+    }
+
+    /**
+     * Solves the data-flow problem for given CFG.
+     */
+    private void doSolve(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        if (analysis.isForward()) {
+            doSolveForward(cfg, result);
+        } else {
+            doSolveBackward(cfg, result);
+        }
+    }
+
+    protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+
+    protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+
+    /**
+     * Updates a data-flow result after some nodes of its CFG are changed.
+     * The nodes are visited component by component in topological order
+     * (reverse topological order for backward analyses), so that the facts
+     * flowing into a component are stable when it is visited. The input
+     * (output) of a node refers to its in (out) fact for forward analyses,
+     * and its out (in) fact for backward analyses.
+     */
+    private class Resolver {
+
+        private final CFG<Node> cfg;
+
+        private final DataflowResult<Node, Fact> result;
+
+        private final Set<Node> changed;
+
+        private final boolean forward;
+
+        private final CompactCFG<Node> graph;
+
+        private final Map<Node, MergedNode<Node>> componentOf;
+
+        private final Queue<Node> worklist;
+
+        /**
+         * The outputs of the nodes before resolving, which are recorded
+         * when the outputs are replaced for the first time.
+         */
+        private final Map<Node, Fact> oldOutputs = Maps.newMap();
+
+        private Resolver(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                         Collection<Node> changed) {
+            this.cfg = cfg;
+            this.result = result;
+            this.changed = Sets.newSet(changed.size());
+            this.changed.addAll(changed);
+            this.forward = analysis.isForward();
+            this.graph = CompactCFG.of(cfg);
+            List<MergedNode<Node>> components = new TopoSorter<>(
+                    new MergedSCCGraph<>(cfg), !forward).get();
+            this.componentOf = Maps.newMap(cfg.getNumberOfNodes());
+            for (MergedNode<Node> component : components) {
+                for (Node node : component.getNodes()) {
+                    componentOf.put(node, component);
+                }
+            }
+            this.worklist = new PriorityWorkList<>(NodeOrder.componentOrder(
+                    components, NodeOrder.reversePostOrder(cfg, forward)));
+        }
+
+        private void resolve() {
+            for (Node node : changed) {
+                if (!isBoundary(node)) {
+                    worklist.add(node);
+                }
+            }
+            MergedNode<Node> current = null;
+            while (!worklist.isEmpty()) {
+                Node node = poll(worklist);
+                MergedNode<Node> component = componentOf.get(node);
+                if (component != current) {
+                    // all components before the current one are stable
+                    current = component;
+                    if (isLoop(component) && needReset(component)) {
+                        reset(component);
+                        continue;
+                    }
+                }
+                int i = graph.getIndex(node);
+                Fact input = analysis.newInitialFact(cfg);
+                if (forward) {
+                    for (int k = graph.getPredStart(i); k < graph.getPredEnd(i); ++k) {
+                        analysis.meetInto(result.getOutFact(graph.getNode(graph.getPred(k))), input);
+                    }
+                } else {
+                    for (int k = graph.getSuccStart(i); k < graph.getSuccEnd(i); ++k) {
+                        analysis.meetInto(result.getInFact(graph.getNode(graph.getSucc(k))), input);
+                    }
+                }
+                Fact oldOutput = getOutput(node);
+                Fact output = copyOf(oldOutput);
+                boolean updated = forward
+                        ? analysis.transferNode(cfg, node, input, output)
+                        : analysis.transferNode(cfg, node, output, input);
+                setInput(node, input);
+                if (!updated) {
+                    continue;
+                }
+                setOutput(node, output);
+                oldOutputs.putIfAbsent(node, oldOutput);
+                addNexts(node, null);
+            }
+        }
+
+        /**
+         * @return true if given loop must be reset, i.e., it contains
+         * a changed node, whose fact may move up once the contribution
+         * of the old node is removed from the loop, or an output of
+         * a node outside the loop, which flows into the loop, has moved
+         * up the lattice.
+         */
+        private boolean needReset(MergedNode<Node> loop) {
+            for (Node node : loop.getNodes()) {
+                if (changed.contains(node)) {
+                    return true;
+                }
+                int i = graph.getIndex(node);
+                int start = forward ? graph.getPredStart(i) : graph.getSuccStart(i);
+                int end = forward ? graph.getPredEnd(i) : graph.getSuccEnd(i);
+                for (int k = start; k < end; ++k) {
+                    Node prev = graph.getNode(forward ? graph.getPred(k) : graph.getSucc(k));
+                    Fact oldOutput = oldOutputs.get(prev);
+                    if (componentOf.get(prev) != loop && oldOutput != null
+                            && !isBelow(getOutput(prev), oldOutput)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Resets the facts of the nodes in given loop to the initial facts,
+         * and adds the nodes and the nodes after the loop to the work-list.
+         * The nodes after the loop are added as the final outputs of the
+         * loop may equal the initial facts, which are not seen as updates.
+         */
+        private void reset(MergedNode<Node> loop) {
+            for (Node node : loop.getNodes()) {
+                oldOutputs.putIfAbsent(node, getOutput(node));
+                setInput(node, analysis.newInitialFact(cfg));
+                setOutput(node, analysis.newInitialFact(cfg));
+                worklist.add(node);
+                addNexts(node, loop);
+            }
+        }
+
+        /**
+         * Adds the successors (predecessors for backward analyses) of given
+         * node to the work-list, except the ones in {@code excluded}.
+         */
+        private void addNexts(Node node, @Nullable MergedNode<Node> excluded) {
+            int i = graph.getIndex(node);
+            int start = forward ? graph.getSuccStart(i) : graph.getPredStart(i);
+            int end = forward ? graph.getSuccEnd(i) : graph.getPredEnd(i);
+            for (int k = start; k < end; ++k) {
+                Node next = graph.getNode(forward ? graph.getSucc(k) : graph.getPred(k));
+                if (componentOf.get(next) != excluded) {
+                    worklist.add(next);
+                }
+            }
+        }
+
+        private boolean isBoundary(Node node) {
+            return forward ? cfg.isEntry(node) : cfg.isExit(node);
+        }
+
+        /**
+         * @return true if given component is a loop, i.e., it has
+         * more than one node, or its node has an edge to itself.
+         */
+        private boolean isLoop(MergedNode<Node> component) {
+            List<Node> nodes = component.getNodes();
+            return nodes.size() > 1 || cfg.hasEdge(nodes.get(0), nodes.get(0));
+        }
+
+        /**
+         * @return true if {@code fact} is below or equal to {@code other}
+         * in the lattice, i.e., the meet of them equals {@code fact}.
+         */
+        private boolean isBelow(Fact fact, Fact other) {
+            Fact meet = copyOf(fact);
+            analysis.meetInto(other, meet);
+            return meet.equals(fact);
+        }
+
+        /**
+         * @return a new fact which equals given fact, i.e., the meet of
+         * the initial fact (the top of the lattice) and given fact.
+         */
+        private Fact copyOf(Fact fact) {
+            Fact copy = analysis.newInitialFact(cfg);
+            analysis.meetInto(fact, copy);
+            return copy;
+        }
+
+        private Fact getOutput(Node node) {
+            return forward ? result.getOutFact(node) : result.getInFact(node);
+        }
+
+        private void setOutput(Node node, Fact fact) {
+            if (forward) {
+                result.setOutFact(node, fact);
+            } else {
+                result.setInFact(node, fact);
+            }
+        }
+
+        private void setInput(Node node, Fact fact) {
+            if (forward) {
+                result.setInFact(node, fact);
+            } else {
+                result.setOutFact(node, fact);
+            }
+        }
+    }
+}
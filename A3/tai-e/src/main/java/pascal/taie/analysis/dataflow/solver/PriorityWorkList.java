@@ -0,0 +1,124 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import java.util.AbstractQueue;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A work-list which always polls the pending node that comes first
+ * in a given {@link NodeOrder}. Pending nodes are recorded by their
+ * positions in a bit set, thus adding a node that is already in
+ * the work-list has no effect, and membership check takes O(1) time.
+ *
+ * @param <Node> type of CFG nodes
+ */
+class PriorityWorkList<Node> extends AbstractQueue<Node> {
+
+    private final NodeOrder<Node> order;
+
+    private final BitSet pending;
+
+    PriorityWorkList(NodeOrder<Node> order) {
+        this.order = order;
+        this.pending = new BitSet(order.size());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        @SuppressWarnings("unchecked")
+        Node node = (Node) o;
+        return pending.get(order.getPosition(node));
+    }
+
+    /**
+     * Adds given node to this work-list.
+     *
+     * @return true if the node was not in this work-list, otherwise false.
+     */
+    @Override
+    public boolean add(Node node) {
+        return offer(node);
+    }
+
+    @Override
+    public boolean offer(Node node) {
+        int position = order.getPosition(node);
+        if (pending.get(position)) {
+            return false;
+        }
+        pending.set(position);
+        return true;
+    }
+
+    @Override
+    public Node poll() {
+        int position = pending.nextSetBit(0);
+        if (position < 0) {
+            return null;
+        }
+        pending.clear(position);
+        return order.getNode(position);
+    }
+
+    @Override
+    public Node peek() {
+        int position = pending.nextSetBit(0);
+        return position < 0 ? null : order.getNode(position);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return pending.cardinality();
+    }
+
+    @Override
+    public Iterator<Node> iterator() {
+        return new Iterator<>() {
+
+            private int next = pending.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Node next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                Node node = order.getNode(next);
+                next = pending.nextSetBit(next + 1);
+                return node;
+            }
+        };
+    }
+}
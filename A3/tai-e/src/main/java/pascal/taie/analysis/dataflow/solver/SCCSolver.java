@@ -0,0 +1,261 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CompactCFG;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Solver which follows the loop structure of the CFG, i.e., the
+ * recursive iteration strategy over a weak topological order
+ * (Bourdoncle, 1993).
+ * <p>
+ * The weak topological order is built by decomposing the CFG
+ * (the reverse CFG for backward analyses) into strongly connected
+ * components in topological order. In each component which is a loop,
+ * the node that comes first in reverse post-order is the head, and the
+ * rest of the component is decomposed in the same way, so the nested
+ * loops become nested components. The solver visits the elements in
+ * this order, and stabilizes a loop by iterating over its head and
+ * body until the head does not change. As an inner loop is stabilized
+ * before the nodes after it in the outer loop are visited, these nodes
+ * are not visited with the facts of an unstable inner loop, which the
+ * work-list solvers may do when the nodes after the inner loop come
+ * before its body in reverse post-order.
+ * <p>
+ * Like the work-list solvers, a node is only visited when the facts
+ * flowing into it may have changed since its last visit.
+ * The adjacency of the CFG is accessed via {@link CompactCFG}.
+ */
+class SCCSolver<Node, Fact> extends NodeSolver<Node, Fact> {
+
+    SCCSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        new Iteration(cfg, result, true).solve();
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        new Iteration(cfg, result, false).solve();
+    }
+
+    /**
+     * An element of a weak topological order, i.e., a node (by its index
+     * in {@link CompactCFG}), or a loop component whose head is the node.
+     */
+    private static class Element {
+
+        private final int node;
+
+        /**
+         * Elements of the loop after the head,
+         * or null if this element is not a loop.
+         */
+        @Nullable
+        private final List<Element> body;
+
+        private Element(int node, @Nullable List<Element> body) {
+            this.node = node;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Holds the states of solving a CFG. The input (output) of a node
+     * refers to its in (out) fact for forward analyses, and its out (in)
+     * fact for backward analyses.
+     */
+    private class Iteration {
+
+        private final CFG<Node> cfg;
+
+        private final DataflowResult<Node, Fact> result;
+
+        private final boolean forward;
+
+        private final CompactCFG<Node> graph;
+
+        /**
+         * Positions of the nodes (by index) in reverse post-order.
+         */
+        private final int[] positions;
+
+        /**
+         * Nodes (by index) whose inputs may have changed
+         * since their last visits.
+         */
+        private final BitSet pending;
+
+        private Iteration(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                          boolean forward) {
+            this.cfg = cfg;
+            this.result = result;
+            this.forward = forward;
+            this.graph = CompactCFG.of(cfg);
+            int n = graph.getNumberOfNodes();
+            NodeOrder<Node> order = NodeOrder.reversePostOrder(cfg, forward);
+            this.positions = new int[n];
+            for (int i = 0; i < n; ++i) {
+                positions[i] = order.getPosition(graph.getNode(i));
+            }
+            this.pending = new BitSet(n);
+            Node boundary = forward ? cfg.getEntry() : cfg.getExit();
+            for (int i = 0; i < n; ++i) {
+                if (!graph.getNode(i).equals(boundary)) {
+                    pending.set(i);
+                }
+            }
+        }
+
+        private void solve() {
+            SimpleGraph<Integer> flowGraph = new SimpleGraph<>();
+            for (int i = 0; i < graph.getNumberOfNodes(); ++i) {
+                flowGraph.addNode(i);
+            }
+            for (int i = 0; i < graph.getNumberOfNodes(); ++i) {
+                for (int k = getNextStart(i); k < getNextEnd(i); ++k) {
+                    flowGraph.addEdge(i, getNext(k));
+                }
+            }
+            solve(buildOrder(flowGraph));
+        }
+
+        /**
+         * @return the weak topological order of given graph.
+         */
+        private List<Element> buildOrder(SimpleGraph<Integer> flowGraph) {
+            List<MergedNode<Integer>> components = new TopoSorter<>(
+                    new MergedSCCGraph<>(flowGraph)).get();
+            List<Element> elements = new ArrayList<>(components.size());
+            for (MergedNode<Integer> component : components) {
+                List<Integer> nodes = component.getNodes();
+                int head = nodes.get(0);
+                for (int node : nodes) {
+                    if (positions[node] < positions[head]) {
+                        head = node;
+                    }
+                }
+                if (nodes.size() == 1 && !flowGraph.hasEdge(head, head)) {
+                    elements.add(new Element(head, null));
+                    continue;
+                }
+                // the body of the loop is the component without its head
+                SimpleGraph<Integer> body = new SimpleGraph<>();
+                for (int node : nodes) {
+                    if (node != head) {
+                        body.addNode(node);
+                    }
+                }
+                for (int node : nodes) {
+                    if (node == head) {
+                        continue;
+                    }
+                    for (int next : flowGraph.getSuccsOf(node)) {
+                        if (next != head && body.hasNode(next)) {
+                            body.addEdge(node, next);
+                        }
+                    }
+                }
+                elements.add(new Element(head, buildOrder(body)));
+            }
+            return elements;
+        }
+
+        /**
+         * Visits given elements in order, and stabilizes the loops.
+         */
+        private void solve(List<Element> elements) {
+            for (Element element : elements) {
+                if (element.body == null) {
+                    visitIfPending(element.node);
+                } else {
+                    do {
+                        visitIfPending(element.node);
+                        solve(element.body);
+                    } while (pending.get(element.node));
+                }
+            }
+        }
+
+        private void visitIfPending(int i) {
+            if (!pending.get(i)) {
+                return;
+            }
+            pending.clear(i);
+            Node node = graph.getNode(i);
+            if (metrics != null) {
+                metrics.recordVisit(node, pending.cardinality() + 1);
+            }
+            boolean changed;
+            if (forward) {
+                Fact in = result.getInFact(node);
+                for (int k = graph.getPredStart(i); k < graph.getPredEnd(i); ++k) {
+                    analysis.meetInto(result.getOutFact(graph.getNode(graph.getPred(k))), in);
+                }
+                changed = analysis.transferNode(cfg, node, in, result.getOutFact(node));
+            } else {
+                Fact out = result.getOutFact(node);
+                for (int k = graph.getSuccStart(i); k < graph.getSuccEnd(i); ++k) {
+                    analysis.meetInto(result.getInFact(graph.getNode(graph.getSucc(k))), out);
+                }
+                changed = analysis.transferNode(cfg, node, result.getInFact(node), out);
+            }
+            if (changed) {
+                for (int k = getNextStart(i); k < getNextEnd(i); ++k) {
+                    pending.set(getNext(k));
+                }
+            }
+        }
+
+        /**
+         * The next nodes of a node are its successors for forward
+         * analyses, and its predecessors for backward analyses.
+         */
+        private int getNextStart(int i) {
+            return forward ? graph.getSuccStart(i) : graph.getPredStart(i);
+        }
+
+        private int getNextEnd(int i) {
+            return forward ? graph.getSuccEnd(i) : graph.getPredEnd(i);
+        }
+
+        private int getNext(int k) {
+            return forward ? graph.getSucc(k) : graph.getPred(k);
+        }
+    }
+}
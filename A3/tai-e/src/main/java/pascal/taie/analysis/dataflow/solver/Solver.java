@@ -23,8 +23,14 @@
 package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.FactPool;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.ConfigException;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Queue;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -37,8 +43,16 @@ public abstract class Solver<Node, Fact> {
 
     protected final DataflowAnalysis<Node, Fact> analysis;
 
+    /**
+     * If not null, the solver records its metrics in this object.
+     */
+    @Nullable
+    protected final SolverMetrics metrics;
+
     protected Solver(DataflowAnalysis<Node, Fact> analysis) {
         this.analysis = analysis;
+        this.metrics = analysis instanceof MeteredAnalysis<Node, Fact> metered
+                ? metered.getMetrics() : null;
     }
 
     /**
@@ -50,64 +64,98 @@ public abstract class Solver<Node, Fact> {
     }
 
     /**
-     * Starts this solver on the given CFG.
+     * Static factory method to create a new solver of given kind
+     * for given analysis. Available kinds are:
+     * <ul>
+     *     <li>worklist: work-list solver which processes nodes in FIFO order</li>
+     *     <li>rpo-worklist: work-list solver which processes nodes in
+     *     reverse post-order (reverse post-order of the reverse CFG
+     *     for backward analyses)</li>
+     *     <li>block: work-list solver which iterates over basic blocks,
+     *     and only keeps the facts at the block boundaries</li>
+     *     <li>scc: solver which follows a weak topological order of the CFG,
+     *     i.e., its recursively decomposed strongly connected components,
+     *     and stabilizes the inner loops before the outer ones</li>
+     * </ul>
+     * If {@code kind} is null, then the default solver is returned.
      *
-     * @param cfg control-flow graph where the analysis is performed on
-     * @return the analysis result
+     * @throws ConfigException if {@code kind} is unknown
      */
-    public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = initialize(cfg);
-        doSolve(cfg, result);
-        return result;
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, @Nullable String kind) {
+        if (kind == null) {
+            return makeSolver(analysis);
+        }
+        return switch (kind) {
+            case "worklist" -> new WorkListSolver<>(analysis, false);
+            case "rpo-worklist" -> new WorkListSolver<>(analysis, true);
+            case "block" -> new BlockSolver<>(analysis);
+            case "scc" -> new SCCSolver<>(analysis);
+            default -> throw new ConfigException("Unknown data-flow solver: " + kind);
+        };
     }
 
     /**
-     * Creates and initializes a new data-flow result for given CFG.
+     * Static factory method to create a new solver of given kind, which
+     * solves given analysis on one CFG and records the metrics of solving.
      *
-     * @return the initialized data-flow result
+     * @see #makeSolver(DataflowAnalysis, String)
      */
-    private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
-        if (analysis.isForward()) {
-            initializeForward(cfg, result);
-        } else {
-            initializeBackward(cfg, result);
-        }
-        return result;
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, @Nullable String kind,
+            SolverMetrics metrics) {
+        return makeSolver(new MeteredAnalysis<>(analysis, metrics), kind);
     }
 
-    protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        result.setOutFact(cfg.getEntry(), analysis.newBoundaryFact(cfg));
-        for (Node node : cfg) {
-            if (node.equals(cfg.getEntry())) {
-                continue;
-            }
-            result.setOutFact(node, analysis.newInitialFact());
-        }
-    }
+    /**
+     * Starts this solver on the given CFG.
+     *
+     * @param cfg control-flow graph where the analysis is performed on
+     * @return the analysis result
+     */
+    public abstract NodeResult<Node, Fact> solve(CFG<Node> cfg);
 
-    protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        result.setInFact(cfg.getExit(), analysis.newBoundaryFact(cfg));
-        for (Node node : cfg) {
-            if (node.equals(cfg.getExit())) {
-                continue;
-            }
-            result.setInFact(node, analysis.newInitialFact());
-        }
-    }
+    /**
+     * Discards the in facts of given result, which was computed by this
+     * solver on given CFG, if the result keeps them. Afterwards, the in
+     * facts are derived from the out facts on each query.
+     */
+    public abstract void keepOnlyOutFacts(CFG<Node> cfg, NodeResult<Node, Fact> result);
 
     /**
-     * Solves the data-flow problem for given CFG.
+     * Replaces the facts kept in given result, which was computed by this
+     * solver, by their canonical instances in given pool.
      */
-    private void doSolve(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        if (analysis.isForward()) {
-            doSolveForward(cfg, result);
-        } else {
-            doSolveBackward(cfg, result);
-        }
-    }
+    public abstract void internFacts(NodeResult<Node, Fact> result, FactPool<Fact> pool);
 
-    protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    /**
+     * Updates the result which was computed on given CFG, after the nodes
+     * in {@code changed} are modified, e.g., the statements are replaced
+     * by the ones with different right-hand sides. The CFG must have the
+     * same edges as when the result was computed, and the nodes which
+     * are not changed must be associated with the same facts in the result.
+     * The resulting facts are the same as solving the modified CFG
+     * from scratch. The given result must keep its in facts,
+     * i.e., {@link #keepOnlyOutFacts} has not been applied to it.
+     *
+     * @return the updated result, which is {@code result} itself for
+     * the solvers that update the result in place.
+     */
+    public abstract NodeResult<Node, Fact> resolve(
+            CFG<Node> cfg, NodeResult<Node, Fact> result,
+            Collection<Node> changed);
 
-    protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    /**
+     * Retrieves and removes the head of given work-list,
+     * and records the visit if the metrics are enabled.
+     */
+    protected <T> T poll(Queue<T> worklist) {
+        if (metrics != null) {
+            int size = worklist.size();
+            T node = worklist.poll();
+            metrics.recordVisit(node, size);
+            return node;
+        }
+        return worklist.poll();
+    }
 }
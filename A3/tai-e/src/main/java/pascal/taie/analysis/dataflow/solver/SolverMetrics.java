@@ -0,0 +1,243 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+
+/**
+ * Metrics of solving a data-flow analysis on a CFG, which are recorded
+ * by the solver when the analysis enables the metrics. The metrics of
+ * a method are stored in its IR with key {@link #getKey(String)}.
+ * Each object is only used by the thread which solves the method.
+ */
+public class SolverMetrics {
+
+    private final String analysis;
+
+    private final String method;
+
+    private final int nodes;
+
+    private int visits;
+
+    private long transfers;
+
+    private long meets;
+
+    private int maxWorkListSize;
+
+    /**
+     * Number of visits of each node.
+     */
+    private final Map<Object, Integer> nodeVisits = Maps.newMap();
+
+    private int iterations;
+
+    private int maxFactSize;
+
+    private double avgFactSize;
+
+    private double time;
+
+    private int internedFacts;
+
+    private int distinctFacts;
+
+    /**
+     * Whether the solving has finished. The node transfers and meets
+     * after that, e.g., for deriving facts on demand, are not recorded.
+     */
+    private boolean finished;
+
+    public SolverMetrics(String analysis, CFG<?> cfg) {
+        this.analysis = analysis;
+        this.method = cfg.getMethod().toString();
+        this.nodes = cfg.getNumberOfNodes();
+    }
+
+    /**
+     * @return the key of the solver metrics of given analysis in the IR.
+     */
+    public static String getKey(String analysisId) {
+        return analysisId + "-solver-metrics";
+    }
+
+    void recordVisit(Object node, int workListSize) {
+        ++visits;
+        maxWorkListSize = Math.max(maxWorkListSize, workListSize);
+        iterations = Math.max(iterations, nodeVisits.merge(node, 1, Integer::sum));
+    }
+
+    void recordTransfer() {
+        if (!finished) {
+            ++transfers;
+        }
+    }
+
+    void recordMeet() {
+        if (!finished) {
+            ++meets;
+        }
+    }
+
+    /**
+     * Records the time of solving, and the sizes of given out facts.
+     * The sizes are only available for {@link SetFact}s and
+     * {@link MapFact}s. The solvers pass the facts that they keep,
+     * e.g., the block solver passes only the out facts of the blocks,
+     * so that recording the metrics does not recompute the facts
+     * inside the blocks.
+     */
+    void finish(Iterable<?> outFacts, long nanoTime) {
+        finished = true;
+        time = nanoTime / 1_000_000.0;
+        long totalSize = 0;
+        int count = 0;
+        for (Object fact : outFacts) {
+            int size;
+            if (fact instanceof SetFact<?> setFact) {
+                size = setFact.size();
+            } else if (fact instanceof MapFact<?, ?> mapFact) {
+                size = mapFact.keySet().size();
+            } else {
+                continue;
+            }
+            maxFactSize = Math.max(maxFactSize, size);
+            totalSize += size;
+            ++count;
+        }
+        avgFactSize = count == 0 ? 0 : (double) totalSize / count;
+        nodeVisits.clear();
+    }
+
+    /**
+     * Records the numbers of the facts interned after solving,
+     * see {@link pascal.taie.analysis.dataflow.fact.FactPool}.
+     */
+    public void recordInternedFacts(int interned, int distinct) {
+        internedFacts = interned;
+        distinctFacts = distinct;
+    }
+
+    /**
+     * @return ID of the analysis.
+     */
+    public String getAnalysis() {
+        return analysis;
+    }
+
+    /**
+     * @return signature of the analyzed method.
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return number of the nodes in the CFG.
+     */
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return number of the nodes (or blocks for the block solver)
+     * polled from the work-lists.
+     */
+    public int getVisits() {
+        return visits;
+    }
+
+    /**
+     * @return number of the calls to the node transfer function.
+     */
+    public long getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * @return number of the calls to the meet function.
+     */
+    public long getMeets() {
+        return meets;
+    }
+
+    /**
+     * @return the maximum size of the work-lists.
+     */
+    public int getMaxWorkListSize() {
+        return maxWorkListSize;
+    }
+
+    /**
+     * @return the maximum number of visits of a node
+     * before the solving converges.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return the maximum size of the out facts (of the blocks
+     * for the block solver).
+     */
+    public int getMaxFactSize() {
+        return maxFactSize;
+    }
+
+    /**
+     * @return the average size of the out facts (of the blocks
+     * for the block solver).
+     */
+    public double getAvgFactSize() {
+        return avgFactSize;
+    }
+
+    /**
+     * @return wall time of solving in milliseconds.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * @return number of the facts of the result which are interned,
+     * or 0 if the analysis does not intern the facts.
+     */
+    public int getInternedFacts() {
+        return internedFacts;
+    }
+
+    /**
+     * @return number of the distinct facts among the interned ones,
+     * i.e., the fact objects kept by the result after interning.
+     */
+    public int getDistinctFacts() {
+        return distinctFacts;
+    }
+}
@@ -22,23 +22,52 @@
 
 package pascal.taie.analysis.dataflow.solver;
 
-import pascal.taie.Assignment;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CompactCFG;
+import pascal.taie.util.collection.SetQueue;
 
-import java.util.ArrayDeque;
 import java.util.Queue;
 
-class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
+/**
+ * Work-list solver. Depending on {@code prioritized}, the work-list
+ * either processes nodes in FIFO order, or always picks the pending
+ * node which comes first in reverse post-order (forward analyses) or
+ * in reverse post-order of the reverse CFG (backward analyses),
+ * so that a loop body is stabilized before the nodes after the loop
+ * are visited. In both cases, membership check of the work-list
+ * takes O(1) time.
+ * <p>
+ * As the analyses are monotone, the facts flowing into a node only
+ * move down the lattice, thus the solver meets them into the existing
+ * fact of the node instead of recomputing it from a new initial fact
+ * on every visit, which produces the same fixed point without
+ * allocating facts in the iteration.
+ */
+class WorkListSolver<Node, Fact> extends NodeSolver<Node, Fact> {
+
+    private final boolean prioritized;
 
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
+        this(analysis, false);
+    }
+
+    WorkListSolver(DataflowAnalysis<Node, Fact> analysis, boolean prioritized) {
         super(analysis);
+        this.prioritized = prioritized;
+    }
+
+    private Queue<Node> newWorkList(CFG<Node> cfg, boolean forward) {
+        return prioritized
+                ? new PriorityWorkList<>(NodeOrder.reversePostOrder(cfg, forward))
+                : new SetQueue<>();
     }
 
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        Queue<Node> worklist = new ArrayDeque<>();
+        CompactCFG<Node> graph = CompactCFG.of(cfg);
+        Queue<Node> worklist = newWorkList(cfg, true);
         for (Node node : cfg) {
             if (node.equals(cfg.getEntry())) {
                 continue;
@@ -46,25 +75,25 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
             worklist.add(node);
         }
         while (!worklist.isEmpty()) {
-            Node node = worklist.poll();
-            result.setInFact(node, analysis.newInitialFact());
-            for (Node pred : cfg.getPredsOf(node)) {
-                analysis.meetInto(result.getOutFact(pred), result.getInFact(node));
+            Node node = poll(worklist);
+            int i = graph.getIndex(node);
+            Fact in = result.getInFact(node);
+            for (int k = graph.getPredStart(i); k < graph.getPredEnd(i); ++k) {
+                analysis.meetInto(result.getOutFact(graph.getNode(graph.getPred(k))), in);
             }
-            if (!analysis.transferNode(node, result.getInFact(node), result.getOutFact(node))) {
+            if (!analysis.transferNode(cfg, node, in, result.getOutFact(node))) {
                 continue;
             }
-            for (Node succ : cfg.getSuccsOf(node)) {
-                if (!worklist.contains(succ)) {
-                    worklist.add(succ);
-                }
+            for (int k = graph.getSuccStart(i); k < graph.getSuccEnd(i); ++k) {
+                worklist.add(graph.getNode(graph.getSucc(k)));
             }
         }
     }
 
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        Queue<Node> worklist = new ArrayDeque<>();
+        CompactCFG<Node> graph = CompactCFG.of(cfg);
+        Queue<Node> worklist = newWorkList(cfg, false);
         for (Node node : cfg) {
             if (node.equals(cfg.getExit())) {
                 continue;
@@ -72,18 +101,17 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
             worklist.add(node);
         }
         while (!worklist.isEmpty()) {
-            Node node = worklist.poll();
-            result.setOutFact(node, analysis.newInitialFact());
-            for (Node succ : cfg.getSuccsOf(node)) {
-                analysis.meetInto(result.getInFact(succ), result.getOutFact(node));
+            Node node = poll(worklist);
+            int i = graph.getIndex(node);
+            Fact out = result.getOutFact(node);
+            for (int k = graph.getSuccStart(i); k < graph.getSuccEnd(i); ++k) {
+                analysis.meetInto(result.getInFact(graph.getNode(graph.getSucc(k))), out);
             }
-            if (!analysis.transferNode(node, result.getInFact(node), result.getOutFact(node))) {
+            if (!analysis.transferNode(cfg, node, result.getInFact(node), out)) {
                 continue;
             }
-            for (Node pred : cfg.getPredsOf(node)) {
-                if (!worklist.contains(pred)) {
-                    worklist.add(pred);
-                }
+            for (int k = graph.getPredStart(i); k < graph.getPredEnd(i); ++k) {
+                worklist.add(graph.getNode(graph.getPred(k)));
             }
         }
     }
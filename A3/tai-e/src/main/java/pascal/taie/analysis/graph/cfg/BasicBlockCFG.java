@@ -0,0 +1,197 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A view of a {@link CFG} at the granularity of basic blocks.
+ * The nodes of this graph are the basic blocks of the CFG, and there is
+ * an edge from block b1 to block b2 if there is a CFG edge from the
+ * last node of b1 to the first node of b2. The entry and exit of the
+ * CFG are always in their own blocks.
+ *
+ * @param <N> type of CFG nodes
+ */
+public class BasicBlockCFG<N> implements Graph<BasicBlock<N>> {
+
+    private final CFG<N> cfg;
+
+    private final List<BasicBlock<N>> blocks = new ArrayList<>();
+
+    private final Set<BasicBlock<N>> blockSet;
+
+    private final Map<N, BasicBlock<N>> node2Block;
+
+    private final List<Set<BasicBlock<N>>> preds = new ArrayList<>();
+
+    private final List<Set<BasicBlock<N>>> succs = new ArrayList<>();
+
+    public BasicBlockCFG(CFG<N> cfg) {
+        this.cfg = cfg;
+        this.node2Block = Maps.newMap(cfg.getNumberOfNodes());
+        // first, build the blocks led by the leaders
+        for (N node : cfg) {
+            if (isLeader(node)) {
+                buildBlock(node);
+            }
+        }
+        // the remaining nodes are on the cycles which are unreachable
+        // from any leader, then each cycle becomes a block
+        for (N node : cfg) {
+            if (!node2Block.containsKey(node)) {
+                buildBlock(node);
+            }
+        }
+        for (BasicBlock<N> block : blocks) {
+            Set<BasicBlock<N>> blockPreds = Sets.newHybridSet();
+            cfg.getPredsOf(block.getFirst())
+                    .forEach(pred -> blockPreds.add(node2Block.get(pred)));
+            preds.add(blockPreds);
+            Set<BasicBlock<N>> blockSuccs = Sets.newHybridSet();
+            cfg.getSuccsOf(block.getLast())
+                    .forEach(succ -> blockSuccs.add(node2Block.get(succ)));
+            succs.add(blockSuccs);
+        }
+        blockSet = Collections.unmodifiableSet(new LinkedHashSet<>(blocks));
+    }
+
+    /**
+     * @return true if given node starts a basic block, i.e., it is the
+     * entry or exit, or the control may enter it from other than
+     * the fall-through of its only predecessor.
+     */
+    private boolean isLeader(N node) {
+        if (cfg.isEntry(node) || cfg.isExit(node)) {
+            return true;
+        }
+        Set<N> nodePreds = cfg.getPredsOf(node);
+        if (nodePreds.size() != 1) {
+            return true;
+        }
+        N pred = nodePreds.iterator().next();
+        return pred.equals(node) || cfg.isEntry(pred)
+                || cfg.getSuccsOf(pred).size() != 1;
+    }
+
+    /**
+     * Builds a block which starts from given node, and extends it along
+     * the only successors until reaching a leader or a node in a block.
+     */
+    private void buildBlock(N first) {
+        List<N> nodes = new ArrayList<>();
+        nodes.add(first);
+        N node = first;
+        while (true) {
+            Set<N> nodeSuccs = cfg.getSuccsOf(node);
+            if (nodeSuccs.size() != 1) {
+                break;
+            }
+            N succ = nodeSuccs.iterator().next();
+            if (succ.equals(first) || isLeader(succ)
+                    || node2Block.containsKey(succ)) {
+                break;
+            }
+            nodes.add(succ);
+            node = succ;
+        }
+        BasicBlock<N> block = new BasicBlock<>(blocks.size(), nodes);
+        blocks.add(block);
+        nodes.forEach(n -> node2Block.put(n, block));
+    }
+
+    /**
+     * @return the CFG underlying this graph.
+     */
+    public CFG<N> getCFG() {
+        return cfg;
+    }
+
+    /**
+     * @return the block containing the entry of the CFG.
+     */
+    public BasicBlock<N> getEntry() {
+        return node2Block.get(cfg.getEntry());
+    }
+
+    /**
+     * @return the block containing the exit of the CFG.
+     */
+    public BasicBlock<N> getExit() {
+        return node2Block.get(cfg.getExit());
+    }
+
+    /**
+     * @return the block containing given CFG node.
+     */
+    public BasicBlock<N> getBlockOf(N node) {
+        return node2Block.get(node);
+    }
+
+    /**
+     * @return the blocks of this graph, where each block is
+     * at the position of its index.
+     */
+    public List<BasicBlock<N>> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+
+    @Override
+    public boolean hasNode(BasicBlock<N> block) {
+        return blockSet.contains(block);
+    }
+
+    @Override
+    public boolean hasEdge(BasicBlock<N> source, BasicBlock<N> target) {
+        return getSuccsOf(source).contains(target);
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getPredsOf(BasicBlock<N> block) {
+        return Collections.unmodifiableSet(preds.get(block.getIndex()));
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getSuccsOf(BasicBlock<N> block) {
+        return Collections.unmodifiableSet(succs.get(block.getIndex()));
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getNodes() {
+        return blockSet;
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return blocks.size();
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * A frozen copy of the adjacency of a {@link CFG} in compressed sparse
+ * row (CSR) form. Each node has an index, and the indexes of the
+ * successors (predecessors) of node i are stored in a shared array
+ * {@code succs} ({@code preds}) in range [offsets[i], offsets[i + 1]).
+ * The nodes of statement CFGs are indexed by {@link Stmt#getIndex()}
+ * (the entry and exit are indexed right after the statements),
+ * and the nodes of other CFGs are indexed by their iteration order.
+ * <p>
+ * The successors and predecessors can be iterated by index without
+ * allocating iterators, set views or edges, e.g.,
+ * <pre>{@code
+ * int i = cfg.getIndex(node);
+ * for (int k = cfg.getSuccStart(i); k < cfg.getSuccEnd(i); ++k) {
+ *     N succ = cfg.getNode(cfg.getSucc(k));
+ * }
+ * }</pre>
+ * The {@link CFG} methods delegate to the underlying CFG,
+ * which must not be changed after this copy is built.
+ *
+ * @param <N> type of CFG nodes
+ */
+public class CompactCFG<N> implements CFG<N> {
+
+    private static final String KEY = "compact-cfg";
+
+    private final CFG<N> cfg;
+
+    private final ToIntFunction<N> indexer;
+
+    /**
+     * Nodes at their indexes.
+     */
+    private final Object[] nodes;
+
+    private final int[] succOffsets;
+
+    private final int[] succs;
+
+    private final int[] predOffsets;
+
+    private final int[] preds;
+
+    private CompactCFG(CFG<N> cfg) {
+        this.cfg = cfg;
+        int capacity;
+        if (cfg.getEntry() instanceof Stmt) {
+            indexer = node -> ((Stmt) node).getIndex();
+            capacity = cfg.getIR().getStmts().size() + 2;
+        } else {
+            Map<N, Integer> indexes = Maps.newMap(cfg.getNumberOfNodes());
+            for (N node : cfg) {
+                indexes.put(node, indexes.size());
+            }
+            indexer = indexes::get;
+            capacity = indexes.size();
+        }
+        nodes = new Object[capacity];
+        succOffsets = new int[capacity + 1];
+        predOffsets = new int[capacity + 1];
+        int nSuccs = 0, nPreds = 0;
+        for (N node : cfg) {
+            int i = indexer.applyAsInt(node);
+            nodes[i] = node;
+            succOffsets[i + 1] = cfg.getSuccsOf(node).size();
+            predOffsets[i + 1] = cfg.getPredsOf(node).size();
+            nSuccs += succOffsets[i + 1];
+            nPreds += predOffsets[i + 1];
+        }
+        for (int i = 0; i < capacity; ++i) {
+            succOffsets[i + 1] += succOffsets[i];
+            predOffsets[i + 1] += predOffsets[i];
+        }
+        succs = new int[nSuccs];
+        preds = new int[nPreds];
+        for (N node : cfg) {
+            int i = indexer.applyAsInt(node);
+            int k = succOffsets[i];
+            for (N succ : cfg.getSuccsOf(node)) {
+                succs[k++] = indexer.applyAsInt(succ);
+            }
+            k = predOffsets[i];
+            for (N pred : cfg.getPredsOf(node)) {
+                preds[k++] = indexer.applyAsInt(pred);
+            }
+        }
+    }
+
+    /**
+     * @return the compact form of given CFG. For statement CFGs,
+     * the compact form is built once and cached in the IR.
+     */
+    public static <N> CompactCFG<N> of(CFG<N> cfg) {
+        if (cfg instanceof CompactCFG<N> compact) {
+            return compact;
+        }
+        if (cfg.getEntry() instanceof Stmt) {
+            IR ir = cfg.getIR();
+            CompactCFG<N> compact = ir.getResult(KEY);
+            if (compact == null || compact.cfg != cfg) {
+                compact = new CompactCFG<>(cfg);
+                ir.storeResult(KEY, compact);
+            }
+            return compact;
+        }
+        return new CompactCFG<>(cfg);
+    }
+
+    /**
+     * @return the index of given node.
+     */
+    public int getIndex(N node) {
+        return indexer.applyAsInt(node);
+    }
+
+    /**
+     * @return the node of given index.
+     */
+    @SuppressWarnings("unchecked")
+    public N getNode(int index) {
+        return (N) nodes[index];
+    }
+
+    /**
+     * @return the start position of the successors of node {@code index}.
+     */
+    public int getSuccStart(int index) {
+        return succOffsets[index];
+    }
+
+    /**
+     * @return the end (exclusive) position of the successors of node {@code index}.
+     */
+    public int getSuccEnd(int index) {
+        return succOffsets[index + 1];
+    }
+
+    /**
+     * @return the index of the successor at given position.
+     */
+    public int getSucc(int position) {
+        return succs[position];
+    }
+
+    /**
+     * @return the start position of the predecessors of node {@code index}.
+     */
+    public int getPredStart(int index) {
+        return predOffsets[index];
+    }
+
+    /**
+     * @return the end (exclusive) position of the predecessors of node {@code index}.
+     */
+    public int getPredEnd(int index) {
+        return predOffsets[index + 1];
+    }
+
+    /**
+     * @return the index of the predecessor at given position.
+     */
+    public int getPred(int position) {
+        return preds[position];
+    }
+
+    @Override
+    public IR getIR() {
+        return cfg.getIR();
+    }
+
+    @Override
+    public JMethod getMethod() {
+        return cfg.getMethod();
+    }
+
+    @Override
+    public N getEntry() {
+        return cfg.getEntry();
+    }
+
+    @Override
+    public N getExit() {
+        return cfg.getExit();
+    }
+
+    @Override
+    public boolean isEntry(N node) {
+        return cfg.isEntry(node);
+    }
+
+    @Override
+    public boolean isExit(N node) {
+        return cfg.isExit(node);
+    }
+
+    @Override
+    public Set<Edge<N>> getInEdgesOf(N node) {
+        return cfg.getInEdgesOf(node);
+    }
+
+    @Override
+    public Set<Edge<N>> getOutEdgesOf(N node) {
+        return cfg.getOutEdgesOf(node);
+    }
+
+    @Override
+    public boolean hasNode(N node) {
+        return cfg.hasNode(node);
+    }
+
+    @Override
+    public boolean hasEdge(N source, N target) {
+        if (!hasNode(source) || !hasNode(target)) {
+            return false;
+        }
+        int i = getIndex(source), j = getIndex(target);
+        for (int k = getSuccStart(i); k < getSuccEnd(i); ++k) {
+            if (succs[k] == j) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Set<N> getPredsOf(N node) {
+        return cfg.getPredsOf(node);
+    }
+
+    @Override
+    public Set<N> getSuccsOf(N node) {
+        return cfg.getSuccsOf(node);
+    }
+
+    @Override
+    public int getInDegreeOf(N node) {
+        int i = getIndex(node);
+        return getPredEnd(i) - getPredStart(i);
+    }
+
+    @Override
+    public int getOutDegreeOf(N node) {
+        int i = getIndex(node);
+        return getSuccEnd(i) - getSuccStart(i);
+    }
+
+    @Override
+    public Set<N> getNodes() {
+        return cfg.getNodes();
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return cfg.getNumberOfNodes();
+    }
+}
@@ -26,6 +26,7 @@ import org.junit.Assert;
 import pascal.taie.Main;
 import pascal.taie.World;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.util.Timer;
 
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -61,6 +62,78 @@ public final class Tests {
      * @param opts      options for the analysis
      */
     public static void test(String main, String classPath, String id, String... opts) {
+        doTest(main, classPath, id, id, "", opts);
+    }
+
+    /**
+     * Starts an analysis for a specific test case, like {@link #test},
+     * but compares its results with the expected results of another
+     * analysis, e.g., to check that an analysis computes the same results
+     * as a simpler one. The statements which are not relevant to the
+     * results (see {@link StmtResult#isRelevant}) are not compared.
+     *
+     * @param expectedId ID of the analysis whose expected results are
+     *                   compared with the results of analysis <i>id</i>
+     */
+    public static void testAgainst(String main, String classPath, String id,
+                                   String expectedId, String... opts) {
+        doTest(main, classPath, id, expectedId,
+                ";expected-id:" + expectedId, opts);
+    }
+
+    /**
+     * Starts an analysis for a specific test case, like {@link #test},
+     * and dumps the solver metrics of the analysis to the given file.
+     * The analysis should enable its option {@code metrics}.
+     *
+     * @param metricsFile the file where the solver metrics are dumped
+     */
+    public static void testWithMetrics(String main, String classPath, String id,
+                                       String metricsFile, String... opts) {
+        doTest(main, classPath, id, id, ";metrics-file:" + metricsFile, opts);
+    }
+
+    private static void doTest(String main, String classPath, String id,
+                               String expectedId, String processOpts,
+                               String... opts) {
+        List<String> args = makeArgs(main, classPath, id, opts);
+        // set up result processor
+        String action = GENERATE_EXPECTED_RESULTS ? "dump" : "compare";
+        String file = getExpectedFile(classPath, main, expectedId);
+        String processArg = String.format("%s=analyses:[%s];action:%s;file:%s%s",
+                ResultProcessor.ID, id, action, file, processOpts);
+        Collections.addAll(args, "-a", processArg);
+        Main.main(args.toArray(new String[0]));
+        if (action.equals("compare")) {
+            Set<String> mismatches = World.get().getResult(ResultProcessor.ID);
+            Assert.assertTrue("Mismatches of analysis \"" + id + "\":\n" +
+                            String.join("\n", mismatches),
+                    mismatches.isEmpty());
+        }
+    }
+
+    /**
+     * Runs an analysis for a program without checking its results,
+     * e.g., for the generated programs which have no expected results.
+     *
+     * @param main      the main class to be analyzed
+     * @param classPath where the main class is located
+     * @param id        ID of the analysis to be executed
+     * @param opts      options for the analysis, as in {@link #test}
+     * @return the elapsed time (in seconds) of the whole run,
+     * including building the IR of the program.
+     */
+    public static float run(String main, String classPath, String id, String... opts) {
+        List<String> args = makeArgs(main, classPath, id, opts);
+        Timer timer = new Timer(id);
+        timer.start();
+        Main.main(args.toArray(new String[0]));
+        timer.stop();
+        return timer.inSecond();
+    }
+
+    private static List<String> makeArgs(
+            String main, String classPath, String id, String... opts) {
         List<String> args = new ArrayList<>();
         args.add("-pp");
         Collections.addAll(args, "-cp", classPath);
@@ -80,19 +153,7 @@ public final class Tests {
             Collections.addAll(args, "-a", id);
             Collections.addAll(args, opts);
         }
-        // set up result processor
-        String action = GENERATE_EXPECTED_RESULTS ? "dump" : "compare";
-        String file = getExpectedFile(classPath, main, id);
-        String processArg = String.format("%s=analyses:[%s];action:%s;file:%s",
-                ResultProcessor.ID, id, action, file);
-        Collections.addAll(args, "-a", processArg);
-        Main.main(args.toArray(new String[0]));
-        if (action.equals("compare")) {
-            Set<String> mismatches = World.get().getResult(ResultProcessor.ID);
-            Assert.assertTrue("Mismatches of analysis \"" + id + "\":\n" +
-                            String.join("\n", mismatches),
-                    mismatches.isEmpty());
-        }
+        return args;
     }
 
     public static void testPTA(String dir, String main, String... opts) {
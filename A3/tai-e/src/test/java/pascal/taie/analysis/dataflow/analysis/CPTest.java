@@ -22,9 +22,51 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
 import org.junit.Test;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.SCCPResult;
+import pascal.taie.analysis.dataflow.analysis.constprop.SparseConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.IRPrinter;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Modifier;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.language.type.VoidType;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 public class CPTest {
 
@@ -33,43 +75,296 @@ public class CPTest {
                 ConstantPropagation.ID, "edge-refine:false");
     }
 
+    /**
+     * Checks that the facts of {@link SparseConstantPropagation} at the
+     * executable statements are the same as the expected facts of
+     * {@link ConstantPropagation}, which holds for the inputs whose
+     * branches are all executable.
+     */
+    void testSCCP(String inputClass) {
+        Tests.testAgainst(inputClass, "src/test/resources/dataflow/constprop/",
+                SparseConstantPropagation.ID, ConstantPropagation.ID);
+    }
+
     @Test
     public void testAssign() {
         testCP("Assign");
     }
 
+    @Test
+    public void testAssignSCCP() {
+        testSCCP("Assign");
+    }
+
     @Test
     public void testSimpleConstant() {
         testCP("SimpleConstant");
     }
 
+    @Test
+    public void testSimpleConstantSCCP() {
+        testSCCP("SimpleConstant");
+    }
+
     @Test
     public void testSimpleBinary() {
         testCP("SimpleBinary");
     }
 
+    @Test
+    public void testSimpleBinarySCCP() {
+        testSCCP("SimpleBinary");
+    }
+
     @Test
     public void testSimpleBranch() {
         testCP("SimpleBranch");
     }
 
+    @Test
+    public void testSimpleBranchSCCP() {
+        testSCCP("SimpleBranch");
+    }
+
     @Test
     public void testSimpleChar() {
         testCP("SimpleChar");
     }
 
+    @Test
+    public void testSimpleCharSCCP() {
+        testSCCP("SimpleChar");
+    }
+
     @Test
     public void testBranchConstant() {
         testCP("BranchConstant");
     }
 
+    @Test
+    public void testBranchConstantSCCP() {
+        testSCCP("BranchConstant");
+    }
+
     @Test
     public void testInterprocedural() {
         testCP("Interprocedural");
     }
 
+    @Test
+    public void testInterproceduralSCCP() {
+        testSCCP("Interprocedural");
+    }
+
     @Test
     public void testSwitch() {
         testCP("Switch");
     }
+
+    @Test
+    public void testSwitchSCCP() {
+        testSCCP("Switch");
+    }
+
+    @Test
+    public void testConstantBranch() {
+        testCP("ConstantBranch");
+    }
+
+    /**
+     * SCCP is more precise than the dense analysis on ConstantBranch:
+     * the else branch is not executable, thus its statements have no
+     * facts, and x is 1 instead of NAC after the branches, as the phi
+     * of x only meets the value from the executable edge. The expected
+     * facts are in ConstantBranch-sccp-expected.txt.
+     */
+    @Test
+    public void testConstantBranchSCCP() {
+        Tests.test("ConstantBranch", "src/test/resources/dataflow/constprop/",
+                SparseConstantPropagation.ID);
+    }
+
+    /**
+     * Checks ConstantBranch-constprop-expected.txt and
+     * ConstantBranch-sccp-expected.txt without the front end: the IR of
+     * ConstantBranch.constant() is built by hand as it is printed in the
+     * expected files, and the facts of both analyses are printed like
+     * {@link pascal.taie.analysis.ResultProcessor} and compared with the
+     * lines of constant() in the files.
+     */
+    @Test
+    public void testConstantBranchWithoutFrontend() throws Exception {
+        IR ir = buildConstantBranchIR();
+        ConstantPropagation cp = new ConstantPropagation(new AnalysisConfig(
+                ConstantPropagation.ID, "edge-refine", false, "solver", "worklist"));
+        Assert.assertEquals(readExpected("ConstantBranch-constprop-expected.txt"),
+                dump(ir, cp.analyze(ir)));
+        SCCPResult sccp = new SparseConstantPropagation(
+                new AnalysisConfig(SparseConstantPropagation.ID)).analyze(ir);
+        Assert.assertEquals(readExpected("ConstantBranch-sccp-expected.txt"),
+                dump(ir, sccp));
+        // the facts are shared along the dominator tree, thus are frozen
+        for (Stmt stmt : ir) {
+            CPFact fact = sccp.getOutFact(stmt);
+            Assert.assertTrue(fact.isFrozen());
+            Assert.assertThrows(UnsupportedOperationException.class,
+                    () -> fact.update(ir.getVar(0), null));
+            Assert.assertFalse(fact.copy().isFrozen());
+        }
+    }
+
+    /**
+     * @return the IR of ConstantBranch.constant(), which has the same
+     * statements, indexes and line numbers as the one built by the front end.
+     */
+    static IR buildConstantBranchIR() throws ReflectiveOperationException {
+        JMethod method = new JMethod(new JClass(null, "ConstantBranch"),
+                "constant", Set.of(Modifier.STATIC), List.of(), VoidType.VOID,
+                List.of(), AnnotationHolder.emptyHolder(), null, null);
+        Var p = new Var(method, "p", PrimitiveType.INT, 0);
+        Var c = new Var(method, "%intconst0", PrimitiveType.INT, 1);
+        Var x = new Var(method, "x", PrimitiveType.INT, 2);
+        Var y = new Var(method, "y", PrimitiveType.INT, 3);
+        If ifStmt = new If(new ConditionExp(ConditionExp.Op.GT, p, c));
+        Goto gotoElse = new Goto();
+        Nop thenNop = new Nop();
+        Goto gotoEnd = new Goto();
+        Nop elseNop = new Nop();
+        Nop endNop = new Nop();
+        ifStmt.setTarget(thenNop);
+        gotoElse.setTarget(elseNop);
+        gotoEnd.setTarget(endNop);
+        List<Stmt> stmts = List.of(
+                new AssignLiteral(p, IntLiteral.get(1)),
+                new AssignLiteral(c, IntLiteral.get(0)),
+                ifStmt, gotoElse, thenNop,
+                new AssignLiteral(x, IntLiteral.get(1)),
+                gotoEnd, elseNop,
+                new AssignLiteral(x, IntLiteral.get(2)),
+                endNop, new Copy(y, x), new Return());
+        int[] lines = {4, 6, 6, 6, 6, 7, 6, 6, 9, 9, 11, 11};
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+            stmts.get(i).setLineNumber(lines[i]);
+        }
+        IR ir = new DefaultIR(method, null, List.of(), Set.of(),
+                List.of(p, c, x, y), stmts, List.of());
+        // CPFact finds the IR of a variable via its method,
+        // which otherwise builds the IR by the front end
+        Field irField = JMethod.class.getDeclaredField("ir");
+        irField.setAccessible(true);
+        irField.set(method, ir);
+        ir.storeResult(CFGBuilder.ID, new CFGBuilder(new AnalysisConfig(
+                CFGBuilder.ID, "exception", "none", "dump", false)).analyze(ir));
+        return ir;
+    }
+
+    static List<String> dump(IR ir, NodeResult<Stmt, ?> result) {
+        List<String> lines = new ArrayList<>();
+        for (Stmt stmt : ir) {
+            if (result.isRelevant(stmt)) {
+                lines.add(IRPrinter.toString(stmt) + " " + result.getResult(stmt));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * @return the lines of the results of constant() in given expected file.
+     */
+    private static List<String> readExpected(String file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        boolean inMethod = false;
+        for (String line : Files.readAllLines(
+                Path.of("src/test/resources/dataflow/constprop/", file))) {
+            if (line.startsWith("----")) {
+                inMethod = line.contains("<ConstantBranch: void constant()>");
+            } else if (inMethod && !line.isBlank()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void testSwitchRPO() {
+        Tests.test("Switch", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;solver:rpo-worklist");
+    }
+
+    @Test
+    public void testSwitchBlock() {
+        Tests.test("Switch", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;solver:block");
+    }
+
+    /**
+     * Checks that the numbers of the interned facts are recorded in
+     * the solver metrics, and serialized to JSON as the other metrics.
+     */
+    @Test
+    public void testInternedFactsMetrics() throws Exception {
+        IR ir = buildConstantBranchIR();
+        NodeResult<Stmt, CPFact> result = new ConstantPropagation(new AnalysisConfig(
+                ConstantPropagation.ID, "edge-refine", false, "solver", "worklist",
+                "metrics", true, "intern-facts", true)).analyze(ir);
+        SolverMetrics metrics = ir.getResult(
+                SolverMetrics.getKey(ConstantPropagation.ID));
+        Set<CPFact> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        int facts = 0;
+        for (Stmt stmt : ir) {
+            for (CPFact fact : List.of(result.getInFact(stmt), result.getOutFact(stmt))) {
+                distinct.add(fact);
+                ++facts;
+            }
+        }
+        // the entry and exit nodes of the CFG have facts too
+        Assert.assertTrue(metrics.getInternedFacts() > facts);
+        Assert.assertTrue(metrics.getDistinctFacts() < metrics.getInternedFacts());
+        Assert.assertTrue(metrics.getDistinctFacts() >= distinct.size());
+        JsonNode json = new ObjectMapper().valueToTree(metrics);
+        Assert.assertEquals(metrics.getInternedFacts(), json.get("internedFacts").asInt());
+        Assert.assertEquals(metrics.getDistinctFacts(), json.get("distinctFacts").asInt());
+    }
+
+    @Test
+    public void testBranchConstantMetrics() throws IOException {
+        File metricsFile = File.createTempFile("BranchConstant-metrics", ".json");
+        metricsFile.deleteOnExit();
+        Tests.testWithMetrics("BranchConstant", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, metricsFile.getPath(),
+                "edge-refine:false;metrics:true");
+        List<JMethod> methods = World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .toList();
+        for (JMethod method : methods) {
+            IR ir = method.getIR();
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            SolverMetrics metrics = ir.getResult(
+                    SolverMetrics.getKey(ConstantPropagation.ID));
+            Assert.assertNotNull("No solver metrics of " + method, metrics);
+            Assert.assertEquals(method.toString(), metrics.getMethod());
+            Assert.assertEquals(cfg.getNumberOfNodes(), metrics.getNodes());
+            // the work-list solver visits every node except the entry
+            // at least once, and transfers each polled node once
+            Assert.assertTrue(metrics.getVisits() >= cfg.getNumberOfNodes() - 1);
+            Assert.assertEquals(metrics.getVisits(), metrics.getTransfers());
+            Assert.assertTrue(metrics.getMeets() > 0);
+            Assert.assertTrue(metrics.getIterations() >= 1);
+            Assert.assertTrue(metrics.getMaxWorkListSize() <= cfg.getNumberOfNodes());
+            Assert.assertTrue(metrics.getAvgFactSize() <= metrics.getMaxFactSize());
+        }
+        JsonNode json = new ObjectMapper().readTree(metricsFile);
+        Assert.assertTrue(json.isArray());
+        Assert.assertEquals(methods.size(), json.size());
+        for (JsonNode node : json) {
+            Assert.assertEquals(ConstantPropagation.ID, node.get("analysis").asText());
+            Assert.assertTrue(node.has("method"));
+            Assert.assertEquals(node.get("visits").asLong(),
+                    node.get("transfers").asLong());
+        }
+    }
 }
@@ -22,8 +22,19 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import org.junit.Assert;
 import org.junit.Test;
+import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 public class DeadCodeTest {
 
@@ -34,6 +45,17 @@ public class DeadCodeTest {
                 "-a", "constprop=edge-refine:false");
     }
 
+    /**
+     * The dead code found with SCCP is the same as with the dense constant
+     * propagation on these inputs, as the phis which SCCP makes more precise
+     * never decide a branch, thus the expected results are shared.
+     */
+    void testDCDWithSCCP(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID, "constprop:sccp",
+                "-a", "livevar=strongly:false");
+    }
+
     @Test
     public void testControlFlowUnreachable() {
         testDCD("ControlFlowUnreachable");
@@ -58,4 +80,117 @@ public class DeadCodeTest {
     public void testLoops() {
         testDCD("Loops");
     }
+
+    @Test
+    public void testLoopsSCC() {
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;solver:scc",
+                "-a", "constprop=edge-refine:false;solver:scc");
+    }
+
+    @Test
+    public void testUnreachableIfBranchOutFactsOnly() {
+        Tests.test("UnreachableIfBranch", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;keep-only-out-facts:true",
+                "-a", "constprop=edge-refine:false;keep-only-out-facts:true");
+    }
+
+    @Test
+    public void testControlFlowUnreachableSCCP() {
+        testDCDWithSCCP("ControlFlowUnreachable");
+    }
+
+    @Test
+    public void testUnreachableIfBranchSCCP() {
+        testDCDWithSCCP("UnreachableIfBranch");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchSCCP() {
+        testDCDWithSCCP("UnreachableSwitchBranch");
+    }
+
+    @Test
+    public void testDeadAssignmentSCCP() {
+        testDCDWithSCCP("DeadAssignment");
+    }
+
+    @Test
+    public void testLoopsSCCP() {
+        testDCDWithSCCP("Loops");
+    }
+
+    @Test
+    public void testDeadAssignmentSparseLiveVar() {
+        Tests.test("DeadAssignment", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID, "livevar:sparse-livevar",
+                "-a", "constprop=edge-refine:false");
+    }
+
+    /**
+     * Runs constprop, livevar and deadcode as the analysis manager does,
+     * i.e., one analysis after another, each on all methods in parallel
+     * with one shared analysis object, and checks that every method gets
+     * the same results as when the methods are analyzed one at a time.
+     */
+    @Test
+    public void testParallelWithoutFrontend() throws Exception {
+        List<List<String>> expected = analyzeAll(false);
+        // deadcode sees the results of constprop (the else branch is
+        // unreachable) and livevar (y is dead)
+        List<String> first = expected.get(0);
+        Assert.assertEquals("goto 7; nop; x = 2; y = x;", first.get(first.size() - 1));
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            for (int round = 0; round < 5; ++round) {
+                List<List<String>> results = pool.submit(() -> analyzeAll(true)).get();
+                Assert.assertEquals("round " + round, expected, results);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Analyzes 200 copies of ConstantBranch.constant() with constprop,
+     * livevar and deadcode, with metrics and interned facts enabled.
+     *
+     * @param parallel whether to analyze the methods with a parallel stream,
+     *                 otherwise one at a time.
+     * @return the results of each method.
+     */
+    private static List<List<String>> analyzeAll(boolean parallel) throws Exception {
+        List<IR> irs = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            irs.add(CPTest.buildConstantBranchIR());
+        }
+        ConstantPropagation constprop = new ConstantPropagation(new AnalysisConfig(
+                ConstantPropagation.ID, "edge-refine", false, "solver", "rpo-worklist",
+                "metrics", true, "intern-facts", true));
+        LiveVariableAnalysis livevar = new LiveVariableAnalysis(new AnalysisConfig(
+                LiveVariableAnalysis.ID, "strongly", false, "solver", "scc",
+                "metrics", true, "intern-facts", true));
+        DeadCodeDetection deadcode = new DeadCodeDetection(new AnalysisConfig(
+                DeadCodeDetection.ID, "constprop", ConstantPropagation.ID,
+                "livevar", LiveVariableAnalysis.ID));
+        for (MethodAnalysis analysis : List.of(constprop, livevar, deadcode)) {
+            (parallel ? irs.parallelStream() : irs.stream()).forEach(ir ->
+                    ir.storeResult(analysis.getId(), analysis.analyze(ir)));
+        }
+        List<List<String>> results = new ArrayList<>();
+        for (IR ir : irs) {
+            List<String> result = new ArrayList<>();
+            result.addAll(CPTest.dump(ir, ir.getResult(constprop.getId())));
+            result.addAll(CPTest.dump(ir, ir.getResult(livevar.getId())));
+            StringBuilder dead = new StringBuilder();
+            for (Stmt stmt : ir.<Set<Stmt>>getResult(deadcode.getId())) {
+                dead.append(stmt).append("; ");
+            }
+            result.add(dead.toString().trim());
+            results.add(result);
+        }
+        return results;
+    }
 }
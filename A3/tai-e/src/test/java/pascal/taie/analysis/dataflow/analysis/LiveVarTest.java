@@ -22,8 +22,24 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import org.junit.Assert;
 import org.junit.Test;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignStmt;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import java.lang.reflect.Field;
+import java.util.List;
 
 public class LiveVarTest {
 
@@ -63,4 +79,141 @@ public class LiveVarTest {
     public void Reference() {
         testLV("Reference");
     }
+
+    @Test
+    public void testBranchLoopRPO() {
+        Tests.test("BranchLoop", "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID,
+                "-a", "livevar=strongly:false;solver:rpo-worklist");
+    }
+
+    @Test
+    public void testBranchLoopBlock() {
+        Tests.test("BranchLoop", "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID,
+                "-a", "livevar=strongly:false;solver:block");
+    }
+
+    @Test
+    public void testBranchLoopSCC() {
+        Tests.test("BranchLoop", "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID,
+                "-a", "livevar=strongly:false;solver:scc");
+    }
+
+    @Test
+    public void testFibonacciInternFacts() {
+        Tests.test("Fibonacci", "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID,
+                "-a", "livevar=strongly:false;intern-facts:true");
+    }
+
+    @Test
+    public void testBranchLoopSparse() {
+        Tests.testAgainst("BranchLoop", "src/test/resources/dataflow/livevar",
+                SparseLiveVariableAnalysis.ID, LiveVariableAnalysis.ID);
+    }
+
+    @Test
+    public void testFibonacciSparse() {
+        Tests.testAgainst("Fibonacci", "src/test/resources/dataflow/livevar",
+                SparseLiveVariableAnalysis.ID, LiveVariableAnalysis.ID);
+    }
+
+    /**
+     * ManyVars has no expected results, thus the results of
+     * {@link SparseLiveVariableAnalysis} are compared with the results
+     * of {@link LiveVariableAnalysis} on every statement.
+     */
+    @Test
+    public void testManyVarsSparse() {
+        Tests.run("ManyVars", "src/test/resources/dataflow/livevar",
+                SparseLiveVariableAnalysis.ID,
+                "-a", "livevar=strongly:false");
+        World.get().getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .map(JMethod::getIR)
+                .forEach(ir -> {
+                    CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+                    NodeResult<Stmt, SetFact<Var>> expected =
+                            ir.getResult(LiveVariableAnalysis.ID);
+                    NodeResult<Stmt, SetFact<Var>> given =
+                            ir.getResult(SparseLiveVariableAnalysis.ID);
+                    for (Stmt node : cfg) {
+                        Assert.assertEquals(node.toString(),
+                                expected.getInFact(node), given.getInFact(node));
+                        Assert.assertEquals(node.toString(),
+                                expected.getOutFact(node), given.getOutFact(node));
+                    }
+                });
+    }
+
+    /**
+     * Replaces the right-hand side of {@code b = d} in Assign.assign()
+     * by {@code c} in place, and checks that the result updated by
+     * {@link AbstractDataflowAnalysis#reanalyze} equals the result of
+     * analyzing the modified IR from scratch.
+     */
+    @Test
+    public void testReanalyze() {
+        testLV("Assign");
+        IR ir = World.get().getClassHierarchy()
+                .getClass("Assign")
+                .getDeclaredMethod("assign")
+                .getIR();
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        Var c = ir.getVars().stream()
+                .filter(v -> v.getName().equals("c"))
+                .findFirst()
+                .orElseThrow();
+        Stmt copy = ir.getStmts().stream()
+                .filter(s -> s instanceof AssignStmt<?, ?> assign
+                        && assign.getRValue() instanceof Var v
+                        && v.getName().equals("d"))
+                .findFirst()
+                .orElseThrow();
+        AssignStmt<?, ?> assign = (AssignStmt<?, ?>) copy;
+        RValue d = assign.getRValue();
+        for (String solver : List.of("worklist", "scc")) {
+            LiveVariableAnalysis analysis = new LiveVariableAnalysis(
+                    new AnalysisConfig(LiveVariableAnalysis.ID, "solver", solver));
+            NodeResult<Stmt, SetFact<Var>> result = analysis.analyze(ir);
+            Assert.assertFalse(result.getInFact(copy).contains(c));
+            try {
+                setRValue(assign, c);
+                result = analysis.reanalyze(ir, result, List.of(copy));
+                NodeResult<Stmt, SetFact<Var>> expected = analysis.analyze(ir);
+                Assert.assertTrue(result.getInFact(copy).contains(c));
+                for (Stmt node : cfg) {
+                    Assert.assertEquals(node.toString(),
+                            expected.getInFact(node), result.getInFact(node));
+                    Assert.assertEquals(node.toString(),
+                            expected.getOutFact(node), result.getOutFact(node));
+                }
+            } finally {
+                setRValue(assign, d);
+                analysis.reanalyze(ir, result, List.of(copy));
+            }
+        }
+    }
+
+    /**
+     * Replaces the right-hand side of given statement in place.
+     * The IR offers no way to replace a statement while keeping the
+     * CFG built on it, which {@link AbstractDataflowAnalysis#reanalyze}
+     * requires, thus this test-only helper writes the final field
+     * {@code AssignStmt.rvalue} via reflection, and no other code of
+     * the tests modifies IR.
+     */
+    private static void setRValue(AssignStmt<?, ?> stmt, RValue rvalue) {
+        try {
+            Field field = AssignStmt.class.getDeclaredField("rvalue");
+            field.setAccessible(true);
+            field.set(stmt, rvalue);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError("cannot modify " + stmt, e);
+        }
+    }
 }
@@ -0,0 +1,59 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class FactPoolTest {
+
+    @Test
+    public void testInternSetFacts() {
+        FactPool<SetFact<String>> pool = new FactPool<>();
+        SetFact<String> f1 = pool.intern(new SetFact<>(List.of("a", "b")));
+        SetFact<String> f2 = pool.intern(new SetFact<>(List.of("b", "a")));
+        Assert.assertSame(f1, f2);
+        Assert.assertTrue(f1.isFrozen());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> f1.add("c"));
+        Assert.assertThrows(UnsupportedOperationException.class, f1::clear);
+        // copies of interned facts can be modified
+        SetFact<String> copy = f1.copy();
+        Assert.assertFalse(copy.isFrozen());
+        Assert.assertTrue(copy.add("c"));
+        Assert.assertEquals(2, f1.size());
+    }
+
+    @Test
+    public void testInternMapFacts() {
+        FactPool<MapFact<String, Integer>> pool = new FactPool<>();
+        MapFact<String, Integer> f = pool.intern(new MapFact<>(Map.of("a", 1)));
+        Assert.assertTrue(f.isFrozen());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> f.update("a", 2));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> f.remove("a"));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> f.keySet().clear());
+        Assert.assertEquals(Integer.valueOf(1), f.get("a"));
+    }
+}
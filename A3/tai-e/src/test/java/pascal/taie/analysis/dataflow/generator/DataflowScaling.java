@@ -0,0 +1,138 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.generator;
+
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.analysis.DeadCodeDetection;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.SparseLiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.SparseConstantPropagation;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.language.classes.JClass;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Generates a program by {@link ProgramGenerator}, runs the data-flow
+ * analyses on it by {@link Tests#run} with each kind of solver,
+ * and reports the time of each run. If transfers=true, the solvers
+ * record their metrics, and the total number of the node transfers of
+ * live variable analysis and constant propagation on each solver are
+ * also reported, which do not depend on the machine.
+ * <p>
+ * The arguments are key=value pairs, and the defaults are: size=1000
+ * (statements per method), vars=100, branches=0.1, loops=0.05, switch=8,
+ * methods=4, seed=0, transfers=false, and
+ * solvers=worklist,rpo-worklist,block,scc, e.g.,
+ * gradle dataflowScaling --args="size=3000 vars=1000 methods=16".
+ */
+public final class DataflowScaling {
+
+    private static final String MAIN = "Generated";
+
+    private DataflowScaling() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int i = arg.indexOf('=');
+            if (i < 0) {
+                throw new IllegalArgumentException("Expect key=value, given: " + arg);
+            }
+            options.put(arg.substring(0, i), arg.substring(i + 1));
+        }
+        ProgramGenerator generator = new ProgramGenerator(
+                Integer.parseInt(options.getOrDefault("size", "1000")),
+                Integer.parseInt(options.getOrDefault("vars", "100")),
+                Double.parseDouble(options.getOrDefault("branches", "0.1")),
+                Double.parseDouble(options.getOrDefault("loops", "0.05")),
+                Integer.parseInt(options.getOrDefault("switch", "8")),
+                Long.parseLong(options.getOrDefault("seed", "0")));
+        int methods = Integer.parseInt(options.getOrDefault("methods", "4"));
+        String[] solvers = options.getOrDefault("solvers",
+                "worklist,rpo-worklist,block,scc").split(",");
+        boolean transfers = Boolean.parseBoolean(
+                options.getOrDefault("transfers", "false"));
+        String metrics = transfers ? ";metrics:true" : "";
+        String classPath = Path.of(ProgramGenerator.OUTPUT_DIR).toString();
+        generator.generateAndCompile(Path.of(classPath), MAIN, methods);
+        // building the IR and CFGs is included in all runs
+        float baseline = Tests.run(MAIN, classPath, CFGBuilder.ID);
+        report(CFGBuilder.ID, baseline, baseline);
+        for (String solver : solvers) {
+            report(LiveVariableAnalysis.ID + "/" + solver, baseline,
+                    Tests.run(MAIN, classPath, LiveVariableAnalysis.ID,
+                            "solver:" + solver + metrics));
+            if (transfers) {
+                reportTransfers(LiveVariableAnalysis.ID + "/" + solver,
+                        LiveVariableAnalysis.ID);
+            }
+            report(ConstantPropagation.ID + "/" + solver, baseline,
+                    Tests.run(MAIN, classPath, ConstantPropagation.ID,
+                            "solver:" + solver + metrics));
+            if (transfers) {
+                reportTransfers(ConstantPropagation.ID + "/" + solver,
+                        ConstantPropagation.ID);
+            }
+            report(DeadCodeDetection.ID + "/" + solver, baseline,
+                    Tests.run(MAIN, classPath, DeadCodeDetection.ID,
+                            "-a", LiveVariableAnalysis.ID + "=solver:" + solver,
+                            "-a", ConstantPropagation.ID + "=solver:" + solver));
+        }
+        report(SparseLiveVariableAnalysis.ID, baseline,
+                Tests.run(MAIN, classPath, SparseLiveVariableAnalysis.ID));
+        report(SparseConstantPropagation.ID, baseline,
+                Tests.run(MAIN, classPath, SparseConstantPropagation.ID));
+    }
+
+    private static void report(String analysis, float baseline, float time) {
+        System.out.printf("%-24s %8.3fs (%8.3fs over %s)%n",
+                analysis, time, time - baseline, CFGBuilder.ID);
+    }
+
+    /**
+     * Reports the total number of the node transfers recorded in the
+     * solver metrics of given analysis over the methods of the last run.
+     */
+    private static void reportTransfers(String analysis, String id) {
+        long transfers = World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .map(m -> m.getIR().<SolverMetrics>getResult(SolverMetrics.getKey(id)))
+                .filter(Objects::nonNull)
+                .mapToLong(SolverMetrics::getTransfers)
+                .sum();
+        System.out.printf("%-24s %10d transfers%n", analysis, transfers);
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.generator;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates compilable Java programs with large methods, to exercise
+ * the data-flow analyses and solvers at scale.
+ * <p>
+ * Each method takes an int parameter, declares {@code varCount} int
+ * variables, and then has about {@code methodSize} statements. Each
+ * statement is an assignment, or with the given densities, an if-else
+ * branch or a loop whose bodies are nested statements. If
+ * {@code switchFanOut} is positive, every fourth branch is a switch
+ * with that many cases instead. The programs are determined by the
+ * seed, so that the runs are reproducible.
+ * <p>
+ * Note that javac rejects the methods whose bytecode exceeds 64KB,
+ * i.e., about 4000 statements (fewer with thousands of variables),
+ * thus larger programs should be spread over more methods.
+ */
+public class ProgramGenerator {
+
+    /**
+     * Default directory of the generated programs.
+     */
+    public static final String OUTPUT_DIR = "build/generated/dataflow";
+
+    /**
+     * Maximum nesting depth of branches and loops.
+     */
+    private static final int MAX_DEPTH = 4;
+
+    private static final String[] OPERATORS = { "+", "-", "*", "&", "|", "^" };
+
+    private final int methodSize;
+
+    private final int varCount;
+
+    private final double branchDensity;
+
+    private final double loopDensity;
+
+    private final int switchFanOut;
+
+    private final long seed;
+
+    /**
+     * @param methodSize    number of statements of each method.
+     * @param varCount      number of variables of each method.
+     * @param branchDensity probability of a statement being a branch.
+     * @param loopDensity   probability of a statement being a loop.
+     * @param switchFanOut  number of cases of the switches, or 0 to
+     *                      generate no switches.
+     * @param seed          seed of the random choices.
+     */
+    public ProgramGenerator(int methodSize, int varCount,
+                            double branchDensity, double loopDensity,
+                            int switchFanOut, long seed) {
+        if (varCount < 2) {
+            throw new IllegalArgumentException("varCount must be at least 2");
+        }
+        this.methodSize = methodSize;
+        this.varCount = varCount;
+        this.branchDensity = branchDensity;
+        this.loopDensity = loopDensity;
+        this.switchFanOut = switchFanOut;
+        this.seed = seed;
+    }
+
+    /**
+     * @return the source code of a class named {@code className},
+     * which has {@code methodCount} generated methods.
+     */
+    public String generate(String className, int methodCount) {
+        StringBuilder out = new StringBuilder();
+        out.append("class ").append(className).append(" {\n");
+        for (int i = 0; i < methodCount; ++i) {
+            out.append('\n');
+            new MethodWriter(out, new Random(seed + i)).write("m" + i);
+        }
+        out.append("}\n");
+        return out.toString();
+    }
+
+    /**
+     * Writes the source code of the class generated by
+     * {@link #generate(String, int)} to {@code dir}, and compiles it
+     * there by javac. The class files target Java 8, which is readable
+     * by the front end of Tai-e.
+     *
+     * @return the path of the source file.
+     */
+    public Path generateAndCompile(Path dir, String className, int methodCount)
+            throws IOException {
+        Files.createDirectories(dir);
+        Path source = dir.resolve(className + ".java");
+        Files.writeString(source, generate(className, methodCount));
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        int exit = javac.run(null, null, null, "-nowarn", "--release", "8",
+                "-d", dir.toString(), source.toString());
+        if (exit != 0) {
+            throw new IllegalStateException("Failed to compile " + source);
+        }
+        return source;
+    }
+
+    /**
+     * Writes one method.
+     */
+    private class MethodWriter {
+
+        private final StringBuilder out;
+
+        private final Random random;
+
+        /**
+         * Number of the statements to be written.
+         */
+        private int budget = methodSize;
+
+        private int branches = 0;
+
+        /**
+         * Number of the loop counters declared so far.
+         */
+        private int counters = 0;
+
+        private MethodWriter(StringBuilder out, Random random) {
+            this.out = out;
+            this.random = random;
+        }
+
+        private void write(String name) {
+            out.append("    static int ").append(name).append("(int p) {\n");
+            for (int i = 0; i < varCount; ++i) {
+                indent(2).append("int v").append(i)
+                        .append(" = p + ").append(i).append(";\n");
+            }
+            while (budget > 0) {
+                writeStmt(2);
+            }
+            indent(2).append("return ").append(var()).append(" + ")
+                    .append(var()).append(";\n");
+            out.append("    }\n");
+        }
+
+        private void writeStmt(int depth) {
+            --budget;
+            double choice = random.nextDouble();
+            if (depth - 2 < MAX_DEPTH && choice < branchDensity) {
+                if (switchFanOut > 0 && ++branches % 4 == 0) {
+                    writeSwitch(depth);
+                } else {
+                    writeIf(depth);
+                }
+            } else if (depth - 2 < MAX_DEPTH
+                    && choice < branchDensity + loopDensity) {
+                writeLoop(depth);
+            } else {
+                indent(depth).append(var()).append(" = ").append(var())
+                        .append(' ').append(OPERATORS[random.nextInt(OPERATORS.length)])
+                        .append(' ').append(operand()).append(";\n");
+            }
+        }
+
+        private void writeIf(int depth) {
+            indent(depth).append("if (").append(var()).append(" < ")
+                    .append(operand()).append(") {\n");
+            writeBody(depth + 1);
+            indent(depth).append("} else {\n");
+            writeBody(depth + 1);
+            indent(depth).append("}\n");
+        }
+
+        private void writeSwitch(int depth) {
+            indent(depth).append("switch (").append(var()).append(") {\n");
+            for (int i = 0; i < switchFanOut; ++i) {
+                indent(depth + 1).append("case ").append(i).append(":\n");
+                writeBody(depth + 2);
+                indent(depth + 2).append("break;\n");
+            }
+            indent(depth + 1).append("default:\n");
+            writeBody(depth + 2);
+            indent(depth).append("}\n");
+        }
+
+        private void writeLoop(int depth) {
+            String counter = "i" + counters++;
+            indent(depth).append("for (int ").append(counter).append(" = 0; ")
+                    .append(counter).append(" < ").append(var()).append("; ++")
+                    .append(counter).append(") {\n");
+            writeBody(depth + 1);
+            indent(depth).append("}\n");
+        }
+
+        /**
+         * Writes 1 to 4 statements, within the budget if possible.
+         */
+        private void writeBody(int depth) {
+            int size = 1 + random.nextInt(4);
+            for (int i = 0; i < size && (i == 0 || budget > 0); ++i) {
+                writeStmt(depth);
+            }
+        }
+
+        private String var() {
+            return "v" + random.nextInt(varCount);
+        }
+
+        private String operand() {
+            return random.nextInt(4) == 0
+                    ? Integer.toString(random.nextInt(16)) : var();
+        }
+
+        private StringBuilder indent(int depth) {
+            return out.append("    ".repeat(depth));
+        }
+    }
+}
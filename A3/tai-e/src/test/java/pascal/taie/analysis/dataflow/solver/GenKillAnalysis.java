@@ -0,0 +1,116 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Synthetic analysis over integer nodes, e.g., of
+ * {@link pascal.taie.analysis.graph.cfg.SyntheticCFG}, which can be
+ * forward or backward. Node n kills bit n mod bits, and by default generates
+ * bit (n + bits / 2) mod bits, thus a fact keeps the bits generated
+ * by the last bits / 2 nodes along a chain. The facts are met by union.
+ * The generated bit of a node can be changed to simulate an edit of
+ * the node. It counts the calls to its node transfer function.
+ */
+class GenKillAnalysis implements DataflowAnalysis<Integer, BitSet> {
+
+    private final boolean forward;
+
+    private final int bits;
+
+    private final Map<Integer, Integer> gens = new HashMap<>();
+
+    private long transfers;
+
+    GenKillAnalysis(boolean forward, int bits) {
+        this.forward = forward;
+        this.bits = bits;
+    }
+
+    /**
+     * Changes the bit generated by given node.
+     */
+    void setGen(int node, int bit) {
+        gens.put(node, bit);
+    }
+
+    /**
+     * @return number of the calls to the node transfer function.
+     */
+    long getTransfers() {
+        return transfers;
+    }
+
+    @Override
+    public boolean isForward() {
+        return forward;
+    }
+
+    @Override
+    public BitSet newBoundaryFact(CFG<Integer> cfg) {
+        return new BitSet(bits);
+    }
+
+    @Override
+    public BitSet newInitialFact() {
+        return new BitSet(bits);
+    }
+
+    @Override
+    public void meetInto(BitSet fact, BitSet target) {
+        target.or(fact);
+    }
+
+    @Override
+    public boolean transferNode(Integer node, BitSet in, BitSet out) {
+        ++transfers;
+        BitSet source = forward ? in : out;
+        BitSet target = forward ? out : in;
+        BitSet newTarget = (BitSet) source.clone();
+        newTarget.clear(node % bits);
+        newTarget.set(gens.getOrDefault(node, (node + bits / 2) % bits));
+        if (newTarget.equals(target)) {
+            return false;
+        }
+        target.clear();
+        target.or(newTarget);
+        return true;
+    }
+
+    @Override
+    public boolean needTransferEdge(Edge<Integer> edge) {
+        return false;
+    }
+
+    @Override
+    public BitSet transferEdge(Edge<Integer> edge, BitSet nodeFact) {
+        return nodeFact;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.SyntheticCFG;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+public class SolverTest {
+
+    private static final String[] SOLVERS = {"rpo-worklist", "block", "scc"};
+
+    void testSolvers(boolean forward) {
+        for (long seed = 0; seed < 20; ++seed) {
+            SyntheticCFG cfg = new SyntheticCFG(200, 0.05, 0.1, seed);
+            for (String kind : SOLVERS) {
+                countTransfers(cfg, forward, kind);
+            }
+        }
+    }
+
+    @Test
+    public void testForward() {
+        testSolvers(true);
+    }
+
+    @Test
+    public void testBackward() {
+        testSolvers(false);
+    }
+
+    @Test
+    public void testSCCWithoutLoops() {
+        for (boolean forward : new boolean[]{true, false}) {
+            SyntheticCFG cfg = new SyntheticCFG(200, 0, 0.1, 0);
+            // each node except the boundary is transferred once
+            Assert.assertEquals(cfg.getNumberOfNodes() - 1,
+                    countTransfers(cfg, forward, "scc"));
+        }
+    }
+
+    /**
+     * On CFGs with many nested loops, stabilizing the inner loops first
+     * takes fewer node transfers than the reverse post-order work-list.
+     */
+    @Test
+    public void testSCCFewerTransfers() {
+        for (boolean forward : new boolean[]{true, false}) {
+            long rpo = 0, scc = 0;
+            for (long seed = 0; seed < 20; ++seed) {
+                SyntheticCFG cfg = new SyntheticCFG(200, 0.2, 0.1, seed);
+                rpo += countTransfers(cfg, forward, "rpo-worklist");
+                scc += countTransfers(cfg, forward, "scc");
+            }
+            Assert.assertTrue("scc: " + scc + ", rpo-worklist: " + rpo,
+                    scc < rpo);
+        }
+    }
+
+    /**
+     * Solves the analysis on given CFG with given kind of solver,
+     * and checks the result against the work-list solver.
+     *
+     * @return the number of the node transfers of the solver.
+     */
+    private static long countTransfers(SyntheticCFG cfg, boolean forward, String kind) {
+        GenKillAnalysis analysis = new GenKillAnalysis(forward, 64);
+        NodeResult<Integer, BitSet> result =
+                Solver.makeSolver(analysis, kind).solve(cfg);
+        // block results recompute the facts when queried, which
+        // must not be counted as the transfers of solving
+        long transfers = analysis.getTransfers();
+        assertSameResult(cfg, Solver.makeSolver(
+                        new GenKillAnalysis(forward, 64), "worklist").solve(cfg),
+                result, kind + " differs from worklist");
+        return transfers;
+    }
+
+    /**
+     * Edits random nodes of random CFGs, and checks that the resolved
+     * results equal the results solved from scratch.
+     */
+    @Test
+    public void testResolve() {
+        for (String kind : new String[]{"worklist", "rpo-worklist", "scc"}) {
+            for (boolean forward : new boolean[]{true, false}) {
+                for (long seed = 0; seed < 10; ++seed) {
+                    SyntheticCFG cfg = new SyntheticCFG(200, 0.05, 0.1, seed);
+                    GenKillAnalysis analysis = new GenKillAnalysis(forward, 8);
+                    Solver<Integer, BitSet> solver = Solver.makeSolver(analysis, kind);
+                    NodeResult<Integer, BitSet> result = solver.solve(cfg);
+                    Random random = new Random(seed);
+                    for (int edit = 0; edit < 20; ++edit) {
+                        int node = 1 + random.nextInt(200);
+                        analysis.setGen(node, random.nextInt(8));
+                        result = solver.resolve(cfg, result, List.of(node));
+                        assertSameResult(cfg, Solver.makeSolver(analysis, kind).solve(cfg),
+                                result, kind + " at edit " + edit + " of seed " + seed);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a local edit of a large CFG only visits the nodes
+     * whose facts change, instead of all nodes after the edit.
+     */
+    @Test
+    public void testResolveLocalEdit() {
+        for (boolean forward : new boolean[]{true, false}) {
+            int size = 5000;
+            SyntheticCFG cfg = new SyntheticCFG(size, 0.05, 0.1, 0);
+            GenKillAnalysis analysis = new GenKillAnalysis(forward, 8);
+            Solver<Integer, BitSet> solver = Solver.makeSolver(analysis, "rpo-worklist");
+            NodeResult<Integer, BitSet> result = solver.solve(cfg);
+            // edit a node near the boundary, which all other nodes depend on
+            int node = forward ? 10 : size - 10;
+            analysis.setGen(node, (node + 5) % 8);
+            long before = analysis.getTransfers();
+            result = solver.resolve(cfg, result, List.of(node));
+            long visits = analysis.getTransfers() - before;
+            Assert.assertTrue("too many visits: " + visits, visits < size / 20);
+            assertSameResult(cfg, Solver.makeSolver(analysis, "worklist").solve(cfg),
+                    result, "local edit");
+        }
+    }
+
+    private static void assertSameResult(
+            SyntheticCFG cfg, NodeResult<Integer, BitSet> expected,
+            NodeResult<Integer, BitSet> result, String message) {
+        for (Integer node : cfg) {
+            // the in (out) fact of the entry (exit) may be absent
+            Assert.assertTrue(message + ", node " + node,
+                    Objects.equals(expected.getInFact(node), result.getInFact(node)) &&
+                            Objects.equals(expected.getOutFact(node), result.getOutFact(node)));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Randomly generated CFG for exercising the intra-procedural solvers
+ * without the front end. The nodes are integers, and the CFG has
+ * no IR and no method, thus {@link #getIR()} and {@link #getMethod()}
+ * return null.
+ * <p>
+ * Node 0 is the entry, followed by a chain of body nodes with random
+ * back edges (loops) and forward edges (branches), and the last node
+ * is the exit, thus every node is reachable from the entry and
+ * reaches the exit.
+ */
+public class SyntheticCFG implements CFG<Integer> {
+
+    private final List<Set<Edge<Integer>>> inEdges = new ArrayList<>();
+
+    private final List<Set<Edge<Integer>>> outEdges = new ArrayList<>();
+
+    private final Set<Integer> nodes = new LinkedHashSet<>();
+
+    /**
+     * @param size     number of the body nodes.
+     * @param loops    probability of a body node to have a back edge.
+     * @param branches probability of a body node to have a forward edge.
+     * @param seed     seed of the random generator.
+     */
+    public SyntheticCFG(int size, double loops, double branches, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < size + 2; ++i) {
+            nodes.add(i);
+            inEdges.add(new LinkedHashSet<>());
+            outEdges.add(new LinkedHashSet<>());
+        }
+        addEdge(Edge.Kind.ENTRY, 0, 1);
+        for (int i = 1; i <= size; ++i) {
+            addEdge(i == size ? Edge.Kind.RETURN : Edge.Kind.FALL_THROUGH, i, i + 1);
+            if (random.nextDouble() < loops) {
+                // loops are local, so that the CFG has many small SCCs
+                addEdge(Edge.Kind.GOTO, i, Math.max(1, i - random.nextInt(20)));
+            }
+            if (random.nextDouble() < branches && i < size) {
+                addEdge(Edge.Kind.IF_TRUE, i, i + 1 + random.nextInt(size - i));
+            }
+        }
+    }
+
+    private void addEdge(Edge.Kind kind, int source, int target) {
+        if (!hasEdge(source, target)) {
+            Edge<Integer> edge = new Edge<>(kind, source, target);
+            outEdges.get(source).add(edge);
+            inEdges.get(target).add(edge);
+        }
+    }
+
+    @Override
+    public IR getIR() {
+        return null;
+    }
+
+    @Override
+    public JMethod getMethod() {
+        return null;
+    }
+
+    @Override
+    public Integer getEntry() {
+        return 0;
+    }
+
+    @Override
+    public Integer getExit() {
+        return nodes.size() - 1;
+    }
+
+    @Override
+    public boolean isEntry(Integer node) {
+        return node == 0;
+    }
+
+    @Override
+    public boolean isExit(Integer node) {
+        return node == nodes.size() - 1;
+    }
+
+    @Override
+    public boolean hasNode(Integer node) {
+        return nodes.contains(node);
+    }
+
+    @Override
+    public boolean hasEdge(Integer source, Integer target) {
+        return outEdges.get(source)
+                .stream()
+                .anyMatch(edge -> edge.getTarget().equals(target));
+    }
+
+    @Override
+    public Set<Integer> getPredsOf(Integer node) {
+        return inEdges.get(node)
+                .stream()
+                .map(Edge::getSource)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public Set<Integer> getSuccsOf(Integer node) {
+        return outEdges.get(node)
+                .stream()
+                .map(Edge::getTarget)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public Set<Edge<Integer>> getInEdgesOf(Integer node) {
+        return inEdges.get(node);
+    }
+
+    @Override
+    public Set<Edge<Integer>> getOutEdgesOf(Integer node) {
+        return outEdges.get(node);
+    }
+
+    @Override
+    public Set<Integer> getNodes() {
+        return nodes;
+    }
+}
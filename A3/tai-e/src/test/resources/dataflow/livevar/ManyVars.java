@@ -0,0 +1,871 @@
+/**
+ * Methods with many variables, each of which is used only a few times.
+ */
+class ManyVars {
+
+    int wide(int p, int q) {
+        int v0 = p;
+        int v1 = q;
+        int v2 = v0 * v0;
+        int v3 = v1 + v1;
+        int v4 = v1 * v3;
+        int v5 = v3 - v1;
+        int v6 = v2 - v3;
+        int v7 = v1 * v2;
+        int v8 = v1 * v5;
+        if (v8 > p) {
+            v1 = v8 - 1;
+        }
+        int v9 = v3 + v4;
+        int v10 = v5 * v5;
+        int v11 = v8 * v6;
+        int v12 = v11 * v7;
+        int v13 = v9 + v9;
+        int v14 = v11 + v12;
+        int v15 = v13 * v12;
+        int v16 = v12 * v12;
+        if (v16 > p) {
+            v12 = v16 - 1;
+        }
+        int v17 = v13 - v10;
+        int v18 = v17 - v12;
+        int v19 = v13 + v14;
+        int v20 = v18 - v14;
+        int v21 = v20 * v14;
+        int v22 = v17 * v18;
+        int v23 = v20 + v22;
+        int v24 = v23 - v18;
+        if (v24 > p) {
+            v23 = v24 - 1;
+        }
+        int v25 = v19 + v24;
+        int v26 = v21 * v19;
+        int v27 = v24 * v22;
+        int v28 = v26 + v20;
+        int v29 = v22 - v28;
+        int v30 = v28 - v24;
+        int v31 = v29 - v25;
+        int v32 = v30 + v29;
+        if (v32 > p) {
+            v30 = v32 - 1;
+        }
+        int v33 = v30 * v30;
+        int v34 = v30 - v28;
+        int v35 = v27 + v33;
+        int v36 = v30 + v34;
+        int v37 = v36 + v30;
+        int v38 = v34 * v36;
+        int v39 = v37 * v38;
+        int v40 = v39 + v38;
+        if (v40 > p) {
+            v39 = v40 - 1;
+        }
+        while (v40 < q) {
+            v40 = v40 + v39;
+        }
+        int v41 = v36 + v35;
+        int v42 = v39 - v38;
+        int v43 = v35 - v36;
+        int v44 = v38 + v38;
+        int v45 = v41 + v38;
+        int v46 = v41 - v40;
+        int v47 = v40 + v44;
+        int v48 = v45 + v45;
+        if (v48 > p) {
+            v45 = v48 - 1;
+        }
+        int v49 = v45 * v46;
+        int v50 = v44 * v48;
+        int v51 = v49 * v49;
+        int v52 = v44 - v48;
+        int v53 = v45 - v49;
+        int v54 = v50 + v47;
+        int v55 = v51 - v49;
+        int v56 = v50 + v55;
+        if (v56 > p) {
+            v50 = v56 - 1;
+        }
+        int v57 = v50 * v54;
+        int v58 = v54 * v57;
+        int v59 = v52 * v54;
+        int v60 = v53 - v59;
+        int v61 = v55 + v54;
+        int v62 = v59 * v61;
+        int v63 = v61 * v61;
+        int v64 = v60 + v63;
+        if (v64 > p) {
+            v60 = v64 - 1;
+        }
+        int v65 = v60 + v60;
+        int v66 = v59 * v64;
+        int v67 = v64 * v60;
+        int v68 = v60 + v64;
+        int v69 = v64 * v63;
+        int v70 = v67 + v62;
+        int v71 = v66 - v70;
+        int v72 = v64 * v70;
+        if (v72 > p) {
+            v64 = v72 - 1;
+        }
+        int v73 = v67 - v69;
+        int v74 = v68 * v73;
+        int v75 = v70 - v71;
+        int v76 = v68 * v73;
+        int v77 = v69 - v76;
+        int v78 = v74 + v70;
+        int v79 = v74 + v71;
+        int v80 = v76 + v75;
+        if (v80 > p) {
+            v76 = v80 - 1;
+        }
+        while (v80 < q) {
+            v80 = v80 + v79;
+        }
+        int v81 = v79 * v74;
+        int v82 = v76 - v74;
+        int v83 = v78 + v82;
+        int v84 = v83 + v83;
+        int v85 = v80 - v84;
+        int v86 = v82 - v84;
+        int v87 = v81 - v82;
+        int v88 = v85 - v84;
+        if (v88 > p) {
+            v85 = v88 - 1;
+        }
+        int v89 = v84 * v81;
+        int v90 = v83 - v84;
+        int v91 = v84 - v84;
+        int v92 = v88 + v89;
+        int v93 = v92 + v86;
+        int v94 = v91 - v88;
+        int v95 = v92 - v87;
+        int v96 = v93 + v91;
+        if (v96 > p) {
+            v93 = v96 - 1;
+        }
+        int v97 = v93 + v92;
+        int v98 = v92 - v92;
+        int v99 = v94 * v91;
+        int v100 = v92 * v94;
+        int v101 = v98 + v95;
+        int v102 = v97 - v96;
+        int v103 = v99 * v100;
+        int v104 = v101 - v101;
+        if (v104 > p) {
+            v101 = v104 - 1;
+        }
+        int v105 = v101 + v102;
+        int v106 = v105 - v103;
+        int v107 = v105 * v104;
+        int v108 = v101 - v104;
+        int v109 = v103 - v104;
+        int v110 = v107 - v105;
+        int v111 = v107 - v106;
+        int v112 = v106 - v108;
+        if (v112 > p) {
+            v106 = v112 - 1;
+        }
+        int v113 = v111 - v110;
+        int v114 = v113 + v110;
+        int v115 = v111 * v107;
+        int v116 = v114 * v111;
+        int v117 = v115 * v109;
+        int v118 = v111 + v115;
+        int v119 = v117 + v117;
+        int v120 = v118 - v117;
+        if (v120 > p) {
+            v118 = v120 - 1;
+        }
+        while (v120 < q) {
+            v120 = v120 + v119;
+        }
+        int v121 = v118 * v116;
+        int v122 = v120 * v118;
+        int v123 = v121 * v118;
+        int v124 = v117 + v119;
+        int v125 = v123 - v122;
+        int v126 = v124 * v123;
+        int v127 = v124 * v124;
+        int v128 = v125 - v122;
+        if (v128 > p) {
+            v125 = v128 - 1;
+        }
+        int v129 = v123 - v121;
+        int v130 = v122 - v125;
+        int v131 = v126 * v128;
+        int v132 = v131 - v125;
+        int v133 = v129 + v130;
+        int v134 = v127 + v130;
+        int v135 = v131 * v130;
+        int v136 = v134 + v134;
+        if (v136 > p) {
+            v134 = v136 - 1;
+        }
+        int v137 = v130 - v130;
+        int v138 = v135 - v135;
+        int v139 = v134 + v131;
+        int v140 = v134 * v134;
+        int v141 = v133 * v133;
+        int v142 = v136 * v140;
+        int v143 = v136 * v137;
+        int v144 = v139 - v142;
+        if (v144 > p) {
+            v139 = v144 - 1;
+        }
+        int v145 = v140 + v142;
+        int v146 = v144 + v144;
+        int v147 = v145 - v142;
+        int v148 = v145 * v147;
+        int v149 = v148 - v141;
+        int v150 = v143 * v142;
+        int v151 = v147 + v145;
+        int v152 = v148 * v146;
+        if (v152 > p) {
+            v148 = v152 - 1;
+        }
+        int v153 = v150 + v146;
+        int v154 = v146 + v146;
+        int v155 = v151 - v152;
+        int v156 = v152 * v155;
+        int v157 = v151 - v154;
+        int v158 = v154 + v151;
+        int v159 = v154 + v157;
+        int v160 = v154 * v156;
+        if (v160 > p) {
+            v154 = v160 - 1;
+        }
+        while (v160 < q) {
+            v160 = v160 + v159;
+        }
+        int v161 = v158 * v156;
+        int v162 = v154 * v154;
+        int v163 = v162 - v156;
+        int v164 = v161 * v157;
+        int v165 = v163 - v158;
+        int v166 = v160 - v158;
+        int v167 = v159 + v163;
+        int v168 = v166 + v162;
+        if (v168 > p) {
+            v166 = v168 - 1;
+        }
+        int v169 = v163 - v168;
+        int v170 = v165 + v162;
+        int v171 = v168 - v168;
+        int v172 = v166 - v170;
+        int v173 = v168 + v170;
+        int v174 = v171 * v173;
+        int v175 = v173 - v172;
+        int v176 = v171 * v174;
+        if (v176 > p) {
+            v171 = v176 - 1;
+        }
+        int v177 = v175 - v171;
+        int v178 = v170 + v175;
+        int v179 = v174 - v178;
+        int v180 = v176 + v178;
+        int v181 = v174 * v177;
+        int v182 = v174 * v174;
+        int v183 = v176 + v182;
+        int v184 = v182 * v177;
+        if (v184 > p) {
+            v182 = v184 - 1;
+        }
+        int v185 = v183 + v182;
+        int v186 = v182 - v178;
+        int v187 = v181 + v184;
+        int v188 = v181 * v182;
+        int v189 = v183 + v184;
+        int v190 = v187 - v182;
+        int v191 = v187 + v189;
+        int v192 = v191 * v187;
+        if (v192 > p) {
+            v191 = v192 - 1;
+        }
+        int v193 = v190 + v187;
+        int v194 = v187 - v190;
+        int v195 = v189 - v192;
+        int v196 = v194 + v188;
+        int v197 = v190 * v193;
+        int v198 = v197 - v194;
+        int v199 = v197 - v198;
+        return v199 + v198;
+    }
+
+    int wider(int p, int q) {
+        int v0 = p;
+        int v1 = q;
+        int v2 = v1 * v0;
+        int v3 = v1 * v2;
+        int v4 = v3 * v2;
+        int v5 = v0 * v1;
+        int v6 = v4 * v1;
+        int v7 = v2 * v2;
+        int v8 = v0 * v7;
+        if (v8 > p) {
+            v0 = v8 - 1;
+        }
+        int v9 = v4 + v3;
+        int v10 = v4 * v5;
+        int v11 = v4 + v7;
+        int v12 = v5 - v4;
+        int v13 = v8 + v12;
+        int v14 = v13 + v6;
+        int v15 = v9 - v11;
+        int v16 = v8 - v8;
+        if (v16 > p) {
+            v8 = v16 - 1;
+        }
+        int v17 = v15 + v9;
+        int v18 = v15 - v14;
+        int v19 = v12 * v14;
+        int v20 = v16 - v16;
+        int v21 = v19 - v17;
+        int v22 = v19 * v15;
+        int v23 = v15 + v16;
+        int v24 = v22 * v16;
+        if (v24 > p) {
+            v22 = v24 - 1;
+        }
+        int v25 = v19 + v22;
+        int v26 = v19 * v19;
+        int v27 = v20 + v19;
+        int v28 = v24 - v27;
+        int v29 = v22 + v22;
+        int v30 = v29 * v22;
+        int v31 = v29 - v28;
+        int v32 = v27 - v26;
+        if (v32 > p) {
+            v27 = v32 - 1;
+        }
+        int v33 = v31 + v30;
+        int v34 = v29 + v30;
+        int v35 = v29 + v32;
+        int v36 = v35 * v34;
+        int v37 = v36 + v32;
+        int v38 = v30 - v35;
+        int v39 = v38 - v32;
+        int v40 = v34 + v32;
+        if (v40 > p) {
+            v34 = v40 - 1;
+        }
+        while (v40 < q) {
+            v40 = v40 + v39;
+        }
+        int v41 = v34 - v38;
+        int v42 = v34 - v35;
+        int v43 = v36 - v42;
+        int v44 = v36 + v36;
+        int v45 = v40 + v43;
+        int v46 = v39 + v40;
+        int v47 = v46 - v44;
+        int v48 = v42 * v46;
+        if (v48 > p) {
+            v42 = v48 - 1;
+        }
+        int v49 = v42 * v47;
+        int v50 = v43 - v49;
+        int v51 = v45 * v48;
+        int v52 = v50 * v45;
+        int v53 = v48 + v47;
+        int v54 = v46 + v46;
+        int v55 = v51 + v53;
+        int v56 = v55 - v52;
+        if (v56 > p) {
+            v55 = v56 - 1;
+        }
+        int v57 = v49 + v50;
+        int v58 = v50 + v57;
+        int v59 = v51 + v55;
+        int v60 = v59 - v57;
+        int v61 = v55 * v58;
+        int v62 = v59 - v58;
+        int v63 = v59 - v55;
+        int v64 = v62 + v57;
+        if (v64 > p) {
+            v62 = v64 - 1;
+        }
+        int v65 = v61 - v57;
+        int v66 = v61 * v62;
+        int v67 = v63 + v64;
+        int v68 = v64 + v62;
+        int v69 = v61 + v64;
+        int v70 = v69 + v69;
+        int v71 = v67 + v69;
+        int v72 = v68 - v67;
+        if (v72 > p) {
+            v68 = v72 - 1;
+        }
+        int v73 = v71 + v71;
+        int v74 = v66 + v66;
+        int v75 = v72 + v69;
+        int v76 = v68 * v75;
+        int v77 = v73 * v69;
+        int v78 = v76 + v76;
+        int v79 = v75 * v75;
+        int v80 = v74 * v73;
+        if (v80 > p) {
+            v74 = v80 - 1;
+        }
+        while (v80 < q) {
+            v80 = v80 + v79;
+        }
+        int v81 = v76 * v80;
+        int v82 = v75 - v74;
+        int v83 = v76 + v82;
+        int v84 = v78 - v83;
+        int v85 = v82 * v81;
+        int v86 = v82 * v82;
+        int v87 = v84 - v84;
+        int v88 = v83 - v82;
+        if (v88 > p) {
+            v83 = v88 - 1;
+        }
+        int v89 = v86 * v84;
+        int v90 = v89 * v87;
+        int v91 = v85 + v87;
+        int v92 = v90 - v85;
+        int v93 = v91 + v90;
+        int v94 = v87 * v90;
+        int v95 = v90 - v91;
+        int v96 = v94 * v89;
+        if (v96 > p) {
+            v94 = v96 - 1;
+        }
+        int v97 = v94 - v96;
+        int v98 = v93 + v94;
+        int v99 = v94 - v98;
+        int v100 = v92 - v97;
+        int v101 = v94 * v93;
+        int v102 = v98 + v100;
+        int v103 = v101 * v98;
+        int v104 = v98 * v97;
+        if (v104 > p) {
+            v98 = v104 - 1;
+        }
+        int v105 = v100 - v98;
+        int v106 = v99 + v99;
+        int v107 = v101 + v105;
+        int v108 = v105 + v107;
+        int v109 = v107 - v102;
+        int v110 = v105 + v103;
+        int v111 = v107 + v110;
+        int v112 = v106 + v105;
+        if (v112 > p) {
+            v106 = v112 - 1;
+        }
+        int v113 = v107 * v105;
+        int v114 = v109 + v111;
+        int v115 = v107 * v112;
+        int v116 = v109 * v110;
+        int v117 = v111 - v113;
+        int v118 = v116 * v115;
+        int v119 = v118 - v115;
+        int v120 = v118 * v117;
+        if (v120 > p) {
+            v118 = v120 - 1;
+        }
+        while (v120 < q) {
+            v120 = v120 + v119;
+        }
+        int v121 = v117 + v119;
+        int v122 = v119 - v121;
+        int v123 = v116 + v117;
+        int v124 = v123 - v119;
+        int v125 = v122 * v117;
+        int v126 = v125 + v123;
+        int v127 = v120 + v121;
+        int v128 = v122 * v123;
+        if (v128 > p) {
+            v122 = v128 - 1;
+        }
+        int v129 = v125 + v127;
+        int v130 = v125 * v126;
+        int v131 = v129 - v130;
+        int v132 = v127 + v128;
+        int v133 = v131 * v125;
+        int v134 = v129 - v128;
+        int v135 = v127 - v133;
+        int v136 = v132 + v133;
+        if (v136 > p) {
+            v132 = v136 - 1;
+        }
+        int v137 = v134 - v136;
+        int v138 = v137 - v135;
+        int v139 = v133 * v136;
+        int v140 = v134 + v139;
+        int v141 = v133 * v134;
+        int v142 = v139 - v141;
+        int v143 = v139 * v138;
+        int v144 = v136 + v137;
+        if (v144 > p) {
+            v136 = v144 - 1;
+        }
+        int v145 = v137 + v140;
+        int v146 = v139 + v144;
+        int v147 = v139 - v139;
+        int v148 = v144 - v143;
+        int v149 = v145 + v148;
+        int v150 = v146 + v142;
+        int v151 = v147 * v144;
+        int v152 = v146 * v144;
+        if (v152 > p) {
+            v146 = v152 - 1;
+        }
+        int v153 = v151 * v145;
+        int v154 = v149 - v153;
+        int v155 = v152 + v154;
+        int v156 = v152 * v148;
+        int v157 = v152 - v150;
+        int v158 = v152 * v153;
+        int v159 = v156 * v155;
+        int v160 = v158 - v152;
+        if (v160 > p) {
+            v158 = v160 - 1;
+        }
+        while (v160 < q) {
+            v160 = v160 + v159;
+        }
+        int v161 = v159 - v153;
+        int v162 = v159 * v159;
+        int v163 = v156 * v160;
+        int v164 = v157 + v160;
+        int v165 = v162 * v163;
+        int v166 = v161 * v162;
+        int v167 = v159 * v161;
+        int v168 = v167 - v167;
+        if (v168 > p) {
+            v167 = v168 - 1;
+        }
+        int v169 = v166 + v166;
+        int v170 = v167 - v167;
+        int v171 = v170 - v167;
+        int v172 = v168 - v165;
+        int v173 = v168 * v167;
+        int v174 = v169 * v166;
+        int v175 = v170 * v168;
+        int v176 = v172 * v171;
+        if (v176 > p) {
+            v172 = v176 - 1;
+        }
+        int v177 = v172 + v169;
+        int v178 = v177 - v172;
+        int v179 = v177 + v172;
+        int v180 = v176 - v176;
+        int v181 = v177 + v173;
+        int v182 = v180 + v177;
+        int v183 = v178 - v177;
+        int v184 = v176 * v178;
+        if (v184 > p) {
+            v176 = v184 - 1;
+        }
+        int v185 = v180 * v184;
+        int v186 = v185 + v179;
+        int v187 = v180 - v183;
+        int v188 = v186 - v181;
+        int v189 = v185 * v188;
+        int v190 = v182 * v189;
+        int v191 = v187 + v183;
+        int v192 = v187 - v187;
+        if (v192 > p) {
+            v187 = v192 - 1;
+        }
+        int v193 = v189 + v185;
+        int v194 = v192 * v193;
+        int v195 = v192 + v193;
+        int v196 = v191 + v194;
+        int v197 = v193 * v194;
+        int v198 = v194 + v193;
+        int v199 = v197 * v197;
+        int v200 = v193 - v192;
+        if (v200 > p) {
+            v193 = v200 - 1;
+        }
+        while (v200 < q) {
+            v200 = v200 + v199;
+        }
+        int v201 = v194 * v196;
+        int v202 = v198 - v194;
+        int v203 = v197 - v197;
+        int v204 = v198 - v198;
+        int v205 = v204 - v199;
+        int v206 = v198 * v202;
+        int v207 = v199 + v206;
+        int v208 = v204 - v203;
+        if (v208 > p) {
+            v204 = v208 - 1;
+        }
+        int v209 = v206 + v206;
+        int v210 = v209 - v204;
+        int v211 = v207 - v206;
+        int v212 = v208 * v205;
+        int v213 = v210 - v209;
+        int v214 = v208 - v207;
+        int v215 = v210 * v214;
+        int v216 = v211 * v212;
+        if (v216 > p) {
+            v211 = v216 - 1;
+        }
+        int v217 = v214 + v214;
+        int v218 = v210 - v213;
+        int v219 = v212 + v217;
+        int v220 = v212 - v216;
+        int v221 = v220 - v214;
+        int v222 = v221 * v216;
+        int v223 = v221 - v215;
+        int v224 = v217 - v222;
+        if (v224 > p) {
+            v217 = v224 - 1;
+        }
+        int v225 = v218 + v217;
+        int v226 = v223 + v219;
+        int v227 = v223 * v221;
+        int v228 = v223 - v223;
+        int v229 = v225 * v227;
+        int v230 = v223 * v228;
+        int v231 = v223 * v223;
+        int v232 = v229 * v226;
+        if (v232 > p) {
+            v229 = v232 - 1;
+        }
+        int v233 = v225 * v230;
+        int v234 = v232 * v233;
+        int v235 = v233 + v232;
+        int v236 = v228 * v230;
+        int v237 = v230 - v235;
+        int v238 = v230 - v237;
+        int v239 = v233 * v234;
+        int v240 = v237 - v234;
+        if (v240 > p) {
+            v237 = v240 - 1;
+        }
+        while (v240 < q) {
+            v240 = v240 + v239;
+        }
+        int v241 = v235 - v238;
+        int v242 = v241 + v234;
+        int v243 = v238 * v239;
+        int v244 = v243 + v241;
+        int v245 = v240 - v242;
+        int v246 = v243 * v239;
+        int v247 = v245 * v241;
+        int v248 = v241 * v247;
+        if (v248 > p) {
+            v241 = v248 - 1;
+        }
+        int v249 = v247 + v245;
+        int v250 = v248 - v245;
+        int v251 = v243 * v244;
+        int v252 = v245 + v248;
+        int v253 = v252 + v245;
+        int v254 = v251 + v247;
+        int v255 = v252 + v250;
+        int v256 = v252 * v255;
+        if (v256 > p) {
+            v252 = v256 - 1;
+        }
+        int v257 = v256 * v255;
+        int v258 = v257 + v257;
+        int v259 = v257 - v258;
+        int v260 = v258 * v257;
+        int v261 = v256 * v258;
+        int v262 = v258 * v256;
+        int v263 = v259 * v260;
+        int v264 = v257 * v257;
+        if (v264 > p) {
+            v257 = v264 - 1;
+        }
+        int v265 = v260 + v259;
+        int v266 = v263 * v258;
+        int v267 = v266 * v266;
+        int v268 = v266 * v260;
+        int v269 = v267 + v261;
+        int v270 = v266 * v264;
+        int v271 = v270 + v268;
+        int v272 = v270 * v265;
+        if (v272 > p) {
+            v270 = v272 - 1;
+        }
+        int v273 = v271 - v267;
+        int v274 = v272 + v270;
+        int v275 = v267 * v270;
+        int v276 = v268 * v274;
+        int v277 = v270 - v269;
+        int v278 = v274 + v277;
+        int v279 = v274 + v276;
+        int v280 = v279 * v278;
+        if (v280 > p) {
+            v279 = v280 - 1;
+        }
+        while (v280 < q) {
+            v280 = v280 + v279;
+        }
+        int v281 = v278 - v278;
+        int v282 = v279 + v278;
+        int v283 = v276 - v278;
+        int v284 = v279 + v276;
+        int v285 = v281 * v278;
+        int v286 = v285 - v282;
+        int v287 = v284 + v283;
+        int v288 = v280 * v286;
+        if (v288 > p) {
+            v280 = v288 - 1;
+        }
+        int v289 = v283 - v286;
+        int v290 = v289 - v289;
+        int v291 = v290 * v289;
+        int v292 = v286 * v287;
+        int v293 = v290 - v287;
+        int v294 = v288 - v292;
+        int v295 = v290 * v288;
+        int v296 = v295 + v289;
+        if (v296 > p) {
+            v295 = v296 - 1;
+        }
+        int v297 = v290 * v289;
+        int v298 = v292 * v292;
+        int v299 = v293 + v296;
+        int v300 = v298 - v293;
+        int v301 = v296 - v298;
+        int v302 = v301 - v298;
+        int v303 = v295 * v297;
+        int v304 = v298 + v302;
+        if (v304 > p) {
+            v298 = v304 - 1;
+        }
+        int v305 = v303 + v302;
+        int v306 = v301 + v299;
+        int v307 = v303 + v302;
+        int v308 = v300 + v303;
+        int v309 = v308 * v302;
+        int v310 = v308 + v303;
+        int v311 = v305 * v304;
+        int v312 = v310 * v306;
+        if (v312 > p) {
+            v310 = v312 - 1;
+        }
+        int v313 = v310 + v306;
+        int v314 = v313 - v308;
+        int v315 = v311 - v311;
+        int v316 = v313 * v314;
+        int v317 = v313 - v312;
+        int v318 = v314 + v317;
+        int v319 = v314 * v311;
+        int v320 = v314 - v319;
+        if (v320 > p) {
+            v314 = v320 - 1;
+        }
+        while (v320 < q) {
+            v320 = v320 + v319;
+        }
+        int v321 = v314 + v320;
+        int v322 = v315 * v314;
+        int v323 = v318 - v321;
+        int v324 = v319 + v323;
+        int v325 = v320 - v321;
+        int v326 = v321 + v325;
+        int v327 = v320 - v320;
+        int v328 = v324 + v325;
+        if (v328 > p) {
+            v324 = v328 - 1;
+        }
+        int v329 = v326 - v323;
+        int v330 = v323 + v326;
+        int v331 = v325 - v328;
+        int v332 = v325 - v328;
+        int v333 = v329 + v332;
+        int v334 = v329 - v327;
+        int v335 = v332 * v334;
+        int v336 = v328 - v330;
+        if (v336 > p) {
+            v328 = v336 - 1;
+        }
+        int v337 = v333 * v335;
+        int v338 = v335 - v331;
+        int v339 = v338 + v338;
+        int v340 = v339 * v336;
+        int v341 = v335 - v340;
+        int v342 = v339 * v339;
+        int v343 = v341 - v337;
+        int v344 = v341 * v337;
+        if (v344 > p) {
+            v341 = v344 - 1;
+        }
+        int v345 = v338 + v341;
+        int v346 = v338 + v339;
+        int v347 = v344 - v342;
+        int v348 = v341 * v343;
+        int v349 = v346 - v342;
+        int v350 = v347 + v348;
+        int v351 = v348 - v345;
+        int v352 = v345 + v348;
+        if (v352 > p) {
+            v345 = v352 - 1;
+        }
+        int v353 = v351 * v351;
+        int v354 = v352 + v349;
+        int v355 = v353 + v354;
+        int v356 = v349 * v349;
+        int v357 = v352 + v351;
+        int v358 = v351 - v350;
+        int v359 = v353 + v356;
+        int v360 = v356 - v357;
+        if (v360 > p) {
+            v356 = v360 - 1;
+        }
+        while (v360 < q) {
+            v360 = v360 + v359;
+        }
+        int v361 = v355 * v360;
+        int v362 = v361 * v360;
+        int v363 = v361 * v359;
+        int v364 = v357 * v358;
+        int v365 = v358 + v360;
+        int v366 = v358 * v363;
+        int v367 = v366 - v364;
+        int v368 = v361 + v366;
+        if (v368 > p) {
+            v361 = v368 - 1;
+        }
+        int v369 = v361 + v366;
+        int v370 = v368 + v368;
+        int v371 = v369 - v370;
+        int v372 = v365 - v367;
+        int v373 = v369 + v369;
+        int v374 = v367 * v371;
+        int v375 = v370 * v370;
+        int v376 = v368 + v371;
+        if (v376 > p) {
+            v368 = v376 - 1;
+        }
+        int v377 = v376 - v369;
+        int v378 = v377 * v370;
+        int v379 = v376 * v376;
+        int v380 = v378 - v374;
+        int v381 = v373 + v374;
+        int v382 = v378 - v374;
+        int v383 = v376 + v376;
+        int v384 = v380 + v378;
+        if (v384 > p) {
+            v380 = v384 - 1;
+        }
+        int v385 = v381 - v383;
+        int v386 = v385 + v382;
+        int v387 = v384 + v385;
+        int v388 = v386 + v384;
+        int v389 = v381 * v388;
+        int v390 = v385 - v387;
+        int v391 = v390 - v389;
+        int v392 = v391 - v385;
+        if (v392 > p) {
+            v391 = v392 - 1;
+        }
+        int v393 = v390 + v386;
+        int v394 = v388 * v390;
+        int v395 = v389 - v392;
+        int v396 = v388 * v395;
+        int v397 = v391 * v391;
+        int v398 = v392 * v397;
+        int v399 = v393 - v394;
+        return v399 + v398;
+    }
+}
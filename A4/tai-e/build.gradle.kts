@@ -1,6 +1,8 @@
 plugins {
     id("java")
     id("application")
+    // 0.7.x requires Gradle 8, the wrapper is Gradle 7.4
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 repositories {
@@ -25,6 +27,18 @@ tasks.test {
     maxHeapSize = "4G"
 }
 
+// JMH benchmarks in src/jmh, e.g., gradle jmh -PjmhIncludes=InterSolverBenchmark
+jmh {
+    // the benchmarks use the synthetic ICFG of the tests
+    includeTests.set(true)
+    findProperty("jmhIncludes")?.let { includes.add(it.toString()) }
+    // the threads of the parallel solver, e.g., -Pparallelism=1,2,4
+    findProperty("parallelism")?.let { parallelism ->
+        benchmarkParameters.put("parallelism", objects.listProperty<String>()
+                .value(parallelism.toString().split(",")))
+    }
+}
+
 java {
     toolchain {
         languageVersion.set(JavaLanguageVersion.of(17))
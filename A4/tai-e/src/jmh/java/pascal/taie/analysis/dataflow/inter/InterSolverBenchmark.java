@@ -0,0 +1,181 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.SyntheticICFG;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of each kind of inter-procedural solver on a
+ * {@link SyntheticICFG} with {@link BusyAnalysis}. The number of
+ * the threads of the parallel solver can be set by -Pparallelism=N,
+ * and its rounds and solved components are reported as auxiliary counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterSolverBenchmark {
+
+    @Param({ "2000", "20000" })
+    public int methods;
+
+    /**
+     * Busy work per node transfer, see {@link BusyAnalysis}.
+     */
+    @Param({ "0", "200" })
+    public int work;
+
+    @Param({ "worklist", "two-level", "parallel" })
+    public String solver;
+
+    /**
+     * Number of the threads of the parallel solver,
+     * 0 for the number of the available processors.
+     */
+    @Param({ "0" })
+    public int parallelism;
+
+    private SyntheticICFG icfg;
+
+    private BusyAnalysis analysis;
+
+    @Setup
+    public void setUp() {
+        icfg = new SyntheticICFG(methods, 40, 0.1, 0.05, 0.1, 0.01, 0);
+        analysis = new BusyAnalysis(work);
+    }
+
+    @Benchmark
+    public DataflowResult<Integer, BitSet> solve(ParallelCounters counters) {
+        InterSolver<Integer, Integer, BitSet> interSolver =
+                InterSolver.makeSolver(analysis, icfg, solver, parallelism);
+        DataflowResult<Integer, BitSet> result = interSolver.solve();
+        if (interSolver instanceof ParallelSolver<Integer, Integer, BitSet> parallel) {
+            counters.rounds += parallel.getRounds();
+            counters.solvedComponents += parallel.getSolvedComponents();
+        }
+        return result;
+    }
+
+    /**
+     * Forward analysis over the integer nodes, where each node kills
+     * one bit and generates another, which is decided by some busy work
+     * simulating the transfer functions of real analyses.
+     * The transfer functions read no shared mutable state, thus they can be
+     * called from multiple threads.
+     */
+    private static class BusyAnalysis implements InterDataflowAnalysis<Integer, BitSet> {
+
+        private static final int BITS = 256;
+
+        /**
+         * Number of the iterations of the busy work per node transfer.
+         */
+        private final int work;
+
+        private BusyAnalysis(int work) {
+            this.work = work;
+        }
+
+        @Override
+        public boolean isForward() {
+            return true;
+        }
+
+        @Override
+        public BitSet newBoundaryFact(Integer boundary) {
+            return new BitSet(BITS);
+        }
+
+        @Override
+        public BitSet newInitialFact() {
+            return new BitSet(BITS);
+        }
+
+        @Override
+        public void meetInto(BitSet fact, BitSet target) {
+            target.or(fact);
+        }
+
+        @Override
+        public boolean transferNode(Integer node, BitSet in, BitSet out) {
+            long h = node;
+            for (int i = 0; i < work; ++i) {
+                h = h * 6364136223846793005L + 1442695040888963407L;
+            }
+            BitSet newOut = (BitSet) in.clone();
+            newOut.clear(node % BITS);
+            newOut.set(Math.floorMod(h, BITS));
+            if (newOut.equals(out)) {
+                return false;
+            }
+            out.clear();
+            out.or(newOut);
+            return true;
+        }
+
+        @Override
+        public BitSet transferEdge(ICFGEdge<Integer> edge, BitSet out) {
+            return out;
+        }
+    }
+
+    /**
+     * The rounds and the solved components of the parallel solver,
+     * summed over the runs of each iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ParallelCounters {
+
+        public long rounds;
+
+        public long solvedComponents;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rounds = 0;
+            solvedComponents = 0;
+        }
+    }
+}
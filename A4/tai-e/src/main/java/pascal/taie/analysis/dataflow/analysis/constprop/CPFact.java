@@ -24,9 +24,7 @@ package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.fact.MapFact;
 import pascal.taie.ir.exp.Var;
-
-import java.util.Collections;
-import java.util.Map;
+import pascal.taie.util.collection.HashTrieMap;
 
 /**
  * Represents data facts of constant propagation, which maps variables
@@ -37,15 +35,26 @@ import java.util.Map;
  * it represents that the lattice value of the variable is UNDEF;
  * moreover, if we set the lattice value of a variable to UNDEF,
  * it effectively removes the variable from the CPFact.
+ * <p>
+ * The mappings are held in a persistent {@link HashTrieMap}, so that
+ * {@link #copy()} takes O(1) time, an update only copies the trie path
+ * it touches, and comparing a fact with its (partially updated) copies
+ * skips the shared parts.
  */
 public class CPFact extends MapFact<Var, Value> {
 
+    /**
+     * The same object as {@link #map}.
+     */
+    private final HashTrieMap<Var, Value> trie;
+
     public CPFact() {
-        this(Collections.emptyMap());
+        this(new HashTrieMap<>());
     }
 
-    private CPFact(Map<Var, Value> map) {
-        super(map);
+    private CPFact(HashTrieMap<Var, Value> trie) {
+        super(trie, false);
+        this.trie = trie;
     }
 
     /**
@@ -69,8 +78,18 @@ public class CPFact extends MapFact<Var, Value> {
         }
     }
 
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (trie.isEmpty() && fact instanceof CPFact that) {
+            // share the trie of the other fact
+            trie.set(that.trie);
+            return !trie.isEmpty();
+        }
+        return super.copyFrom(fact);
+    }
+
     @Override
     public CPFact copy() {
-        return new CPFact(this.map);
+        return new CPFact(trie.snapshot());
     }
 }
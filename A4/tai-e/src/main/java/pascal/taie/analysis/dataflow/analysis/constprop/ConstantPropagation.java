@@ -40,9 +40,6 @@ import pascal.taie.language.type.PrimitiveType;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
 
-import java.util.HashSet;
-import java.util.Set;
-
 public class ConstantPropagation extends
         AbstractDataflowAnalysis<Stmt, CPFact> {
 
@@ -75,11 +72,10 @@ public class ConstantPropagation extends
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
-        Set<Var> allVars = new HashSet<>(fact.keySet());
-        allVars.addAll(target.keySet());
-        for (Var var : allVars) {
-            target.update(var, meetValue(fact.get(var), target.get(var)));
-        }
+        // the variables absent in fact are UNDEF, which do not
+        // change their values in target
+        fact.forEach((var, value) ->
+                target.update(var, meetValue(value, target.get(var))));
     }
 
     /**
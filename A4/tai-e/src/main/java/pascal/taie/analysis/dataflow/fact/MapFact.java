@@ -51,7 +51,18 @@ public class MapFact<K, V> {
      * @param map the map whose mappings are to be placed in this map.
      */
     public MapFact(Map<K, V> map) {
-        this.map = Maps.newHybridMap(map);
+        this(map, true);
+    }
+
+    /**
+     * Constructs a new MapFact which holds its mappings in given map.
+     *
+     * @param copy if true, this fact holds the mappings in a copy of
+     *             given map; otherwise, this fact directly uses given map
+     *             as its underlying storage.
+     */
+    protected MapFact(Map<K, V> map, boolean copy) {
+        this.map = copy ? Maps.newHybridMap(map) : map;
     }
 
     /**
@@ -121,7 +121,9 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
     public Object analyze() {
         icfg = World.get().getResult(ICFGBuilder.ID);
         initialize();
-        solver = new InterSolver<>(this, icfg);
+        solver = InterSolver.makeSolver(this, icfg,
+                getOptions().getString("solver"),
+                getOptions().getInt("parallelism"));
         DataflowResult<Node, Fact> result = solver.solve();
         finish();
         return result;
@@ -0,0 +1,229 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.SetQueue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Function;
+
+/**
+ * Demand-driven inter-procedural constant propagation.
+ * <p>
+ * Instead of solving {@link InterConstantPropagation} over the whole ICFG,
+ * this class computes the value of a variable before a statement on demand.
+ * A query (a point, i.e., a statement and a variable) depends on the points
+ * at the predecessors of the statement, which are explored backward only
+ * until the definitions of the variables (or the points solved by earlier
+ * queries) are reached. The collected points are then solved to a fixed
+ * point with the same equations as {@link InterConstantPropagation},
+ * thus a query gives the same value as the IN fact of the exhaustive
+ * analysis. The values of all solved points are memoized for later queries.
+ */
+public class InterConstantQuery {
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    private final ConstantPropagation cp;
+
+    /**
+     * Values of the points solved by earlier queries.
+     */
+    private final Map<Point, Value> solved = Maps.newMap();
+
+    public InterConstantQuery(ICFG<JMethod, Stmt> icfg) {
+        this.icfg = icfg;
+        this.cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+    }
+
+    /**
+     * @return the value of given variable before given statement, i.e.,
+     * in the IN fact of the statement computed by {@link InterConstantPropagation}.
+     */
+    public Value query(Stmt stmt, Var var) {
+        Point point = new Point(stmt, var);
+        if (!solved.containsKey(point)) {
+            solve(point);
+        }
+        return solved.get(point);
+    }
+
+    /**
+     * @return the number of points which have been solved so far.
+     */
+    public int getNumberOfSolvedPoints() {
+        return solved.size();
+    }
+
+    /**
+     * Collects the unsolved points on which given query depends,
+     * and solves them together.
+     */
+    private void solve(Point query) {
+        Map<Point, Value> values = Maps.newMap();
+        MultiMap<Point, Point> dependents = Maps.newMultiMap();
+        Deque<Point> stack = new ArrayDeque<>();
+        values.put(query, Value.getUndef());
+        stack.push(query);
+        while (!stack.isEmpty()) {
+            Point point = stack.pop();
+            // the points on which a point depends are exactly
+            // the ones read by its equation
+            evaluate(point, dependency -> {
+                if (!solved.containsKey(dependency)) {
+                    dependents.put(dependency, point);
+                    if (values.putIfAbsent(dependency, Value.getUndef()) == null) {
+                        stack.push(dependency);
+                    }
+                }
+                return Value.getUndef();
+            });
+        }
+        // like the exhaustive solver, start from UNDEF (the initial fact)
+        Function<Point, Value> lookup = point -> {
+            Value value = solved.get(point);
+            return value != null ? value : values.get(point);
+        };
+        Queue<Point> workList = new SetQueue<>();
+        workList.addAll(values.keySet());
+        while (!workList.isEmpty()) {
+            Point point = workList.poll();
+            Value value = evaluate(point, lookup);
+            if (!value.equals(values.put(point, value))) {
+                workList.addAll(dependents.get(point));
+            }
+        }
+        solved.putAll(values);
+    }
+
+    /**
+     * Computes the value of given point, i.e., the meet of the values
+     * flowing through the in edges of the statement.
+     *
+     * @param lookup gives the values of the points before the predecessors
+     */
+    private Value evaluate(Point point, Function<Point, Value> lookup) {
+        Value value = Value.getUndef();
+        for (ICFGEdge<Stmt> edge : icfg.getInEdgesOf(point.stmt())) {
+            value = cp.meetValue(value, transferEdge(edge, point.var(), lookup));
+        }
+        return value;
+    }
+
+    /**
+     * Edge transfer of a single variable, which is the same as the edge
+     * transfer functions of {@link InterConstantPropagation}.
+     *
+     * @return the value of given variable flowing through given edge.
+     */
+    private Value transferEdge(ICFGEdge<Stmt> edge, Var var,
+                               Function<Point, Value> lookup) {
+        Stmt source = edge.getSource();
+        if (edge instanceof CallToReturnEdge) {
+            // the value of the variable defined by the call site
+            // flows through the return edges
+            return isDefinedBy(source, var) ?
+                    Value.getUndef() : getOutValue(source, var, lookup);
+        } else if (edge instanceof CallEdge<Stmt> callEdge) {
+            int i = callEdge.getCallee().getIR().getParams().indexOf(var);
+            if (i < 0) {
+                return Value.getUndef();
+            }
+            Var arg = ((Invoke) source).getInvokeExp().getArg(i);
+            return getOutValue(source, arg, lookup);
+        } else if (edge instanceof ReturnEdge<Stmt> returnEdge) {
+            if (!isDefinedBy(returnEdge.getCallSite(), var)) {
+                return Value.getUndef();
+            }
+            Value value = Value.getUndef();
+            for (Var returnVar : returnEdge.getReturnVars()) {
+                value = cp.meetValue(value, getOutValue(source, returnVar, lookup));
+            }
+            return value;
+        } else {
+            return getOutValue(source, var, lookup);
+        }
+    }
+
+    /**
+     * Node transfer of a single variable, which is the same as
+     * {@link InterConstantPropagation#transferNode}.
+     *
+     * @return the value of given variable after given statement.
+     */
+    private Value getOutValue(Stmt stmt, Var var,
+                              Function<Point, Value> lookup) {
+        if (!icfg.isCallSite(stmt) &&
+                stmt instanceof DefinitionStmt<?, ?> defStmt &&
+                var.equals(defStmt.getLValue()) &&
+                ConstantPropagation.canHoldInt(var)) {
+            Exp rValue = defStmt.getRValue();
+            // only the variables read by ConstantPropagation.evaluate()
+            // are looked up
+            CPFact in = new CPFact();
+            if (rValue instanceof Var rVar) {
+                in.update(rVar, lookup.apply(new Point(stmt, rVar)));
+            } else if (rValue instanceof BinaryExp binaryExp) {
+                Var operand1 = binaryExp.getOperand1();
+                Var operand2 = binaryExp.getOperand2();
+                in.update(operand1, lookup.apply(new Point(stmt, operand1)));
+                in.update(operand2, lookup.apply(new Point(stmt, operand2)));
+            }
+            return ConstantPropagation.evaluate(rValue, in);
+        }
+        return lookup.apply(new Point(stmt, var));
+    }
+
+    private static boolean isDefinedBy(Stmt stmt, Var var) {
+        LValue def = stmt.getDef().orElse(null);
+        return var.equals(def);
+    }
+
+    /**
+     * A point before a statement, for the value of a variable.
+     */
+    private record Point(Stmt stmt, Var var) {
+    }
+}
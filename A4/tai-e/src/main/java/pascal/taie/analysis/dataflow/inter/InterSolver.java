@@ -25,25 +25,30 @@ package pascal.taie.analysis.dataflow.inter;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.graph.SimpleGraph;
 
-import java.util.ArrayDeque;
+import javax.annotation.Nullable;
 import java.util.Queue;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Solver for inter-procedural data-flow analysis.
  * The workload of inter-procedural analysis is heavy, thus we always
  * adopt work-list algorithm for efficiency.
+ * <p>
+ * This solver keeps one work-list of the ICFG nodes of the whole program.
+ * The subclasses schedule the nodes differently by overriding
+ * {@link #doSolve()}, and share the initialization of the result
+ * and the visit of a node, see {@link #makeSolver}.
  */
 class InterSolver<Method, Node, Fact> {
 
-    private final InterDataflowAnalysis<Node, Fact> analysis;
+    protected final InterDataflowAnalysis<Node, Fact> analysis;
 
-    private final ICFG<Method, Node> icfg;
+    protected final ICFG<Method, Node> icfg;
 
-    private DataflowResult<Node, Fact> result;
+    protected DataflowResult<Node, Fact> result;
 
     private Queue<Node> workList;
 
@@ -53,6 +58,31 @@ class InterSolver<Method, Node, Fact> {
         this.icfg = icfg;
     }
 
+    /**
+     * Creates a solver of given kind.
+     *
+     * @param kind "worklist" (or null) for this solver,
+     *             "parallel" for {@link ParallelSolver},
+     *             or "two-level" for {@link TwoLevelSolver}.
+     * @param parallelism number of the threads of {@link ParallelSolver},
+     *                    which is ignored by the other solvers.
+     * @throws ConfigException if the kind is unknown.
+     */
+    static <Method, Node, Fact> InterSolver<Method, Node, Fact> makeSolver(
+            InterDataflowAnalysis<Node, Fact> analysis,
+            ICFG<Method, Node> icfg, @Nullable String kind, int parallelism) {
+        if (kind == null) {
+            return new InterSolver<>(analysis, icfg);
+        }
+        return switch (kind) {
+            case "worklist" -> new InterSolver<>(analysis, icfg);
+            case "parallel" -> new ParallelSolver<>(analysis, icfg, parallelism);
+            case "two-level" -> new TwoLevelSolver<>(analysis, icfg);
+            default -> throw new ConfigException(
+                    "Unknown inter-procedural solver: " + kind);
+        };
+    }
+
     DataflowResult<Node, Fact> solve() {
         result = new DataflowResult<>();
         initialize();
@@ -60,37 +90,73 @@ class InterSolver<Method, Node, Fact> {
         return result;
     }
 
-    private void initialize() {
+    /**
+     * @return the call graph of the methods in the ICFG.
+     */
+    protected SimpleGraph<Method> buildCallGraph() {
+        SimpleGraph<Method> callGraph = new SimpleGraph<>();
+        for (Node node : icfg) {
+            Method method = icfg.getContainingMethodOf(node);
+            callGraph.addNode(method);
+            if (icfg.isCallSite(node)) {
+                for (Method callee : icfg.getCalleesOf(node)) {
+                    callGraph.addEdge(method, callee);
+                }
+            }
+        }
+        return callGraph;
+    }
+
+    /**
+     * Puts the initial facts of all nodes to the result, and the boundary
+     * facts of the entries of the entry methods. Afterwards, the result
+     * is not structurally modified by {@link #visitNode}.
+     */
+    protected void initialize() {
         for (Node node : icfg) {
+            result.setInFact(node, analysis.newInitialFact());
             result.setOutFact(node, analysis.newInitialFact());
         }
-        workList = new SetQueue<>();
         icfg.entryMethods().forEach(entryMethod -> {
             Node entry = icfg.getEntryOf(entryMethod);
-            workList.add(entry);
             result.setOutFact(entry, analysis.newBoundaryFact(entry));
-            System.out.println("Fuck?????????????icfg.entryMethod??????????????????");
         });
     }
 
-    private void doSolve() {
+    /**
+     * Visits all nodes until the facts reach the fixed point.
+     * Every node is visited at least once, and the entries of
+     * the entry methods are visited first.
+     */
+    protected void doSolve() {
+        workList = new SetQueue<>();
+        icfg.entryMethods().forEach(entryMethod ->
+                workList.add(icfg.getEntryOf(entryMethod)));
         for (Node node : icfg) {
-            if (!workList.contains(node)) workList.add(node);
+            workList.add(node);
         }
         while (!workList.isEmpty()) {
             Node node = workList.poll();
-            result.setInFact(node, analysis.newInitialFact());
-            for (ICFGEdge<Node> inEdge : icfg.getInEdgesOf(node)) {
-                analysis.meetInto(analysis.transferEdge(inEdge, result.getOutFact(inEdge.getSource())), result.getInFact(node));
-            }
-            if (!analysis.transferNode(node, result.getInFact(node), result.getOutFact(node))) {
-                continue;
-            }
-            for (Node succ : icfg.getSuccsOf(node)) {
-                if (!workList.contains(succ)) {
-                    workList.add(succ);
-                }
+            if (visitNode(node)) {
+                workList.addAll(icfg.getSuccsOf(node));
             }
         }
     }
+
+    /**
+     * Meets the facts flowing through the in edges of given node
+     * into its in fact, and applies the transfer function of the node.
+     *
+     * @return true if the out fact of the node changed, i.e.,
+     * the successors of the node need to be visited again.
+     */
+    protected boolean visitNode(Node node) {
+        Fact in = analysis.newInitialFact();
+        for (ICFGEdge<Node> inEdge : icfg.getInEdgesOf(node)) {
+            analysis.meetInto(analysis.transferEdge(inEdge,
+                    result.getOutFact(inEdge.getSource())), in);
+        }
+        result.setInFact(node, in);
+        return analysis.transferNode(node, in, result.getOutFact(node));
+    }
 }
@@ -0,0 +1,331 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parallel solver for inter-procedural data-flow analysis.
+ * <p>
+ * This solver condenses the call graph (derived from the ICFG) into
+ * its strongly connected components, and solves the program in rounds.
+ * A round walks the components which have pending nodes, together with
+ * their transitive callers, which may receive new facts via return edges.
+ * These components are walked bottom-up, i.e., a component is reached
+ * after all its callees in the round, and the components which do not
+ * depend on each other are solved concurrently on a fork-join pool,
+ * which is created for each run and shut down afterwards.
+ * A reached component is submitted to the pool only if it has pending
+ * nodes, and solving it visits them to a local fixed point; the other
+ * components are passed over in place.
+ * The facts flowing into the callers via return edges are consumed
+ * later in the same round, and the facts flowing into the callees
+ * via call edges are consumed in the next round. Thus, the number of
+ * rounds grows with the depth of the calls along which the facts flow
+ * down, but a round only solves the components whose facts may change.
+ * The solver stops when a round leaves no pending nodes, which gives
+ * the same fixed point as {@link InterSolver}.
+ * <p>
+ * A component reads the facts of the nodes of its callers and callees,
+ * which are never solved at the same time as the component itself,
+ * thus the facts need no synchronization. However, the transfer
+ * functions of the analysis are called from multiple threads,
+ * and must not modify the shared state of the analysis.
+ */
+class ParallelSolver<Method, Node, Fact> extends InterSolver<Method, Node, Fact> {
+
+    /**
+     * Number of the worker threads of the pool.
+     */
+    private final int parallelism;
+
+    private ForkJoinPool pool;
+
+    private MergedSCCGraph<Method> sccGraph;
+
+    /**
+     * The component of each method in {@link #sccGraph}.
+     */
+    private Map<Method, MergedNode<Method>> components;
+
+    /**
+     * The nodes of each method which need to be (re-)visited.
+     * The concurrently solved components may add pending nodes
+     * to the same caller or callee, so the sets are concurrent.
+     */
+    private Map<Method, Set<Node>> pendingNodes;
+
+    /**
+     * Number of the rounds of the last run.
+     */
+    private int rounds;
+
+    /**
+     * Number of the components solved in all rounds of the last run,
+     * i.e., the tasks submitted to the pool.
+     */
+    private final AtomicInteger solvedComponents = new AtomicInteger();
+
+    /**
+     * @param parallelism number of the worker threads, or a non-positive
+     *                    number for the number of the available processors.
+     */
+    ParallelSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                   ICFG<Method, Node> icfg, int parallelism) {
+        super(analysis, icfg);
+        this.parallelism = parallelism > 0 ? parallelism
+                : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    protected void doSolve() {
+        sccGraph = new MergedSCCGraph<>(buildCallGraph());
+        components = Maps.newMap();
+        for (MergedNode<Method> scc : sccGraph) {
+            for (Method method : scc.getNodes()) {
+                components.put(method, scc);
+            }
+        }
+        pendingNodes = new ConcurrentHashMap<>();
+        for (Node node : icfg) {
+            // every node is visited at least once, as InterSolver does
+            addPendingNode(icfg.getContainingMethodOf(node), node);
+        }
+        rounds = 0;
+        solvedComponents.set(0);
+        pool = new ForkJoinPool(parallelism);
+        try {
+            while (!pendingNodes.isEmpty()) {
+                ++rounds;
+                new Round(getActiveComponents()).run();
+            }
+        } finally {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * @return number of the rounds of the last run.
+     */
+    int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * @return number of the components solved in all rounds of the last run,
+     * which excludes the components completed without pending nodes.
+     */
+    int getSolvedComponents() {
+        return solvedComponents.get();
+    }
+
+    /**
+     * @return the components which have pending nodes, and their
+     * transitive callers. The set is closed under the callers.
+     */
+    private Set<MergedNode<Method>> getActiveComponents() {
+        Set<MergedNode<Method>> active = Sets.newSet();
+        Deque<MergedNode<Method>> stack = new ArrayDeque<>();
+        for (Method method : pendingNodes.keySet()) {
+            MergedNode<Method> scc = components.get(method);
+            if (active.add(scc)) {
+                stack.push(scc);
+            }
+        }
+        while (!stack.isEmpty()) {
+            for (MergedNode<Method> caller : sccGraph.getPredsOf(stack.pop())) {
+                if (active.add(caller)) {
+                    stack.push(caller);
+                }
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Solves the pending nodes of given methods, which form a component
+     * of the call graph, to a local fixed point. The changes which
+     * flow out of the component are recorded as the pending nodes
+     * of the callees and callers.
+     */
+    private void solveComponent(List<Method> methods) {
+        Set<Method> component = Sets.newHybridSet(methods);
+        Queue<Node> nodes = new SetQueue<>();
+        for (Method method : methods) {
+            Set<Node> pending = pendingNodes.remove(method);
+            if (pending != null) {
+                // visit the entry first, as InterSolver does, so that the
+                // boundary fact of an entry method is not read by other
+                // nodes before the entry is transferred
+                Node entry = icfg.getEntryOf(method);
+                if (pending.contains(entry)) {
+                    nodes.add(entry);
+                }
+                nodes.addAll(pending);
+            }
+        }
+        while (!nodes.isEmpty()) {
+            Node node = nodes.poll();
+            if (!visitNode(node)) {
+                continue;
+            }
+            for (Node succ : icfg.getSuccsOf(node)) {
+                Method succMethod = icfg.getContainingMethodOf(succ);
+                if (component.contains(succMethod)) {
+                    nodes.add(succ);
+                } else {
+                    addPendingNode(succMethod, succ);
+                }
+            }
+        }
+    }
+
+    private boolean hasPendingNodes(MergedNode<Method> scc) {
+        for (Method method : scc.getNodes()) {
+            if (pendingNodes.containsKey(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addPendingNode(Method method, Node node) {
+        pendingNodes.computeIfAbsent(method, m -> ConcurrentHashMap.newKeySet())
+                .add(node);
+    }
+
+    /**
+     * One bottom-up pass over the given components of the call graph.
+     * A component is submitted to the pool when all its callees
+     * in the pass have been solved.
+     */
+    private class Round {
+
+        /**
+         * Number of the callees of each component which are not solved yet.
+         */
+        private final Map<MergedNode<Method>, AtomicInteger> unsolvedCallees;
+
+        private final CountDownLatch unsolved;
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        /**
+         * @param active the components to solve, which must be closed
+         *               under the callers.
+         */
+        private Round(Set<MergedNode<Method>> active) {
+            this.unsolvedCallees = Maps.newMap(active.size());
+            for (MergedNode<Method> scc : active) {
+                int callees = (int) sccGraph.getSuccsOf(scc)
+                        .stream()
+                        .filter(callee -> !callee.equals(scc)
+                                && active.contains(callee))
+                        .count();
+                unsolvedCallees.put(scc, new AtomicInteger(callees));
+            }
+            this.unsolved = new CountDownLatch(active.size());
+        }
+
+        private void run() {
+            // the components without callees in this round are exactly
+            // the ones which have pending nodes, as the others are active
+            // only because they are transitive callers of such components
+            unsolvedCallees.forEach((scc, callees) -> {
+                if (callees.get() == 0) {
+                    submit(scc);
+                }
+            });
+            try {
+                unsolved.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            Throwable t = failure.get();
+            if (t instanceof RuntimeException e) {
+                throw e;
+            } else if (t instanceof Error e) {
+                throw e;
+            }
+        }
+
+        private void submit(MergedNode<Method> scc) {
+            pool.execute(() -> process(scc));
+        }
+
+        /**
+         * Solves given component, and then the callers whose callees
+         * in this round are all solved. The callers which have no pending
+         * nodes are completed in place instead of being submitted.
+         */
+        private void process(MergedNode<Method> scc) {
+            Deque<MergedNode<Method>> completed = new ArrayDeque<>();
+            try {
+                if (failure.get() == null) {
+                    solveComponent(scc.getNodes());
+                    solvedComponents.incrementAndGet();
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                completed.push(scc);
+                while (!completed.isEmpty()) {
+                    MergedNode<Method> done = completed.pop();
+                    // the callers of an active component are all active
+                    for (MergedNode<Method> caller : sccGraph.getPredsOf(done)) {
+                        if (!caller.equals(done) &&
+                                unsolvedCallees.get(caller).decrementAndGet() == 0) {
+                            // all callees of the caller in this round are
+                            // solved, so no more pending nodes are added to it
+                            if (hasPendingNodes(caller)) {
+                                submit(caller);
+                            } else {
+                                completed.push(caller);
+                            }
+                        }
+                    }
+                    unsolved.countDown();
+                }
+            }
+        }
+    }
+}
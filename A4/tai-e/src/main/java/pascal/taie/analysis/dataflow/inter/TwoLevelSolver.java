@@ -0,0 +1,208 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inter-procedural solver with a two-level work-list.
+ * <p>
+ * The outer work-list holds the methods which have pending nodes,
+ * ordered by the topological order of the call graph (callers first,
+ * the methods in the same strongly connected component are adjacent),
+ * and the inner work-list of each method holds its pending nodes,
+ * ordered by the reverse post-order of its CFG. The solver always picks
+ * the first pending method, and visits its pending nodes in order to
+ * a local fixed point, so that the facts flowing into a method
+ * are collected from its callers before the method is visited, and
+ * a loop body is stabilized before the nodes after the loop are visited.
+ * Both work-lists are bit sets indexed by the orders, thus picking
+ * the first pending element and the membership check are cheap.
+ */
+class TwoLevelSolver<Method, Node, Fact> extends InterSolver<Method, Node, Fact> {
+
+    /**
+     * Methods in topological order of the call graph.
+     */
+    private List<Method> methods;
+
+    private Map<Method, Integer> methodIndexes;
+
+    /**
+     * Nodes of each method in reverse post-order, indexed
+     * by the indexes of the methods.
+     */
+    private List<List<Node>> nodeOrders;
+
+    /**
+     * Index of each node in the reverse post-order of its method.
+     */
+    private Map<Node, Integer> nodeIndexes;
+
+    /**
+     * Outer work-list, i.e., the indexes of the pending methods.
+     */
+    private BitSet pendingMethods;
+
+    /**
+     * Inner work-lists, i.e., the indexes of the pending nodes
+     * of each method.
+     */
+    private List<BitSet> pendingNodes;
+
+    TwoLevelSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                   ICFG<Method, Node> icfg) {
+        super(analysis, icfg);
+    }
+
+    @Override
+    protected void doSolve() {
+        computeOrders();
+        pendingMethods = new BitSet(methods.size());
+        pendingNodes = new ArrayList<>(methods.size());
+        for (List<Node> nodes : nodeOrders) {
+            BitSet pending = new BitSet(nodes.size());
+            // every node is visited at least once, as InterSolver does
+            pending.set(0, nodes.size());
+            pendingNodes.add(pending);
+        }
+        pendingMethods.set(0, methods.size());
+        // the entry of a method is the first one in reverse post-order,
+        // thus the entries of the entry methods are visited before
+        // the other nodes of the methods, as InterSolver does
+        for (int i = pendingMethods.nextSetBit(0); i >= 0;
+             i = pendingMethods.nextSetBit(0)) {
+            pendingMethods.clear(i);
+            solveMethod(i);
+        }
+    }
+
+    /**
+     * Solves the pending nodes of the i-th method to a local fixed point.
+     * The changes which flow out of the method are recorded as the
+     * pending nodes of the callees and callers.
+     */
+    private void solveMethod(int i) {
+        List<Node> nodes = nodeOrders.get(i);
+        BitSet pending = pendingNodes.get(i);
+        for (int j = pending.nextSetBit(0); j >= 0; j = pending.nextSetBit(0)) {
+            pending.clear(j);
+            Node node = nodes.get(j);
+            if (!visitNode(node)) {
+                continue;
+            }
+            for (Node succ : icfg.getSuccsOf(node)) {
+                int succMethod = methodIndexes.get(icfg.getContainingMethodOf(succ));
+                pendingNodes.get(succMethod).set(nodeIndexes.get(succ));
+                if (succMethod != i) {
+                    pendingMethods.set(succMethod);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the topological order of the methods, and the reverse
+     * post-order of the nodes of each method.
+     */
+    private void computeOrders() {
+        methods = new ArrayList<>();
+        for (MergedNode<Method> scc : new TopoSorter<>(
+                new MergedSCCGraph<>(buildCallGraph())).get()) {
+            methods.addAll(scc.getNodes());
+        }
+        methodIndexes = Maps.newMap(methods.size());
+        nodeOrders = new ArrayList<>(methods.size());
+        for (Method method : methods) {
+            methodIndexes.put(method, methodIndexes.size());
+            nodeOrders.add(new ArrayList<>());
+        }
+        // collect the nodes which are unreachable from the entries
+        // of their methods, which are put after the reachable ones
+        Map<Method, List<Node>> allNodes = Maps.newMap(methods.size());
+        for (Node node : icfg) {
+            allNodes.computeIfAbsent(icfg.getContainingMethodOf(node),
+                    m -> new ArrayList<>()).add(node);
+        }
+        nodeIndexes = Maps.newMap();
+        for (Method method : methods) {
+            List<Node> order = nodeOrders.get(methodIndexes.get(method));
+            postOrder(method, order);
+            Collections.reverse(order);
+            for (Node node : allNodes.getOrDefault(method, List.of())) {
+                if (!nodeIndexes.containsKey(node)) {
+                    order.add(node);
+                }
+            }
+            for (int j = 0; j < order.size(); ++j) {
+                nodeIndexes.put(order.get(j), j);
+            }
+        }
+    }
+
+    /**
+     * Adds the nodes of given method which are reachable from its entry
+     * to {@code order} in post-order, via the intra-procedural edges.
+     */
+    private void postOrder(Method method, List<Node> order) {
+        Node entry = icfg.getEntryOf(method);
+        Deque<Iterator<ICFGEdge<Node>>> stack = new ArrayDeque<>();
+        Deque<Node> path = new ArrayDeque<>();
+        // nodeIndexes also marks the visited nodes before they are indexed
+        nodeIndexes.put(entry, -1);
+        stack.push(icfg.getOutEdgesOf(entry).iterator());
+        path.push(entry);
+        while (!stack.isEmpty()) {
+            Iterator<ICFGEdge<Node>> edges = stack.peek();
+            if (edges.hasNext()) {
+                ICFGEdge<Node> edge = edges.next();
+                Node succ = edge.getTarget();
+                if (!(edge instanceof CallEdge || edge instanceof ReturnEdge)
+                        && !nodeIndexes.containsKey(succ)) {
+                    nodeIndexes.put(succ, -1);
+                    stack.push(icfg.getOutEdgesOf(succ).iterator());
+                    path.push(succ);
+                }
+            } else {
+                stack.pop();
+                order.add(path.pop());
+            }
+        }
+    }
+}
@@ -0,0 +1,629 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Hash map based on a persistent hash array mapped trie (in the
+ * compressed CHAMP layout). The nodes of the trie are immutable, thus:
+ * <ul>
+ *     <li>{@link #snapshot()} and {@link #set(HashTrieMap)} take O(1)
+ *     time, as the maps simply share the same trie;</li>
+ *     <li>an update copies only the nodes on the path from the root
+ *     to the updated entry, and leaves the other nodes shared;</li>
+ *     <li>{@link #equals(Object)} of two HashTrieMaps skips the subtries
+ *     which are shared by both maps.</li>
+ * </ul>
+ * The trie of a given set of entries has a unique shape, which is
+ * what makes the structural comparison in {@code equals} possible.
+ * Null keys and null values are not permitted.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class HashTrieMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * Number of hash bits consumed by each level of the trie.
+     */
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * Number of bits of hash code. At deeper levels,
+     * the entries with equal hash codes are kept in {@link CollisionNode}.
+     */
+    private static final int HASH_BITS = 32;
+
+    private Node root;
+
+    private int size;
+
+    /**
+     * Previous value of the last put or remove,
+     * which is used to pass the result out of the recursion.
+     */
+    private Object oldValue;
+
+    public HashTrieMap() {
+        this(BitmapNode.EMPTY, 0);
+    }
+
+    private HashTrieMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return a new map with the same entries as this map.
+     * This operation takes O(1) time, and subsequent updates of this map
+     * and the returned map do not affect each other.
+     */
+    public HashTrieMap<K, V> snapshot() {
+        return new HashTrieMap<>(root, size);
+    }
+
+    /**
+     * Replaces the entries of this map by the ones of given map in O(1) time.
+     * Subsequent updates of the two maps do not affect each other.
+     */
+    public void set(HashTrieMap<K, V> other) {
+        root = other.root;
+        size = other.size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Objects.requireNonNull(key);
+        return (V) root.get(key, key.hashCode(), 0);
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        oldValue = null;
+        root = root.put(key, value, key.hashCode(), 0, this);
+        V result = (V) oldValue;
+        oldValue = null;
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        Objects.requireNonNull(key);
+        oldValue = null;
+        root = root.remove(key, key.hashCode(), 0, this);
+        V result = (V) oldValue;
+        oldValue = null;
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        root = BitmapNode.EMPTY;
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof HashTrieMap<?, ?> that) {
+            return size == that.size && root.equalTo(that.root);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    private static int fragment(int hash, int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    /**
+     * Creates a node holding two entries with different keys.
+     */
+    private static Node merge(Object k1, Object v1, int h1,
+                              Object k2, Object v2, int h2, int shift) {
+        if (shift >= HASH_BITS) {
+            return new CollisionNode(h1, new Object[]{ k1, v1, k2, v2 });
+        }
+        int f1 = fragment(h1, shift);
+        int f2 = fragment(h2, shift);
+        if (f1 != f2) {
+            int dataMap = (1 << f1) | (1 << f2);
+            return new BitmapNode(dataMap, 0, f1 < f2
+                    ? new Object[]{ k1, v1, k2, v2 }
+                    : new Object[]{ k2, v2, k1, v1 });
+        } else {
+            Node sub = merge(k1, v1, h1, k2, v2, h2, shift + BITS);
+            return new BitmapNode(0, 1 << f1, new Object[]{ sub });
+        }
+    }
+
+    private abstract static class Node {
+
+        abstract Object get(Object key, int hash, int shift);
+
+        abstract Node put(Object key, Object value, int hash, int shift, HashTrieMap<?, ?> map);
+
+        abstract Node remove(Object key, int hash, int shift, HashTrieMap<?, ?> map);
+
+        abstract int dataArity();
+
+        abstract Object getKey(int i);
+
+        abstract Object getValue(int i);
+
+        abstract int nodeArity();
+
+        abstract Node getNode(int i);
+
+        /**
+         * @return true if this node holds a single entry and no sub-nodes,
+         * which should be inlined into the parent node.
+         */
+        boolean isSingleton() {
+            return dataArity() == 1 && nodeArity() == 0;
+        }
+
+        /**
+         * @return true if the trie rooted by this node holds the same
+         * entries as the one rooted by given node.
+         */
+        abstract boolean equalTo(Node other);
+    }
+
+    /**
+     * Inner node of the trie. The entries and sub-nodes are indexed by
+     * the bitmaps of hash fragments: the entries are stored from the head
+     * of {@link #content} (a key followed by its value), and sub-nodes
+     * are stored from the tail.
+     */
+    private static final class BitmapNode extends Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, 0, new Object[0]);
+
+        private final int dataMap;
+
+        private final int nodeMap;
+
+        private final Object[] content;
+
+        private BitmapNode(int dataMap, int nodeMap, Object[] content) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private int dataIndex(int bit) {
+            return Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        private int nodeIndex(int bit) {
+            return content.length - 1 - Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        @Override
+        Object get(Object key, int hash, int shift) {
+            int bit = 1 << fragment(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * dataIndex(bit);
+                return key.equals(content[i]) ? content[i + 1] : null;
+            }
+            if ((nodeMap & bit) != 0) {
+                Node sub = (Node) content[nodeIndex(bit)];
+                return sub.get(key, hash, shift + BITS);
+            }
+            return null;
+        }
+
+        @Override
+        Node put(Object key, Object value, int hash, int shift, HashTrieMap<?, ?> map) {
+            int bit = 1 << fragment(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * dataIndex(bit);
+                Object k = content[i];
+                Object v = content[i + 1];
+                if (key.equals(k)) {
+                    map.oldValue = v;
+                    if (value.equals(v)) {
+                        return this;
+                    }
+                    Object[] newContent = content.clone();
+                    newContent[i + 1] = value;
+                    return new BitmapNode(dataMap, nodeMap, newContent);
+                }
+                // push the existing entry and the new one down to a sub-node
+                ++map.size;
+                Node sub = merge(k, v, k.hashCode(), key, value, hash, shift + BITS);
+                return migrateToNode(bit, i, sub);
+            }
+            if ((nodeMap & bit) != 0) {
+                int i = nodeIndex(bit);
+                Node sub = (Node) content[i];
+                Node newSub = sub.put(key, value, hash, shift + BITS, map);
+                return newSub == sub ? this : replaceNode(i, newSub);
+            }
+            ++map.size;
+            int i = 2 * dataIndex(bit);
+            Object[] newContent = new Object[content.length + 2];
+            System.arraycopy(content, 0, newContent, 0, i);
+            newContent[i] = key;
+            newContent[i + 1] = value;
+            System.arraycopy(content, i, newContent, i + 2, content.length - i);
+            return new BitmapNode(dataMap | bit, nodeMap, newContent);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift, HashTrieMap<?, ?> map) {
+            int bit = 1 << fragment(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * dataIndex(bit);
+                if (!key.equals(content[i])) {
+                    return this;
+                }
+                map.oldValue = content[i + 1];
+                --map.size;
+                Object[] newContent = new Object[content.length - 2];
+                System.arraycopy(content, 0, newContent, 0, i);
+                System.arraycopy(content, i + 2, newContent, i, content.length - i - 2);
+                return new BitmapNode(dataMap ^ bit, nodeMap, newContent);
+            }
+            if ((nodeMap & bit) != 0) {
+                int i = nodeIndex(bit);
+                Node sub = (Node) content[i];
+                Node newSub = sub.remove(key, hash, shift + BITS, map);
+                if (newSub == sub) {
+                    return this;
+                }
+                if (newSub.isSingleton()) {
+                    if (shift > 0 && dataMap == 0 && Integer.bitCount(nodeMap) == 1) {
+                        // this node only holds the singleton, which
+                        // is propagated up to be inlined by an ancestor
+                        return newSub;
+                    }
+                    return migrateToData(bit, i, newSub.getKey(0), newSub.getValue(0));
+                }
+                return replaceNode(i, newSub);
+            }
+            return this;
+        }
+
+        private Node replaceNode(int i, Node sub) {
+            Object[] newContent = content.clone();
+            newContent[i] = sub;
+            return new BitmapNode(dataMap, nodeMap, newContent);
+        }
+
+        /**
+         * Replaces the entry at data position {@code i} by {@code sub}.
+         */
+        private Node migrateToNode(int bit, int i, Node sub) {
+            int newNodeIndex = content.length - 2 - Integer.bitCount(nodeMap & (bit - 1));
+            Object[] newContent = new Object[content.length - 1];
+            System.arraycopy(content, 0, newContent, 0, i);
+            System.arraycopy(content, i + 2, newContent, i, newNodeIndex - i);
+            newContent[newNodeIndex] = sub;
+            System.arraycopy(content, newNodeIndex + 2, newContent, newNodeIndex + 1,
+                    content.length - newNodeIndex - 2);
+            return new BitmapNode(dataMap ^ bit, nodeMap | bit, newContent);
+        }
+
+        /**
+         * Replaces the sub-node at position {@code i} by given entry.
+         */
+        private Node migrateToData(int bit, int i, Object key, Object value) {
+            int newDataIndex = 2 * dataIndex(bit);
+            Object[] newContent = new Object[content.length + 1];
+            System.arraycopy(content, 0, newContent, 0, newDataIndex);
+            newContent[newDataIndex] = key;
+            newContent[newDataIndex + 1] = value;
+            System.arraycopy(content, newDataIndex, newContent, newDataIndex + 2, i - newDataIndex);
+            System.arraycopy(content, i + 1, newContent, i + 2, content.length - i - 1);
+            return new BitmapNode(dataMap | bit, nodeMap ^ bit, newContent);
+        }
+
+        @Override
+        int dataArity() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        Object getKey(int i) {
+            return content[2 * i];
+        }
+
+        @Override
+        Object getValue(int i) {
+            return content[2 * i + 1];
+        }
+
+        @Override
+        int nodeArity() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        Node getNode(int i) {
+            return (Node) content[content.length - 1 - i];
+        }
+
+        @Override
+        boolean equalTo(Node other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof BitmapNode that)
+                    || dataMap != that.dataMap || nodeMap != that.nodeMap) {
+                return false;
+            }
+            int dataLength = 2 * dataArity();
+            for (int i = 0; i < dataLength; ++i) {
+                if (!content[i].equals(that.content[i])) {
+                    return false;
+                }
+            }
+            for (int i = dataLength; i < content.length; ++i) {
+                if (!((Node) content[i]).equalTo((Node) that.content[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Leaf node holding the entries whose keys have the same hash code.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+
+        /**
+         * Keys followed by their values.
+         */
+        private final Object[] content;
+
+        private CollisionNode(int hash, Object[] content) {
+            this.hash = hash;
+            this.content = content;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (key.equals(content[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object get(Object key, int hash, int shift) {
+            int i = indexOf(key);
+            return i >= 0 ? content[i + 1] : null;
+        }
+
+        @Override
+        Node put(Object key, Object value, int hash, int shift, HashTrieMap<?, ?> map) {
+            int i = indexOf(key);
+            if (i >= 0) {
+                map.oldValue = content[i + 1];
+                if (value.equals(content[i + 1])) {
+                    return this;
+                }
+                Object[] newContent = content.clone();
+                newContent[i + 1] = value;
+                return new CollisionNode(this.hash, newContent);
+            }
+            ++map.size;
+            Object[] newContent = Arrays.copyOf(content, content.length + 2);
+            newContent[content.length] = key;
+            newContent[content.length + 1] = value;
+            return new CollisionNode(this.hash, newContent);
+        }
+
+        @Override
+        Node remove(Object key, int hash, int shift, HashTrieMap<?, ?> map) {
+            int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+            map.oldValue = content[i + 1];
+            --map.size;
+            Object[] newContent = new Object[content.length - 2];
+            System.arraycopy(content, 0, newContent, 0, i);
+            System.arraycopy(content, i + 2, newContent, i, content.length - i - 2);
+            return new CollisionNode(this.hash, newContent);
+        }
+
+        @Override
+        int dataArity() {
+            return content.length / 2;
+        }
+
+        @Override
+        Object getKey(int i) {
+            return content[2 * i];
+        }
+
+        @Override
+        Object getValue(int i) {
+            return content[2 * i + 1];
+        }
+
+        @Override
+        int nodeArity() {
+            return 0;
+        }
+
+        @Override
+        Node getNode(int i) {
+            throw new IndexOutOfBoundsException(i);
+        }
+
+        @Override
+        boolean equalTo(Node other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof CollisionNode that)
+                    || hash != that.hash
+                    || content.length != that.content.length) {
+                return false;
+            }
+            // entries in collision nodes are unordered
+            for (int i = 0; i < content.length; i += 2) {
+                int j = that.indexOf(content[i]);
+                if (j < 0 || !content[i + 1].equals(that.content[j + 1])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Iterates the entries by depth-first traversal of the trie
+     * as it was when the iterator is created. Removal via the iterator
+     * updates the map, which does not affect the traversal.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+
+        private final Deque<Node> nodes = new ArrayDeque<>();
+
+        private Node current;
+
+        private int dataIndex;
+
+        private K lastKey;
+
+        private EntryIterator() {
+            nodes.push(root);
+            advance();
+        }
+
+        /**
+         * Moves {@link #current} to the next node which holds entries.
+         */
+        private void advance() {
+            current = null;
+            dataIndex = 0;
+            while (!nodes.isEmpty()) {
+                Node node = nodes.pop();
+                for (int i = node.nodeArity() - 1; i >= 0; --i) {
+                    nodes.push(node.getNode(i));
+                }
+                if (node.dataArity() > 0) {
+                    current = node;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            K key = (K) current.getKey(dataIndex);
+            V value = (V) current.getValue(dataIndex);
+            if (++dataIndex == current.dataArity()) {
+                advance();
+            }
+            lastKey = key;
+            return new SimpleImmutableEntry<>(key, value);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            HashTrieMap.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+}
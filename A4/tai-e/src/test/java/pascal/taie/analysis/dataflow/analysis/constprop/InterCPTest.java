@@ -22,17 +22,31 @@
 
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
+import org.junit.Assert;
 import org.junit.Test;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.inter.InterConstantPropagation;
+import pascal.taie.analysis.dataflow.inter.InterConstantQuery;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
 
 public class InterCPTest {
 
     private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
 
     void test(String inputClass) {
+        test(inputClass, "worklist");
+    }
+
+    void test(String inputClass, String solver) {
         Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
-                "edge-refine:false;alias-aware:false", "-a", "cg=algorithm:cha"
+                "edge-refine:false;alias-aware:false;solver:" + solver,
+                "-a", "cg=algorithm:cha"
                 // , "-a", "icfg=dump:true" // <-- uncomment this code if you want
                                             // to output ICFGs for the test cases
         );
@@ -57,4 +71,53 @@ public class InterCPTest {
     public void testMultiIntArgs() {
         test("MultiIntArgs");
     }
+
+    @Test
+    public void testReferenceParallel() {
+        test("Reference", "parallel");
+    }
+
+    @Test
+    public void testFibonacciParallel() {
+        test("Fibonacci", "parallel");
+    }
+
+    @Test
+    public void testFibonacciTwoLevel() {
+        test("Fibonacci", "two-level");
+    }
+
+    @Test
+    public void testExampleTwoLevel() {
+        test("Example", "two-level");
+    }
+
+    /**
+     * Checks that the demand-driven queries give the same values
+     * as the exhaustive analysis, for all variables at all statements.
+     */
+    void testQuery(String inputClass) {
+        test(inputClass);
+        ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+        DataflowResult<Stmt, CPFact> result =
+                World.get().getResult(InterConstantPropagation.ID);
+        InterConstantQuery query = new InterConstantQuery(icfg);
+        for (Stmt stmt : icfg) {
+            JMethod method = icfg.getContainingMethodOf(stmt);
+            for (Var var : method.getIR().getVars()) {
+                Assert.assertEquals(stmt + " in " + method + ", " + var,
+                        result.getInFact(stmt).get(var), query.query(stmt, var));
+            }
+        }
+    }
+
+    @Test
+    public void testQueryExample() {
+        testQuery("Example");
+    }
+
+    @Test
+    public void testQueryMultiIntArgs() {
+        testQuery("MultiIntArgs");
+    }
 }
@@ -0,0 +1,150 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.SyntheticICFG;
+import pascal.taie.analysis.graph.icfg.SyntheticStmtICFG;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.BitSet;
+
+public class InterSolverTest {
+
+    /**
+     * Collects the nodes on the paths from the entries to each node,
+     * i.e., each node adds itself to its fact.
+     */
+    private static class PathNodes implements InterDataflowAnalysis<Integer, BitSet> {
+
+        @Override
+        public boolean isForward() {
+            return true;
+        }
+
+        @Override
+        public BitSet newBoundaryFact(Integer boundary) {
+            return new BitSet();
+        }
+
+        @Override
+        public BitSet newInitialFact() {
+            return new BitSet();
+        }
+
+        @Override
+        public void meetInto(BitSet fact, BitSet target) {
+            target.or(fact);
+        }
+
+        @Override
+        public boolean transferNode(Integer node, BitSet in, BitSet out) {
+            BitSet old = (BitSet) out.clone();
+            out.or(in);
+            out.set(node);
+            return !out.equals(old);
+        }
+
+        @Override
+        public BitSet transferEdge(ICFGEdge<Integer> edge, BitSet out) {
+            return out;
+        }
+    }
+
+    /**
+     * Checks that each kind of solver gives the same result as
+     * the work-list solver on random ICFGs with recursion.
+     */
+    void test(String kind, int parallelism) {
+        PathNodes analysis = new PathNodes();
+        for (long seed = 0; seed < 20; ++seed) {
+            SyntheticICFG icfg = new SyntheticICFG(
+                    30, 12, 0.2, 0.1, 0.1, 0.2, seed);
+            DataflowResult<Integer, BitSet> expected =
+                    InterSolver.makeSolver(analysis, icfg, "worklist", 0).solve();
+            check(kind, icfg, expected,
+                    InterSolver.makeSolver(analysis, icfg, kind, parallelism).solve());
+        }
+    }
+
+    @Test
+    public void testTwoLevel() {
+        test("two-level", 0);
+    }
+
+    @Test
+    public void testParallel() {
+        test("parallel", 4);
+    }
+
+    @Test
+    public void testParallelOneThread() {
+        test("parallel", 1);
+    }
+
+    /**
+     * Checks that the demand-driven constant queries give the IN facts
+     * of the work-list solver, for all variables at all statements of
+     * random ICFGs with recursion.
+     */
+    @Test
+    public void testConstantQuery() {
+        for (long seed = 0; seed < 20; ++seed) {
+            SyntheticStmtICFG icfg = new SyntheticStmtICFG(new SyntheticICFG(
+                    10, 12, 0.2, 0.1, 0.1, 0.2, seed), seed);
+            InterConstantPropagation analysis = new InterConstantPropagation(
+                    new AnalysisConfig(InterConstantPropagation.ID));
+            analysis.icfg = icfg;
+            DataflowResult<Stmt, CPFact> expected =
+                    InterSolver.makeSolver(analysis, icfg, "worklist", 0).solve();
+            InterConstantQuery query = new InterConstantQuery(icfg);
+            for (Stmt stmt : icfg) {
+                JMethod method = icfg.getContainingMethodOf(stmt);
+                for (Var var : method.getIR().getVars()) {
+                    Assert.assertEquals("seed " + seed + ", " + stmt + " in "
+                                    + method + ", " + var,
+                            expected.getInFact(stmt).get(var),
+                            query.query(stmt, var));
+                }
+            }
+        }
+    }
+
+    private static void check(String kind, SyntheticICFG icfg,
+                              DataflowResult<Integer, BitSet> expected,
+                              DataflowResult<Integer, BitSet> result) {
+        for (Integer node : icfg) {
+            Assert.assertEquals(kind + " at node " + node,
+                    expected.getInFact(node), result.getInFact(node));
+            Assert.assertEquals(kind + " at node " + node,
+                    expected.getOutFact(node), result.getOutFact(node));
+        }
+    }
+}
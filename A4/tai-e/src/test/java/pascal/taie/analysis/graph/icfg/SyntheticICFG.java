@@ -0,0 +1,224 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.icfg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Randomly generated ICFG for exercising the inter-procedural solvers
+ * without the front end. The methods and the nodes are integers.
+ * <p>
+ * Each method has an entry, a chain of body nodes with random back edges
+ * (loops) and forward edges (branches), and an exit. A body node may be
+ * a call site, whose next node in the chain is its return site. Method 0
+ * is the entry method, and a call site of method m calls a method after m,
+ * or with the probability of recursion, any method, so that the call graph
+ * has both deep call chains and strongly connected components.
+ */
+public class SyntheticICFG implements ICFG<Integer, Integer> {
+
+    private final List<Set<ICFGEdge<Integer>>> inEdges = new ArrayList<>();
+
+    private final List<Set<ICFGEdge<Integer>>> outEdges = new ArrayList<>();
+
+    private final List<Integer> containingMethods = new ArrayList<>();
+
+    private final List<Set<Integer>> callees = new ArrayList<>();
+
+    private final List<Integer> entries = new ArrayList<>();
+
+    private final List<Integer> exits = new ArrayList<>();
+
+    private final List<Set<Integer>> callers = new ArrayList<>();
+
+    private final Set<Integer> nodes;
+
+    /**
+     * @param methods   number of the methods.
+     * @param size      number of the body nodes of each method.
+     * @param calls     probability of a body node to be a call site.
+     * @param loops     probability of a body node to have a back edge.
+     * @param branches  probability of a body node to have a forward edge.
+     * @param recursion probability of a call site to call any method.
+     * @param seed      seed of the random generator.
+     */
+    public SyntheticICFG(int methods, int size, double calls, double loops,
+                         double branches, double recursion, long seed) {
+        Random random = new Random(seed);
+        for (int m = 0; m < methods; ++m) {
+            entries.add(newNode(m));
+            exits.add(newNode(m));
+            callers.add(new LinkedHashSet<>());
+        }
+        for (int m = 0; m < methods; ++m) {
+            int first = containingMethods.size();
+            for (int i = 0; i < size; ++i) {
+                newNode(m);
+            }
+            int last = containingMethods.size() - 1;
+            addEdge(new LocalEdge(entries.get(m), first));
+            addEdge(new LocalEdge(last, exits.get(m)));
+            for (int node = first; node < last; ++node) {
+                if (random.nextDouble() < calls) {
+                    int callee = random.nextDouble() < recursion || m == methods - 1
+                            ? random.nextInt(methods)
+                            : m + 1 + random.nextInt(methods - m - 1);
+                    callees.get(node).add(callee);
+                    callers.get(callee).add(node);
+                    addEdge(new CallEdge<>(node, entries.get(callee), null));
+                    addEdge(new ReturnEdge<>(exits.get(callee), node + 1, node,
+                            List.of(), List.of()));
+                }
+                addEdge(new LocalEdge(node, node + 1));
+                if (node > first && random.nextDouble() < loops) {
+                    addEdge(new LocalEdge(node,
+                            first + random.nextInt(node - first)));
+                }
+                if (random.nextDouble() < branches) {
+                    addEdge(new LocalEdge(node,
+                            node + 1 + random.nextInt(last - node)));
+                }
+            }
+        }
+        Set<Integer> allNodes = new LinkedHashSet<>();
+        for (int node = 0; node < containingMethods.size(); ++node) {
+            allNodes.add(node);
+        }
+        nodes = Collections.unmodifiableSet(allNodes);
+    }
+
+    private int newNode(int method) {
+        containingMethods.add(method);
+        inEdges.add(new LinkedHashSet<>());
+        outEdges.add(new LinkedHashSet<>());
+        callees.add(new LinkedHashSet<>());
+        return containingMethods.size() - 1;
+    }
+
+    private void addEdge(ICFGEdge<Integer> edge) {
+        outEdges.get(edge.getSource()).add(edge);
+        inEdges.get(edge.getTarget()).add(edge);
+    }
+
+    /**
+     * @return number of the methods.
+     */
+    public int getNumberOfMethods() {
+        return entries.size();
+    }
+
+    @Override
+    public Stream<Integer> entryMethods() {
+        return Stream.of(0);
+    }
+
+    @Override
+    public Set<ICFGEdge<Integer>> getInEdgesOf(Integer node) {
+        return inEdges.get(node);
+    }
+
+    @Override
+    public Set<ICFGEdge<Integer>> getOutEdgesOf(Integer node) {
+        return outEdges.get(node);
+    }
+
+    @Override
+    public Set<Integer> getCalleesOf(Integer callSite) {
+        return callees.get(callSite);
+    }
+
+    @Override
+    public Set<Integer> getReturnSitesOf(Integer callSite) {
+        return isCallSite(callSite) ? Set.of(callSite + 1) : Set.of();
+    }
+
+    @Override
+    public Integer getEntryOf(Integer method) {
+        return entries.get(method);
+    }
+
+    @Override
+    public Integer getExitOf(Integer method) {
+        return exits.get(method);
+    }
+
+    @Override
+    public Set<Integer> getCallersOf(Integer method) {
+        return callers.get(method);
+    }
+
+    @Override
+    public Integer getContainingMethodOf(Integer node) {
+        return containingMethods.get(node);
+    }
+
+    @Override
+    public boolean isCallSite(Integer node) {
+        return !callees.get(node).isEmpty();
+    }
+
+    @Override
+    public boolean hasNode(Integer node) {
+        return node >= 0 && node < containingMethods.size();
+    }
+
+    @Override
+    public boolean hasEdge(Integer source, Integer target) {
+        return getSuccsOf(source).contains(target);
+    }
+
+    @Override
+    public Set<Integer> getPredsOf(Integer node) {
+        Set<Integer> preds = new LinkedHashSet<>();
+        inEdges.get(node).forEach(edge -> preds.add(edge.getSource()));
+        return preds;
+    }
+
+    @Override
+    public Set<Integer> getSuccsOf(Integer node) {
+        Set<Integer> succs = new LinkedHashSet<>();
+        outEdges.get(node).forEach(edge -> succs.add(edge.getTarget()));
+        return succs;
+    }
+
+    @Override
+    public Set<Integer> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Intra-procedural edge, i.e., a normal edge or a call-to-return edge.
+     */
+    private static class LocalEdge extends ICFGEdge<Integer> {
+
+        private LocalEdge(Integer source, Integer target) {
+            super(source, target);
+        }
+    }
+}
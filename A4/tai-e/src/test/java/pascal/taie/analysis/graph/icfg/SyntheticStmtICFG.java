@@ -0,0 +1,320 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.icfg;
+
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.InvokeStatic;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Modifier;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * ICFG of statements with the shape of a {@link SyntheticICFG}, for
+ * exercising inter-procedural constant propagation without the front end.
+ * <p>
+ * Each method is static, takes two ints and returns an int. Its entry and
+ * exit are {@link Nop}s, a call site is a static {@link Invoke} with random
+ * arguments and result, and any other body node is a random int assignment
+ * of a small literal, a variable, or the sum of two variables. The value
+ * of variable {@code r} is returned.
+ */
+public class SyntheticStmtICFG implements ICFG<JMethod, Stmt> {
+
+    private static final int PARAMS = 2;
+
+    private static final int LOCALS = 4;
+
+    private final SyntheticICFG shape;
+
+    private final List<JMethod> methods = new ArrayList<>();
+
+    private final List<Stmt> stmts = new ArrayList<>();
+
+    private final Map<Stmt, Integer> nodes = Maps.newMap();
+
+    private final List<Set<ICFGEdge<Stmt>>> inEdges = new ArrayList<>();
+
+    private final List<Set<ICFGEdge<Stmt>>> outEdges = new ArrayList<>();
+
+    private final Set<Stmt> stmtSet;
+
+    /**
+     * @param shape the ICFG whose nodes and edges are given statements
+     * @param seed  seed of the random generator of the statements
+     */
+    public SyntheticStmtICFG(SyntheticICFG shape, long seed) {
+        this.shape = shape;
+        Random random = new Random(seed);
+        JClass jclass = new JClass(null, "Synthetic" + seed);
+        List<List<Var>> vars = new ArrayList<>();
+        for (int m = 0; m < shape.getNumberOfMethods(); ++m) {
+            JMethod method = new JMethod(jclass, "m" + m, Set.of(Modifier.STATIC),
+                    Collections.nCopies(PARAMS, PrimitiveType.INT), PrimitiveType.INT,
+                    List.of(), AnnotationHolder.emptyHolder(), null, null);
+            methods.add(method);
+            List<Var> methodVars = new ArrayList<>();
+            for (int i = 0; i < PARAMS; ++i) {
+                methodVars.add(new Var(method, "p" + i, PrimitiveType.INT, i));
+            }
+            for (int i = 0; i < LOCALS; ++i) {
+                methodVars.add(new Var(method, "v" + i,
+                        PrimitiveType.INT, methodVars.size()));
+            }
+            methodVars.add(new Var(method, "r", PrimitiveType.INT, methodVars.size()));
+            vars.add(methodVars);
+        }
+        for (Integer node : shape) {
+            int m = shape.getContainingMethodOf(node);
+            Stmt stmt;
+            if (node.equals(shape.getEntryOf(m)) || node.equals(shape.getExitOf(m))) {
+                stmt = new Nop();
+            } else {
+                stmt = newStmt(random, methods.get(m), vars.get(m),
+                        shape.getCalleesOf(node));
+            }
+            stmts.add(stmt);
+            nodes.put(stmt, node);
+            inEdges.add(new LinkedHashSet<>());
+            outEdges.add(new LinkedHashSet<>());
+        }
+        stmtSet = Collections.unmodifiableSet(new LinkedHashSet<>(stmts));
+        for (Integer node : shape) {
+            for (ICFGEdge<Integer> edge : shape.getOutEdgesOf(node)) {
+                addEdge(convertEdge(edge, vars));
+            }
+        }
+        for (int m = 0; m < methods.size(); ++m) {
+            setIR(methods.get(m), vars.get(m));
+        }
+    }
+
+    private Stmt newStmt(Random random, JMethod method, List<Var> vars,
+                         Set<Integer> callees) {
+        // params are only read, and the other variables are written
+        Var lValue = vars.get(PARAMS + random.nextInt(vars.size() - PARAMS));
+        if (!callees.isEmpty()) {
+            JMethod callee = methods.get(callees.iterator().next());
+            List<Var> args = new ArrayList<>();
+            for (int i = 0; i < PARAMS; ++i) {
+                args.add(vars.get(random.nextInt(vars.size())));
+            }
+            return new Invoke(method, new InvokeStatic(callee.getRef(), args), lValue);
+        }
+        Var v1 = vars.get(random.nextInt(vars.size()));
+        Var v2 = vars.get(random.nextInt(vars.size()));
+        return switch (random.nextInt(3)) {
+            case 0 -> new AssignLiteral(lValue, IntLiteral.get(random.nextInt(3)));
+            case 1 -> new Copy(lValue, v1);
+            default -> new Binary(lValue,
+                    new ArithmeticExp(ArithmeticExp.Op.ADD, v1, v2));
+        };
+    }
+
+    private ICFGEdge<Stmt> convertEdge(ICFGEdge<Integer> edge, List<List<Var>> vars) {
+        Stmt source = stmts.get(edge.getSource());
+        Stmt target = stmts.get(edge.getTarget());
+        if (edge instanceof CallEdge) {
+            return new CallEdge<>(source, target,
+                    methods.get(shape.getContainingMethodOf(edge.getTarget())));
+        } else if (edge instanceof ReturnEdge<Integer> returnEdge) {
+            List<Var> calleeVars = vars.get(shape.getContainingMethodOf(edge.getSource()));
+            return new ReturnEdge<>(source, target,
+                    stmts.get(returnEdge.getCallSite()),
+                    List.of(calleeVars.get(calleeVars.size() - 1)), List.of());
+        } else if (shape.isCallSite(edge.getSource())) {
+            return new CallToReturnEdge<>(newCFGEdge(source, target));
+        } else {
+            return new NormalEdge<>(newCFGEdge(source, target));
+        }
+    }
+
+    /**
+     * Creates an intra-procedural edge, whose constructor is only
+     * available to the CFG builder.
+     */
+    private static Edge<Stmt> newCFGEdge(Stmt source, Stmt target) {
+        try {
+            @SuppressWarnings("unchecked")
+            Constructor<Edge<Stmt>> constructor = (Constructor<Edge<Stmt>>) (Constructor<?>)
+                    Edge.class.getDeclaredConstructor(Edge.Kind.class, Object.class, Object.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(Edge.Kind.FALL_THROUGH, source, target);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void addEdge(ICFGEdge<Stmt> edge) {
+        outEdges.get(nodes.get(edge.getSource())).add(edge);
+        inEdges.get(nodes.get(edge.getTarget())).add(edge);
+    }
+
+    /**
+     * Sets the IR of given method, which holds its body statements
+     * and the CFG for the boundary fact. Otherwise, the IR would be
+     * built by the front end.
+     */
+    private void setIR(JMethod method, List<Var> vars) {
+        int m = methods.indexOf(method);
+        List<Stmt> body = new ArrayList<>();
+        for (Integer node : shape) {
+            if (shape.getContainingMethodOf(node) == m
+                    && !node.equals(shape.getEntryOf(m))
+                    && !node.equals(shape.getExitOf(m))) {
+                body.add(stmts.get(node));
+            }
+        }
+        Var returnVar = vars.get(vars.size() - 1);
+        // the Return is not a node of the ICFG, as the value
+        // of r flows to the return sites from the exit
+        body.add(new Return(returnVar));
+        for (int i = 0; i < body.size(); ++i) {
+            body.get(i).setIndex(i);
+        }
+        IR ir = new DefaultIR(method, null, vars.subList(0, PARAMS),
+                Set.of(returnVar), vars, body, List.of());
+        try {
+            Field irField = JMethod.class.getDeclaredField("ir");
+            irField.setAccessible(true);
+            irField.set(method, ir);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+        ir.storeResult(CFGBuilder.ID, new CFGBuilder(new AnalysisConfig(
+                CFGBuilder.ID, "exception", "none", "dump", false)).analyze(ir));
+    }
+
+    @Override
+    public Stream<JMethod> entryMethods() {
+        return shape.entryMethods().map(methods::get);
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getInEdgesOf(Stmt stmt) {
+        return inEdges.get(nodes.get(stmt));
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getOutEdgesOf(Stmt stmt) {
+        return outEdges.get(nodes.get(stmt));
+    }
+
+    @Override
+    public Set<JMethod> getCalleesOf(Stmt callSite) {
+        Set<JMethod> callees = new LinkedHashSet<>();
+        shape.getCalleesOf(nodes.get(callSite)).forEach(m -> callees.add(methods.get(m)));
+        return callees;
+    }
+
+    @Override
+    public Set<Stmt> getReturnSitesOf(Stmt callSite) {
+        Set<Stmt> returnSites = new LinkedHashSet<>();
+        shape.getReturnSitesOf(nodes.get(callSite)).forEach(n -> returnSites.add(stmts.get(n)));
+        return returnSites;
+    }
+
+    @Override
+    public Stmt getEntryOf(JMethod method) {
+        return stmts.get(shape.getEntryOf(methods.indexOf(method)));
+    }
+
+    @Override
+    public Stmt getExitOf(JMethod method) {
+        return stmts.get(shape.getExitOf(methods.indexOf(method)));
+    }
+
+    @Override
+    public Set<Stmt> getCallersOf(JMethod method) {
+        Set<Stmt> callers = new LinkedHashSet<>();
+        shape.getCallersOf(methods.indexOf(method)).forEach(n -> callers.add(stmts.get(n)));
+        return callers;
+    }
+
+    @Override
+    public JMethod getContainingMethodOf(Stmt stmt) {
+        return methods.get(shape.getContainingMethodOf(nodes.get(stmt)));
+    }
+
+    @Override
+    public boolean isCallSite(Stmt stmt) {
+        return shape.isCallSite(nodes.get(stmt));
+    }
+
+    @Override
+    public boolean hasNode(Stmt stmt) {
+        return nodes.containsKey(stmt);
+    }
+
+    @Override
+    public boolean hasEdge(Stmt source, Stmt target) {
+        return getSuccsOf(source).contains(target);
+    }
+
+    @Override
+    public Set<Stmt> getPredsOf(Stmt stmt) {
+        Set<Stmt> preds = new LinkedHashSet<>();
+        getInEdgesOf(stmt).forEach(edge -> preds.add(edge.getSource()));
+        return preds;
+    }
+
+    @Override
+    public Set<Stmt> getSuccsOf(Stmt stmt) {
+        Set<Stmt> succs = new LinkedHashSet<>();
+        getOutEdgesOf(stmt).forEach(edge -> succs.add(edge.getTarget()));
+        return succs;
+    }
+
+    @Override
+    public Set<Stmt> getNodes() {
+        return stmtSet;
+    }
+}
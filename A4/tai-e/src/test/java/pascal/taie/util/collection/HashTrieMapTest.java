@@ -0,0 +1,201 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class HashTrieMapTest {
+
+    /**
+     * Key with a given hash code, for building collisions and deep tries.
+     */
+    private record Key(int id, int hash) {
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static HashTrieMap<Key, Integer> build(List<Key> keys) {
+        HashTrieMap<Key, Integer> map = new HashTrieMap<>();
+        for (Key key : keys) {
+            map.put(key, key.id());
+        }
+        return map;
+    }
+
+    private static void assertSameMap(Map<Key, Integer> expected,
+                                      HashTrieMap<Key, Integer> map) {
+        Assert.assertEquals(expected.size(), map.size());
+        expected.forEach((k, v) -> Assert.assertEquals(v, map.get(k)));
+        Map<Key, Integer> iterated = new HashMap<>();
+        for (Map.Entry<Key, Integer> e : map.entrySet()) {
+            Assert.assertNull("duplicate " + e.getKey(),
+                    iterated.put(e.getKey(), e.getValue()));
+        }
+        Assert.assertEquals(expected, iterated);
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(map, expected);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    public void testCollisions() {
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            keys.add(new Key(i, 42));
+        }
+        HashTrieMap<Key, Integer> map = build(keys);
+        Assert.assertEquals(10, map.size());
+        Assert.assertNull(map.get(new Key(10, 42)));
+        Assert.assertEquals(Integer.valueOf(3), map.put(new Key(3, 42), 30));
+        Assert.assertEquals(Integer.valueOf(30), map.remove(new Key(3, 42)));
+        Assert.assertNull(map.remove(new Key(3, 42)));
+        Map<Key, Integer> expected = new HashMap<>();
+        keys.stream().filter(k -> k.id() != 3).forEach(k -> expected.put(k, k.id()));
+        assertSameMap(expected, map);
+    }
+
+    @Test
+    public void testRemoveCollapses() {
+        Key a = new Key(0, 1);
+        // shares the lowest 25 bits with a, thus is pushed down five levels
+        Key b = new Key(1, 1 | (1 << 25));
+        Key c = new Key(2, 1 | (1 << 25));
+        Key d = new Key(3, 7);
+        HashTrieMap<Key, Integer> map = build(List.of(a, b, c, d));
+        map.remove(c);
+        // the collision node of b and c collapses into b
+        Assert.assertEquals(build(List.of(a, b, d)), map);
+        map.remove(a);
+        // the path of b collapses into the root
+        HashTrieMap<Key, Integer> expected = build(List.of(d, b));
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(map, expected);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+        map.remove(b);
+        map.remove(d);
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertEquals(new HashTrieMap<Key, Integer>(), map);
+        Assert.assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testDeepTrie() {
+        // the keys differ only in the highest two bits,
+        // which are consumed at the deepest level
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            keys.add(new Key(i, (i << 30) | 12345));
+        }
+        // and two of them also collide
+        keys.add(new Key(4, (3 << 30) | 12345));
+        HashTrieMap<Key, Integer> map = build(keys);
+        Map<Key, Integer> expected = new HashMap<>();
+        keys.forEach(k -> expected.put(k, k.id()));
+        assertSameMap(expected, map);
+        for (Key key : keys) {
+            map.remove(key);
+            expected.remove(key);
+            assertSameMap(expected, map);
+        }
+    }
+
+    @Test
+    public void testEqualsAcrossBuildOrders() {
+        Random random = new Random(0);
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            // few distinct hashes, so that there are collisions
+            keys.add(new Key(i, random.nextInt(300) * 0x9E3779B9));
+        }
+        HashTrieMap<Key, Integer> map1 = build(keys);
+        List<Key> shuffled = new ArrayList<>(keys);
+        Collections.shuffle(shuffled, random);
+        // map2 also inserts and then removes extra keys
+        HashTrieMap<Key, Integer> map2 = new HashTrieMap<>();
+        List<Key> extra = new ArrayList<>();
+        for (Key key : shuffled) {
+            map2.put(key, key.id());
+            Key e = new Key(-1 - key.id(), key.hash() ^ random.nextInt(4));
+            map2.put(e, 0);
+            extra.add(e);
+        }
+        extra.forEach(map2::remove);
+        Assert.assertEquals(map1, map2);
+        Assert.assertEquals(map2, map1);
+        Assert.assertEquals(map1.hashCode(), map2.hashCode());
+        Map<Key, Integer> expected = new HashMap<>();
+        keys.forEach(k -> expected.put(k, k.id()));
+        assertSameMap(expected, map2);
+        // differ in one value
+        map2.put(keys.get(0), -1);
+        Assert.assertNotEquals(map1, map2);
+        Assert.assertNotEquals(map2, map1);
+    }
+
+    @Test
+    public void testSnapshotAndRandomUpdates() {
+        Random random = new Random(1);
+        HashTrieMap<Key, Integer> map = new HashTrieMap<>();
+        Map<Key, Integer> expected = new HashMap<>();
+        HashTrieMap<Key, Integer> snapshot = map.snapshot();
+        Map<Key, Integer> expectedSnapshot = new HashMap<>();
+        for (int i = 0; i < 5000; ++i) {
+            int id = random.nextInt(400);
+            // a quarter of the keys share their hash with another key
+            Key key = new Key(id, id < 100 ? id / 2 : id * 0x01000193);
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assert.assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            if (i % 1000 == 0) {
+                assertSameMap(expectedSnapshot, snapshot);
+                snapshot = map.snapshot();
+                expectedSnapshot = new HashMap<>(expected);
+            }
+        }
+        assertSameMap(expected, map);
+        assertSameMap(expectedSnapshot, snapshot);
+        // removal through the iterator
+        for (Iterator<Map.Entry<Key, Integer>> it = map.entrySet().iterator();
+             it.hasNext(); ) {
+            if (it.next().getKey().id() % 2 == 0) {
+                it.remove();
+            }
+        }
+        expected.keySet().removeIf(k -> k.id() % 2 == 0);
+        assertSameMap(expected, map);
+    }
+}
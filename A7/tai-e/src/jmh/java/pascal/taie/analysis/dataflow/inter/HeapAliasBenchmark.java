@@ -0,0 +1,88 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.ir.stmt.LoadArray;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding the aliased array stores of every load through
+ * {@link HeapAliasIndex} (including building the index) with
+ * intersecting the points-to sets of each load and every store,
+ * on a {@link SyntheticHeap} with 20 array accesses per method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeapAliasBenchmark {
+
+    @Param({ "100", "1000" })
+    public int methods;
+
+    private SyntheticHeap heap;
+
+    private List<LoadArray> loads;
+
+    @Setup
+    public void setUp() {
+        heap = new SyntheticHeap(methods, 20, 100, 3, 0.1, 0);
+        loads = heap.getStmts()
+                .stream()
+                .filter(s -> s instanceof LoadArray)
+                .map(s -> (LoadArray) s)
+                .toList();
+    }
+
+    @Benchmark
+    public void index(Blackhole bh) {
+        HeapAliasIndex index = new HeapAliasIndex(
+                heap.getStmts(), heap::getPointsToSet);
+        for (LoadArray load : loads) {
+            bh.consume(index.storesOf(load).count());
+        }
+    }
+
+    @Benchmark
+    public void pairwise(Blackhole bh) {
+        for (LoadArray load : loads) {
+            bh.consume(heap.naiveStoresOf(load));
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.FieldStmt;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Index of the heap accesses which may alias, for alias-aware
+ * constant propagation.
+ * <p>
+ * The index is built once from the points-to sets: each load and store
+ * of int values is put to the groups of the heap locations it may access,
+ * i.e., (object, field) for an instance field, the field for a static
+ * field, and the array object for an array access. The stores which may
+ * flow to a load are the stores in the groups of the load, and vice versa,
+ * thus the aliased statements are found without comparing the points-to
+ * sets of every pair of loads and stores. The pairs are not materialized,
+ * as a heap location accessed by many loads and stores would make
+ * the number of the pairs quadratic, so the size of the index is linear
+ * in the total size of the points-to sets of the bases.
+ * <p>
+ * For array accesses, the index gives the statements whose bases
+ * may alias, and the client still needs to check whether their indexes
+ * may alias. A statement may be given more than once if it shares
+ * multiple heap locations with the queried statement.
+ */
+class HeapAliasIndex {
+
+    /**
+     * Load/store statement -> groups of the heap locations it may access.
+     */
+    private final MultiMap<Stmt, Group> groupsOf = Maps.newMultiMap();
+
+    /**
+     * @param stmts    all reachable statements
+     * @param pointsTo maps a variable to its points-to set, e.g.,
+     *                 {@link PointerAnalysisResult#getPointsToSet(Var)}
+     */
+    HeapAliasIndex(Iterable<Stmt> stmts, Function<Var, Set<Obj>> pointsTo) {
+        Map<Object, Group> groups = Maps.newMap();
+        for (Stmt stmt : stmts) {
+            if (stmt instanceof LoadField load &&
+                    ConstantPropagation.canHoldInt(load.getLValue())) {
+                for (Object location : getLocations(load, pointsTo)) {
+                    addLoad(getGroup(groups, location), load);
+                }
+            } else if (stmt instanceof StoreField store &&
+                    ConstantPropagation.canHoldInt(store.getRValue())) {
+                for (Object location : getLocations(store, pointsTo)) {
+                    addStore(getGroup(groups, location), store);
+                }
+            } else if (stmt instanceof LoadArray load &&
+                    ConstantPropagation.canHoldInt(load.getLValue())) {
+                for (Obj array : pointsTo.apply(
+                        load.getArrayAccess().getBase())) {
+                    addLoad(getGroup(groups, array), load);
+                }
+            } else if (stmt instanceof StoreArray store &&
+                    ConstantPropagation.canHoldInt(store.getRValue())) {
+                for (Obj array : pointsTo.apply(
+                        store.getArrayAccess().getBase())) {
+                    addStore(getGroup(groups, array), store);
+                }
+            }
+        }
+    }
+
+    private static Group getGroup(Map<Object, Group> groups, Object location) {
+        return groups.computeIfAbsent(location, l -> new Group());
+    }
+
+    private void addLoad(Group group, Stmt load) {
+        group.loads.add(load);
+        groupsOf.put(load, group);
+    }
+
+    private void addStore(Group group, Stmt store) {
+        group.stores.add(store);
+        groupsOf.put(store, group);
+    }
+
+    /**
+     * @return the heap locations which may be accessed by given
+     * field statement.
+     */
+    private static List<Object> getLocations(FieldStmt<?, ?> stmt,
+                                             Function<Var, Set<Obj>> pointsTo) {
+        List<Object> locations = new ArrayList<>();
+        if (stmt.isStatic()) {
+            locations.add(stmt.getFieldRef().resolve());
+        } else {
+            InstanceFieldAccess access = (InstanceFieldAccess) stmt.getFieldAccess();
+            for (Obj obj : pointsTo.apply(access.getBase())) {
+                locations.add(new Pair<>(obj, stmt.getFieldRef().resolve()));
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * @return the stores whose values may be read by given load.
+     */
+    Stream<Stmt> storesOf(Stmt load) {
+        return groupsOf.get(load)
+                .stream()
+                .flatMap(group -> group.stores.stream());
+    }
+
+    /**
+     * @return the loads which may read the value stored by given store.
+     */
+    Stream<Stmt> loadsOf(Stmt store) {
+        return groupsOf.get(store)
+                .stream()
+                .flatMap(group -> group.loads.stream());
+    }
+
+    /**
+     * The loads and stores of a heap location.
+     */
+    private static class Group {
+
+        private final List<Stmt> loads = new ArrayList<>();
+
+        private final List<Stmt> stores = new ArrayList<>();
+    }
+}
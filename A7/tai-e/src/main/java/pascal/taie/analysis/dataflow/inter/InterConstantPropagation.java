@@ -25,6 +25,7 @@ package pascal.taie.analysis.dataflow.inter;
 import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
@@ -37,8 +38,15 @@ import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
 import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
 
 /**
  * Implementation of interprocedural constant propagation for int values.
@@ -50,16 +58,37 @@ public class InterConstantPropagation extends
 
     private final ConstantPropagation cp;
 
+    /**
+     * Whether the values flowing through the heap (fields and arrays)
+     * are propagated from the stores to the aliased loads.
+     */
+    private final boolean aliasAware;
+
+    private HeapAliasIndex aliasIndex;
+
+    /**
+     * Values of the stored variables at the stores (in their IN facts).
+     */
+    private final Map<Stmt, Value> storedValues = Maps.newMap();
+
+    /**
+     * Values of the indexes at the array stores (in their IN facts).
+     */
+    private final Map<Stmt, Value> storedIndexes = Maps.newMap();
+
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
         cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        aliasAware = getOptions().getBoolean("alias-aware");
     }
 
     @Override
     protected void initialize() {
-        String ptaId = getOptions().getString("pta");
-        PointerAnalysisResult pta = World.get().getResult(ptaId);
-        // You can do initialization work here
+        if (aliasAware) {
+            String ptaId = getOptions().getString("pta");
+            PointerAnalysisResult pta = World.get().getResult(ptaId);
+            aliasIndex = new HeapAliasIndex(icfg, pta::getPointsToSet);
+        }
     }
 
     @Override
@@ -85,37 +114,133 @@ public class InterConstantPropagation extends
 
     @Override
     protected boolean transferCallNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        if (in.equals(out)) {
+            return false;
+        }
+        out.clear();
+        out.copyFrom(in);
+        return true;
     }
 
     @Override
     protected boolean transferNonCallNode(Stmt stmt, CPFact in, CPFact out) {
-        // TODO - finish me
-        return false;
+        if (aliasAware) {
+            if (stmt instanceof StoreField || stmt instanceof StoreArray) {
+                transferStore(stmt, in);
+            } else if (stmt instanceof LoadField load &&
+                    ConstantPropagation.canHoldInt(load.getLValue())) {
+                return transferLoad(load.getLValue(), loadField(load), in, out);
+            } else if (stmt instanceof LoadArray load &&
+                    ConstantPropagation.canHoldInt(load.getLValue())) {
+                return transferLoad(load.getLValue(), loadArray(load, in), in, out);
+            }
+        }
+        return cp.transferNode(stmt, in, out);
+    }
+
+    /**
+     * Records the stored value (and index) of given store, and if they
+     * change, adds the aliased loads to the work-list of the solver.
+     */
+    private void transferStore(Stmt store, CPFact in) {
+        boolean changed;
+        if (store instanceof StoreField storeField) {
+            changed = update(storedValues, store, in.get(storeField.getRValue()));
+        } else {
+            StoreArray storeArray = (StoreArray) store;
+            changed = update(storedValues, store, in.get(storeArray.getRValue()));
+            changed |= update(storedIndexes, store,
+                    in.get(storeArray.getArrayAccess().getIndex()));
+        }
+        if (changed) {
+            aliasIndex.loadsOf(store).forEach(solver::addToWorkList);
+        }
+    }
+
+    private static boolean update(Map<Stmt, Value> values, Stmt store, Value value) {
+        Value oldValue = values.put(store, value);
+        return !value.equals(oldValue == null ? Value.getUndef() : oldValue);
+    }
+
+    private Value loadField(LoadField load) {
+        return aliasIndex.storesOf(load)
+                .map(this::getStoredValue)
+                .reduce(Value.getUndef(), cp::meetValue);
+    }
+
+    private Value loadArray(LoadArray load, CPFact in) {
+        Value index = in.get(load.getArrayAccess().getIndex());
+        return aliasIndex.storesOf(load)
+                .filter(store -> mayAlias(index,
+                        storedIndexes.getOrDefault(store, Value.getUndef())))
+                .map(this::getStoredValue)
+                .reduce(Value.getUndef(), cp::meetValue);
+    }
+
+    private Value getStoredValue(Stmt store) {
+        return storedValues.getOrDefault(store, Value.getUndef());
+    }
+
+    /**
+     * @return true if two array indexes may be equal, otherwise false.
+     */
+    private static boolean mayAlias(Value index1, Value index2) {
+        if (index1.isUndef() || index2.isUndef()) {
+            return false;
+        }
+        if (index1.isConstant() && index2.isConstant()) {
+            return index1.getConstant() == index2.getConstant();
+        }
+        return true;
+    }
+
+    private static boolean transferLoad(Var lValue, Value value,
+                                        CPFact in, CPFact out) {
+        CPFact oldOut = out.copy();
+        out.clear();
+        out.copyFrom(in);
+        out.update(lValue, value);
+        return !out.equals(oldOut);
     }
 
     @Override
     protected CPFact transferNormalEdge(NormalEdge<Stmt> edge, CPFact out) {
-        // TODO - finish me
-        return null;
+        return out;
     }
 
     @Override
     protected CPFact transferCallToReturnEdge(CallToReturnEdge<Stmt> edge, CPFact out) {
-        // TODO - finish me
-        return null;
+        CPFact result = out.copy();
+        edge.getSource().getDef().ifPresent(def -> {
+            if (def instanceof Var lVar) {
+                result.update(lVar, Value.getUndef());
+            }
+        });
+        return result;
     }
 
     @Override
     protected CPFact transferCallEdge(CallEdge<Stmt> edge, CPFact callSiteOut) {
-        // TODO - finish me
-        return null;
+        CPFact result = newInitialFact();
+        InvokeExp invokeExp = ((Invoke) edge.getSource()).getInvokeExp();
+        IR calleeIR = edge.getCallee().getIR();
+        for (int i = 0; i < invokeExp.getArgCount(); ++i) {
+            result.update(calleeIR.getParam(i), callSiteOut.get(invokeExp.getArg(i)));
+        }
+        return result;
     }
 
     @Override
     protected CPFact transferReturnEdge(ReturnEdge<Stmt> edge, CPFact returnOut) {
-        // TODO - finish me
-        return null;
+        CPFact result = newInitialFact();
+        Var lVar = ((Invoke) edge.getCallSite()).getLValue();
+        if (lVar != null) {
+            Value value = Value.getUndef();
+            for (Var returnVar : edge.getReturnVars()) {
+                value = cp.meetValue(value, returnOut.get(returnVar));
+            }
+            result.update(lVar, value);
+        }
+        return result;
     }
 }
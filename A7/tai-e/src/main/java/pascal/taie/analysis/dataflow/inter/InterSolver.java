@@ -24,11 +24,10 @@ package pascal.taie.analysis.dataflow.inter;
 
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
 import pascal.taie.util.collection.SetQueue;
 
 import java.util.Queue;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Solver for inter-procedural data-flow analysis.
@@ -58,11 +57,45 @@ class InterSolver<Method, Node, Fact> {
         return result;
     }
 
+    /**
+     * Adds given node to the work-list, so that it is visited again
+     * even if the facts of its predecessors do not change. This is used
+     * by the analyses whose transfer of a node also depends on the facts
+     * of the nodes other than its predecessors.
+     */
+    void addToWorkList(Node node) {
+        workList.add(node);
+    }
+
     private void initialize() {
-        // TODO - finish me
+        for (Node node : icfg) {
+            result.setOutFact(node, analysis.newInitialFact());
+        }
+        workList = new SetQueue<>();
+        icfg.entryMethods().forEach(entryMethod -> {
+            Node entry = icfg.getEntryOf(entryMethod);
+            workList.add(entry);
+            result.setOutFact(entry, analysis.newBoundaryFact(entry));
+        });
     }
 
     private void doSolve() {
-        // TODO - finish me
+        for (Node node : icfg) {
+            workList.add(node);
+        }
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact in = analysis.newInitialFact();
+            for (ICFGEdge<Node> inEdge : icfg.getInEdgesOf(node)) {
+                analysis.meetInto(analysis.transferEdge(inEdge,
+                        result.getOutFact(inEdge.getSource())), in);
+            }
+            result.setInFact(node, in);
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                for (Node succ : icfg.getSuccsOf(node)) {
+                    workList.add(succ);
+                }
+            }
+        }
     }
 }
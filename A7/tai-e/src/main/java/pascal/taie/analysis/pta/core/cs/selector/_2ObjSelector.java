@@ -42,19 +42,29 @@ public class _2ObjSelector implements ContextSelector {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
-        // TODO - finish me
-        return null;
+        return callSite.getContainer().getContext();
     }
 
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
-        // TODO - finish me
-        return null;
+        Context objContext = recv.getContext();
+        if (objContext.getLength()==0) {
+            return ListContext.make(recv.getObject());
+        }
+        return ListContext.make(
+                objContext.getElementAt(objContext.getLength()-1),
+                recv.getObject()
+        );
     }
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
-        // TODO - finish me
-        return null;
+        Context containerContext = method.getContext();
+        if (containerContext.getLength()==0) {
+            return getEmptyContext();
+        }
+        return ListContext.make(
+                containerContext.getElementAt(containerContext.getLength()-1)
+        );
     }
 }
@@ -0,0 +1,164 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class HeapAliasIndexTest {
+
+    private static HeapAliasIndex index(SyntheticHeap heap) {
+        return new HeapAliasIndex(heap.getStmts(), heap::getPointsToSet);
+    }
+
+    @Test
+    public void testAliasedBases() {
+        Obj o1 = SyntheticHeap.newObj("o1");
+        Obj o2 = SyntheticHeap.newObj("o2");
+        SyntheticHeap heap = new SyntheticHeap();
+        StoreArray store1 = heap.addStore(o1);
+        StoreArray store2 = heap.addStore(o2);
+        LoadArray load1 = heap.addLoad(o1);
+        LoadArray load2 = heap.addLoad(o2);
+        HeapAliasIndex index = index(heap);
+        Assert.assertEquals(List.of(store1), index.storesOf(load1).toList());
+        Assert.assertEquals(List.of(store2), index.storesOf(load2).toList());
+        Assert.assertEquals(List.of(load1), index.loadsOf(store1).toList());
+        Assert.assertEquals(List.of(load2), index.loadsOf(store2).toList());
+    }
+
+    @Test
+    public void testNoAlias() {
+        SyntheticHeap heap = new SyntheticHeap();
+        StoreArray store = heap.addStore(SyntheticHeap.newObj("o1"));
+        LoadArray load = heap.addLoad(SyntheticHeap.newObj("o2"));
+        LoadArray empty = heap.addLoad();
+        HeapAliasIndex index = index(heap);
+        Assert.assertEquals(0, index.storesOf(load).count());
+        Assert.assertEquals(0, index.storesOf(empty).count());
+        Assert.assertEquals(0, index.loadsOf(store).count());
+    }
+
+    @Test
+    public void testNonIntStore() {
+        Obj o = SyntheticHeap.newObj("o");
+        SyntheticHeap heap = new SyntheticHeap();
+        StoreArray store = heap.addStore(PrimitiveType.LONG, o);
+        LoadArray load = heap.addLoad(o);
+        HeapAliasIndex index = index(heap);
+        Assert.assertEquals(0, index.storesOf(load).count());
+        Assert.assertEquals(0, index.loadsOf(store).count());
+    }
+
+    @Test
+    public void testMultipleSharedObjects() {
+        Obj o1 = SyntheticHeap.newObj("o1");
+        Obj o2 = SyntheticHeap.newObj("o2");
+        Obj o3 = SyntheticHeap.newObj("o3");
+        SyntheticHeap heap = new SyntheticHeap();
+        StoreArray store = heap.addStore(o1, o2);
+        LoadArray load = heap.addLoad(o1, o2, o3);
+        HeapAliasIndex index = index(heap);
+        // the store is given once for each shared object
+        Assert.assertEquals(List.of(store, store), index.storesOf(load).toList());
+        Assert.assertEquals(List.of(load, load), index.loadsOf(store).toList());
+    }
+
+    @Test
+    public void testInstanceFields() {
+        Obj o1 = SyntheticHeap.newObj("o1");
+        Obj o2 = SyntheticHeap.newObj("o2");
+        JField f = SyntheticHeap.newField("A", "f", false);
+        JField g = SyntheticHeap.newField("A", "g", false);
+        SyntheticHeap heap = new SyntheticHeap();
+        StoreField storeF1 = heap.addStore(f, o1);
+        StoreField storeG1 = heap.addStore(g, o1);
+        StoreField storeF2 = heap.addStore(f, o2);
+        StoreArray storeArray = heap.addStore(o1);
+        LoadField loadF1 = heap.addLoad(f, o1);
+        LoadField loadG = heap.addLoad(g, o1, o2);
+        HeapAliasIndex index = index(heap);
+        // the locations are (object, field), thus neither the other
+        // fields of the same object nor the other objects alias
+        Assert.assertEquals(List.of(storeF1), index.storesOf(loadF1).toList());
+        Assert.assertEquals(List.of(storeG1), index.storesOf(loadG).toList());
+        Assert.assertEquals(List.of(loadF1), index.loadsOf(storeF1).toList());
+        Assert.assertEquals(List.of(loadG), index.loadsOf(storeG1).toList());
+        Assert.assertEquals(0, index.loadsOf(storeF2).count());
+        // the array of o1 is not a field of o1
+        Assert.assertEquals(0, index.loadsOf(storeArray).count());
+    }
+
+    @Test
+    public void testStaticFields() {
+        JField s = SyntheticHeap.newField("A", "s", true);
+        JField t = SyntheticHeap.newField("A", "t", true);
+        JField u = SyntheticHeap.newField("B", "s", true);
+        SyntheticHeap heap = new SyntheticHeap();
+        StoreField storeS = heap.addStore(s);
+        StoreField storeT = heap.addStore(t);
+        StoreField storeU = heap.addStore(u);
+        LoadField loadS1 = heap.addLoad(s);
+        LoadField loadS2 = heap.addLoad(s);
+        LoadField loadU = heap.addLoad(u);
+        HeapAliasIndex index = index(heap);
+        // all accesses of a static field are in the same group
+        Assert.assertEquals(List.of(storeS), index.storesOf(loadS1).toList());
+        Assert.assertEquals(List.of(storeS), index.storesOf(loadS2).toList());
+        Assert.assertEquals(List.of(loadS1, loadS2), index.loadsOf(storeS).toList());
+        Assert.assertEquals(List.of(loadU), index.loadsOf(storeU).toList());
+        Assert.assertEquals(0, index.loadsOf(storeT).count());
+    }
+
+    @Test
+    public void testRandomHeaps() {
+        for (long seed = 0; seed < 10; ++seed) {
+            SyntheticHeap heap = new SyntheticHeap(20, 10, 8, 3, 0.1, seed);
+            HeapAliasIndex index = index(heap);
+            for (Stmt stmt : heap.getStmts()) {
+                if (stmt instanceof LoadArray load) {
+                    Set<Stmt> stores = index.storesOf(load)
+                            .collect(Collectors.toSet());
+                    Assert.assertEquals("seed " + seed,
+                            heap.naiveStoresOf(load), stores);
+                    for (Stmt store : stores) {
+                        Assert.assertTrue(index.loadsOf(store)
+                                .anyMatch(load::equals));
+                    }
+                }
+            }
+        }
+    }
+}
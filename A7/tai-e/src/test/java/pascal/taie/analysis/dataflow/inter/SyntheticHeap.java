@@ -0,0 +1,267 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.ArrayAccess;
+import pascal.taie.ir.exp.FieldAccess;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.StaticFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Modifier;
+import pascal.taie.language.type.NullType;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Array and field loads and stores of int values together with the
+ * points-to sets of their bases, for testing and measuring
+ * {@link HeapAliasIndex} without the front end. The statements can be generated randomly:
+ * each method has a number of accesses, whose bases point to a few
+ * random array objects, and some of the bases also point to one
+ * hot object, which is shared by the accesses of many methods.
+ */
+class SyntheticHeap {
+
+    private final List<Stmt> stmts = new ArrayList<>();
+
+    private final Map<Var, Set<Obj>> pointsTo = Maps.newMap();
+
+    private int vars;
+
+    SyntheticHeap() {
+    }
+
+    /**
+     * @param methods  number of methods
+     * @param accesses number of array accesses per method
+     * @param objects  number of array objects
+     * @param pts      maximum size of the points-to set of a base
+     * @param hot      probability that a base also points to the hot object
+     * @param seed     seed of the random generator
+     */
+    SyntheticHeap(int methods, int accesses, int objects, int pts,
+                  double hot, long seed) {
+        Random random = new Random(seed);
+        Obj[] objs = new Obj[objects];
+        for (int i = 0; i < objects; ++i) {
+            objs[i] = newObj("o" + i);
+        }
+        for (int i = 0; i < methods * accesses; ++i) {
+            Obj[] bases = new Obj[1 + random.nextInt(pts)];
+            for (int j = 0; j < bases.length; ++j) {
+                bases[j] = objs[1 + random.nextInt(objects - 1)];
+            }
+            if (random.nextDouble() < hot) {
+                bases[0] = objs[0];
+            }
+            if (random.nextBoolean()) {
+                addStore(bases);
+            } else {
+                addLoad(bases);
+            }
+        }
+    }
+
+    static Obj newObj(String name) {
+        return new ArrayObj(name);
+    }
+
+    /**
+     * Adds an int array load whose base points to given objects.
+     */
+    LoadArray addLoad(Obj... bases) {
+        LoadArray load = new LoadArray(newVar(PrimitiveType.INT),
+                new ArrayAccess(newBase(bases), newVar(PrimitiveType.INT)));
+        stmts.add(load);
+        return load;
+    }
+
+    /**
+     * Adds an array store of a value of given type,
+     * whose base points to given objects.
+     */
+    StoreArray addStore(Type valueType, Obj... bases) {
+        StoreArray store = new StoreArray(
+                new ArrayAccess(newBase(bases), newVar(PrimitiveType.INT)),
+                newVar(valueType));
+        stmts.add(store);
+        return store;
+    }
+
+    /**
+     * Adds an int array store whose base points to given objects.
+     */
+    StoreArray addStore(Obj... bases) {
+        return addStore(PrimitiveType.INT, bases);
+    }
+
+    /**
+     * @return an int field of a class of given name. The field reference
+     * of the field is resolved to it, as there is no class hierarchy
+     * to resolve the reference.
+     */
+    static JField newField(String className, String name, boolean isStatic) {
+        JClass jclass = new JClass(null, className);
+        JField field = new JField(jclass, name,
+                isStatic ? Set.of(Modifier.STATIC) : Set.of(),
+                PrimitiveType.INT, AnnotationHolder.emptyHolder());
+        try {
+            Field resolved = FieldRef.class.getDeclaredField("field");
+            resolved.setAccessible(true);
+            resolved.set(field.getRef(), field);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+        return field;
+    }
+
+    /**
+     * Adds a load of given int field. If the field is an instance field,
+     * its base points to given objects, otherwise the objects are ignored.
+     */
+    LoadField addLoad(JField field, Obj... bases) {
+        LoadField load = new LoadField(newVar(PrimitiveType.INT),
+                newFieldAccess(field, bases));
+        stmts.add(load);
+        return load;
+    }
+
+    /**
+     * Adds a store of given int field. If the field is an instance field,
+     * its base points to given objects, otherwise the objects are ignored.
+     */
+    StoreField addStore(JField field, Obj... bases) {
+        StoreField store = new StoreField(newFieldAccess(field, bases),
+                newVar(PrimitiveType.INT));
+        stmts.add(store);
+        return store;
+    }
+
+    private FieldAccess newFieldAccess(JField field, Obj[] bases) {
+        return field.isStatic()
+                ? new StaticFieldAccess(field.getRef())
+                : new InstanceFieldAccess(field.getRef(), newBase(bases));
+    }
+
+    private Var newBase(Obj[] bases) {
+        Var base = newVar(NullType.NULL);
+        Set<Obj> pts = Sets.newSet();
+        Collections.addAll(pts, bases);
+        pointsTo.put(base, pts);
+        return base;
+    }
+
+    private Var newVar(Type type) {
+        int index = vars++;
+        return new Var((JMethod) null, "v" + index, type, index);
+    }
+
+    List<Stmt> getStmts() {
+        return stmts;
+    }
+
+    /**
+     * @return the points-to set of given variable, which is empty
+     * unless the variable is the base of an access.
+     */
+    Set<Obj> getPointsToSet(Var var) {
+        return pointsTo.getOrDefault(var, Set.of());
+    }
+
+    /**
+     * @return the int stores whose bases may alias the base of given load,
+     * found by intersecting the points-to sets of the load and every store.
+     */
+    Set<Stmt> naiveStoresOf(LoadArray load) {
+        Set<Obj> loadPts = pointsTo.get(load.getArrayAccess().getBase());
+        Set<Stmt> result = Sets.newSet();
+        for (Stmt stmt : stmts) {
+            if (stmt instanceof StoreArray store &&
+                    store.getRValue().getType() == PrimitiveType.INT) {
+                for (Obj obj : pointsTo.get(store.getArrayAccess().getBase())) {
+                    if (loadPts.contains(obj)) {
+                        result.add(store);
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static class ArrayObj implements Obj {
+
+        private final String name;
+
+        private ArrayObj(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Type getType() {
+            return NullType.NULL;
+        }
+
+        @Override
+        public Object getAllocation() {
+            return name;
+        }
+
+        @Override
+        public Optional<JMethod> getContainerMethod() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Type getContainerType() {
+            return NullType.NULL;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}